@@ -0,0 +1,156 @@
+import java.util.*;
+
+/**
+ * The result of a breadth-first search over a graph snapshot
+ * Holds the level, parent and parent edge of every node by dense id
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class BFSTree<N, E> {
+	/** The snapshot the search ran on */
+	private GraphSnapshot<N, E> snapshot;
+	/** Dense id of the starting node */
+	private int source;
+	/** Number of edges from the source to each node, -1 if unreachable */
+	private int[] levels;
+	/** Id of each node's parent in the tree, -1 if unreachable and the source itself for the source */
+	private int[] parents;
+	/** Edge id joining each node to its parent, -1 for the source and unreachable nodes */
+	private int[] parentEdges;
+	/** Number of nodes reached, including the source */
+	private int reached;
+	/** Number of levels expanded top-down, from the frontier outwards */
+	private int topDownSteps;
+	/** Number of levels expanded bottom-up, from the unvisited nodes inwards */
+	private int bottomUpSteps;
+
+	/**
+	 * Constructor
+	 * @param snapshot The snapshot the search ran on
+	 * @param source The starting node's id
+	 * @param levels The level of each node
+	 * @param parents The parent of each node
+	 * @param parentEdges The edge to each node's parent
+	 * @param reached The number of nodes reached
+	 * @param topDownSteps The number of top-down levels
+	 * @param bottomUpSteps The number of bottom-up levels
+	 */
+	BFSTree(GraphSnapshot<N, E> snapshot, int source, int[] levels, int[] parents, int[] parentEdges, int reached,
+			int topDownSteps, int bottomUpSteps) {
+		this.snapshot = snapshot;
+		this.source = source;
+		this.levels = levels;
+		this.parents = parents;
+		this.parentEdges = parentEdges;
+		this.reached = reached;
+		this.topDownSteps = topDownSteps;
+		this.bottomUpSteps = bottomUpSteps;
+	}
+
+	/**
+	 * Accessor for the starting node's id
+	 * @return source
+	 */
+	public int getSource() {
+		return this.source;
+	}
+
+	/**
+	 * Accessor for the level array, which must not be modified
+	 * @return levels The number of edges from the source to each node, -1 if unreachable
+	 */
+	public int[] getLevels() {
+		return this.levels;
+	}
+
+	/**
+	 * Accessor for the parent array, which must not be modified
+	 * @return parents The parent id of each node, -1 if unreachable
+	 */
+	public int[] getParents() {
+		return this.parents;
+	}
+
+	/**
+	 * Accessor for the parent edge array, which must not be modified
+	 * @return parentEdges The edge id joining each node to its parent, -1 if none
+	 */
+	public int[] getParentEdges() {
+		return this.parentEdges;
+	}
+
+	/**
+	 * Gets the number of nodes reached, including the source
+	 * @return reached
+	 */
+	public int getReached() {
+		return this.reached;
+	}
+
+	/**
+	 * Accessor for the number of levels expanded top-down
+	 * @return topDownSteps
+	 */
+	public int getTopDownSteps() {
+		return this.topDownSteps;
+	}
+
+	/**
+	 * Accessor for the number of levels expanded bottom-up
+	 * @return bottomUpSteps
+	 */
+	public int getBottomUpSteps() {
+		return this.bottomUpSteps;
+	}
+
+	/**
+	 * Returns true if the node with the given id was reached
+	 * @param id The node's dense id
+	 * @return true if reachable from the source
+	 */
+	public boolean isReached(int id) {
+		return this.levels[id] >= 0;
+	}
+
+	/**
+	 * Gets the ids of every node that was not reached, read straight from the level array
+	 * @return unreachable The ids in increasing order
+	 */
+	public int[] getUnreachableIds() {
+		int[] unreachable = new int[this.levels.length-this.reached];
+		int count = 0;
+		for (int i = 0; i < this.levels.length; i++) {
+			if (this.levels[i] < 0) {
+				unreachable[count++] = i;
+			}
+		}
+		return unreachable;
+	}
+
+	/**
+	 * Gets every node that was not reached
+	 * @return unreachable The unreachable nodes
+	 */
+	public ArrayList<Graph<N, E>.Node> getUnreachableNodes() {
+		ArrayList<Graph<N, E>.Node> unreachable = new ArrayList<Graph<N, E>.Node>(this.levels.length-this.reached);
+		for (int id : getUnreachableIds()) {
+			unreachable.add(this.snapshot.getNode(id));
+		}
+		return unreachable;
+	}
+
+	/**
+	 * Gets the edges of the tree, one for every reached node other than the source
+	 * @return treeEdges The tree edges
+	 */
+	public ArrayList<Graph<N, E>.Edge> getTreeEdges() {
+		ArrayList<Graph<N, E>.Edge> treeEdges = new ArrayList<Graph<N, E>.Edge>(Math.max(this.reached-1, 0));
+		for (int id = 0; id < this.parentEdges.length; id++) {
+			if (this.parentEdges[id] >= 0) {
+				treeEdges.add(this.snapshot.getEdge(this.parentEdges[id]));
+			}
+		}
+		return treeEdges;
+	}
+}
@@ -0,0 +1,106 @@
+import java.util.*;
+
+/**
+ * The connected component of every node of a graph snapshot
+ * Components are numbered from 0 in order of their smallest node id
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class ComponentLabels<N, E> {
+	/** The snapshot that was labelled */
+	private GraphSnapshot<N, E> snapshot;
+	/** Component of each node, by dense id */
+	private int[] labels;
+	/** Number of nodes in each component */
+	private int[] sizes;
+
+	/**
+	 * Constructor
+	 * @param snapshot The snapshot that was labelled
+	 * @param labels The component of each node
+	 * @param sizes The number of nodes in each component
+	 */
+	ComponentLabels(GraphSnapshot<N, E> snapshot, int[] labels, int[] sizes) {
+		this.snapshot = snapshot;
+		this.labels = labels;
+		this.sizes = sizes;
+	}
+
+	/**
+	 * Gets the number of components
+	 * @return num
+	 */
+	public int numComponents() {
+		return this.sizes.length;
+	}
+
+	/**
+	 * Accessor for the label array, which must not be modified
+	 * @return labels The component of each node, by dense id
+	 */
+	public int[] getLabels() {
+		return this.labels;
+	}
+
+	/**
+	 * Accessor for the size array, which must not be modified
+	 * @return sizes The number of nodes in each component
+	 */
+	public int[] getSizes() {
+		return this.sizes;
+	}
+
+	/**
+	 * Gets the component of a node
+	 * @param node The node
+	 * @return label
+	 * @throws IllegalArgumentException If the node was not in the graph when the snapshot was taken
+	 */
+	public int labelOf(Graph<N, E>.Node node) {
+		int id = this.snapshot.idOf(node);
+		if (id < 0) {
+			throw new IllegalArgumentException("Node "+node.getData()+" is not in the labelled snapshot");
+		}
+		return this.labels[id];
+	}
+
+	/**
+	 * Gets the number of nodes in the largest component
+	 * @return size The largest size, 0 for an empty graph
+	 */
+	public int getLargestSize() {
+		int largest = 0;
+		for (int size : this.sizes) {
+			largest = Math.max(largest, size);
+		}
+		return largest;
+	}
+
+	/**
+	 * Counts the components of each size
+	 * @return histogram The number of components of each size, by increasing size
+	 */
+	public TreeMap<Integer, Integer> getSizeHistogram() {
+		TreeMap<Integer, Integer> histogram = new TreeMap<Integer, Integer>();
+		for (int size : this.sizes) {
+			histogram.merge(size, 1, Integer::sum);
+		}
+		return histogram;
+	}
+
+	/**
+	 * Gets every node of a component
+	 * @param label The component
+	 * @return nodes The nodes in order of id
+	 */
+	public ArrayList<Graph<N, E>.Node> getNodes(int label) {
+		ArrayList<Graph<N, E>.Node> nodes = new ArrayList<Graph<N, E>.Node>(this.sizes[label]);
+		for (int id = 0; id < this.labels.length; id++) {
+			if (this.labels[id] == label) {
+				nodes.add(this.snapshot.getNode(id));
+			}
+		}
+		return nodes;
+	}
+}
@@ -0,0 +1,716 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A graph that many threads can change and read at once, with the same Node and Edge API as Graph
+ * Every node hashes to one of a fixed set of lock stripes, which guards its edge list, so adding and
+ * removing edges between different nodes runs in parallel and only the O(1) update of the master
+ * lists is serialized. Removing a node and reading the whole graph take an exclusive lock instead.
+ * The counts, getNode, getEdge, contains and getModCount take no lock at all: every change publishes
+ * the master lists into atomic arrays and volatile counts once it is complete, and readers see the
+ * last published state. Long reads should run on snapshot(), which holds the exclusive lock only while copying.
+ * Node.getEdgeList, Node.addEdge and Node.edgeAt read or change an edge list without its stripe, so on
+ * this graph they are safe only inside exclusive(); edgesOf, degree and getEdgeRef are the locked forms.
+ * Edge.setData and Edge.setWeight take the stripes of the edge's endpoints
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class ConcurrentGraph<N, E> extends Graph<N, E> {
+	/** Fewest lock stripes a graph gets, however few threads there are */
+	static final int MIN_STRIPES = 16;
+
+	/** Held shared by changes confined to a few nodes, and exclusively by node removal and whole-graph reads */
+	private ReentrantReadWriteLock structure = new ReentrantReadWriteLock();
+	/** Guards the master lists, the change count and the listeners */
+	private ReentrantLock master = new ReentrantLock();
+	/** Locks guarding the edge lists of the nodes hashed to them */
+	private ReentrantLock[] stripes;
+	/** The master node list as last published, for lock-free reads */
+	private volatile AtomicReferenceArray<Node> nodeSlots = new AtomicReferenceArray<Node>(MIN_STRIPES);
+	/** The master edge list as last published, for lock-free reads */
+	private volatile AtomicReferenceArray<Edge> edgeSlots = new AtomicReferenceArray<Edge>(MIN_STRIPES);
+	/** Number of nodes as last published */
+	private volatile int nodeCount;
+	/** Number of edges as last published */
+	private volatile int edgeCount;
+	/** Change count as last published */
+	private volatile long publishedModCount;
+
+	/**
+	 * Constructor
+	 * Initializes an empty graph with a few stripes per available processor
+	 */
+	ConcurrentGraph() {
+		this(NUMBER_WEIGHT);
+	}
+
+	/**
+	 * Constructor
+	 * @param weightFunction Extracts the primitive weight of an edge from its data whenever the data is set
+	 */
+	ConcurrentGraph(ToDoubleFunction<? super E> weightFunction) {
+		this(weightFunction, 4*Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor
+	 * @param weightFunction Extracts the primitive weight of an edge from its data whenever the data is set
+	 * @param concurrency The expected number of threads changing the graph at once, rounded up to a power of two stripes
+	 */
+	ConcurrentGraph(ToDoubleFunction<? super E> weightFunction, int concurrency) {
+		super(weightFunction);
+		int size = MIN_STRIPES;
+		while (size < concurrency) {
+			size *= 2;
+		}
+		this.stripes = new ReentrantLock[size];
+		for (int i = 0; i < size; i++) {
+			this.stripes[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Gets the number of lock stripes
+	 * @return stripes
+	 */
+	public int numStripes() {
+		return this.stripes.length;
+	}
+
+	/**
+	 * Returns a copy of the master node list, since the list itself changes under other threads
+	 * Waits out node removals so the copy is a list the graph really had
+	 * @return nodes
+	 */
+	@Override
+	public ArrayList<Node> getNodesList() {
+		this.structure.readLock().lock();
+		this.master.lock();
+		try {
+			return new ArrayList<Node>(super.getNodesList());
+		} finally {
+			this.master.unlock();
+			this.structure.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns a copy of the master edge list, since the list itself changes under other threads
+	 * Waits out node removals so the copy is a list the graph really had
+	 * @return edges
+	 */
+	@Override
+	public ArrayList<Edge> getEdgesList() {
+		this.structure.readLock().lock();
+		this.master.lock();
+		try {
+			return new ArrayList<Edge>(super.getEdgesList());
+		} finally {
+			this.master.unlock();
+			this.structure.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the node at specified index without locking
+	 * @param i The index in the node list
+	 * @return node The node at index i
+	 */
+	@Override
+	public Node getNode(int i) {
+		if (changing()) {
+			return super.getNode(i);
+		}
+		while (true) {
+			int count = this.nodeCount;
+			if (i < 0 || i >= count) {
+				throw new IndexOutOfBoundsException("Index: "+i+", Size: "+count);
+			}
+			Node node = this.nodeSlots.get(i);
+			// A slot is emptied just before the count shrinks past it
+			if (node != null) {
+				return node;
+			}
+		}
+	}
+
+	/**
+	 * Gets the edge at specified index without locking
+	 * @param i The index in the edge list
+	 * @return edge The edge at index i
+	 */
+	@Override
+	public Edge getEdge(int i) {
+		if (changing()) {
+			return super.getEdge(i);
+		}
+		while (true) {
+			int count = this.edgeCount;
+			if (i < 0 || i >= count) {
+				throw new IndexOutOfBoundsException("Index: "+i+", Size: "+count);
+			}
+			Edge edge = this.edgeSlots.get(i);
+			if (edge != null) {
+				return edge;
+			}
+		}
+	}
+
+	@Override
+	public int numNodes() {
+		return changing() ? super.numNodes() : this.nodeCount;
+	}
+
+	@Override
+	public int numEdges() {
+		return changing() ? super.numEdges() : this.edgeCount;
+	}
+
+	@Override
+	public long getModCount() {
+		return changing() ? super.getModCount() : this.publishedModCount;
+	}
+
+	/**
+	 * Registers an object to be told about every change to the graph
+	 * Listeners are called one at a time, but from whichever thread made the change, holding the stripes
+	 * of the changed edge's endpoints and no others. A listener on this graph must therefore look only at
+	 * the node or edge it is told about, never at other nodes' edge lists
+	 * @param listener The listener
+	 */
+	@Override
+	public void addListener(GraphListener<N, E> listener) {
+		this.master.lock();
+		try {
+			super.addListener(listener);
+		} finally {
+			this.master.unlock();
+		}
+	}
+
+	@Override
+	public void removeListener(GraphListener<N, E> listener) {
+		this.master.lock();
+		try {
+			super.removeListener(listener);
+		} finally {
+			this.master.unlock();
+		}
+	}
+
+	/**
+	 * Returns true if the node is in this graph
+	 * Lock-free unless the node is being moved by a removal, in which case the answer waits for it
+	 * @param node The node in question
+	 * @return true if the node has not been removed
+	 */
+	@Override
+	public boolean contains(Node node) {
+		if (changing()) {
+			return super.contains(node);
+		}
+		int index = node.getIndex();
+		if (index < 0) {
+			return false;
+		}
+		if (index < this.nodeCount && this.nodeSlots.get(index) == node) {
+			return true;
+		}
+		this.structure.readLock().lock();
+		this.master.lock();
+		try {
+			return super.contains(node);
+		} finally {
+			this.master.unlock();
+			this.structure.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns true if the edge is in this graph
+	 * Lock-free unless the edge is being moved by a removal, in which case the answer waits for it
+	 * @param edge The edge in question
+	 * @return true if the edge has not been removed
+	 */
+	@Override
+	public boolean contains(Edge edge) {
+		if (changing()) {
+			return super.contains(edge);
+		}
+		int index = edge.getIndex();
+		if (index < 0) {
+			return false;
+		}
+		if (index < this.edgeCount && this.edgeSlots.get(index) == edge) {
+			return true;
+		}
+		this.master.lock();
+		try {
+			return super.contains(edge);
+		} finally {
+			this.master.unlock();
+		}
+	}
+
+	@Override
+	public Node addNode(N nodeData) {
+		this.structure.readLock().lock();
+		this.master.lock();
+		try {
+			Node node = super.addNode(nodeData);
+			this.nodeSlots = publishAdded(this.nodeSlots, this.nodeCount, node);
+			this.nodeCount++;
+			this.publishedModCount = super.getModCount();
+			return node;
+		} finally {
+			this.master.unlock();
+			this.structure.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds an edge to the graph, holding only the locks of its endpoints while linking them
+	 * @param edgeData The edge's data
+	 * @param head The head node
+	 * @param tail The tail node
+	 * @return edge The newly added edge, or null if either endpoint has been removed
+	 */
+	@Override
+	public Edge addEdge(E edgeData, Node head, Node tail) {
+		this.structure.readLock().lock();
+		try {
+			if (!contains(head) || !contains(tail)) {
+				return null;
+			}
+			lockBoth(head, tail);
+			try {
+				return super.addEdge(edgeData, head, tail);
+			} finally {
+				unlockBoth(head, tail);
+			}
+		} finally {
+			this.structure.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds an edge that carries only a primitive weight, holding only the locks of its endpoints while linking them
+	 * @param weight The edge's weight
+	 * @param head The head node
+	 * @param tail The tail node
+	 * @return edge The newly added edge, or null if either endpoint has been removed
+	 */
+	@Override
+	public Edge addWeightedEdge(double weight, Node head, Node tail) {
+		this.structure.readLock().lock();
+		try {
+			if (!contains(head) || !contains(tail)) {
+				return null;
+			}
+			lockBoth(head, tail);
+			try {
+				return super.addWeightedEdge(weight, head, tail);
+			} finally {
+				unlockBoth(head, tail);
+			}
+		} finally {
+			this.structure.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes an edge from the graph, holding only the locks of its endpoints while unlinking them
+	 * Does nothing if another thread has already removed it
+	 * @param edge The edge to remove
+	 */
+	@Override
+	public void removeEdge(Edge edge) {
+		this.structure.readLock().lock();
+		try {
+			lockBoth(edge.getHead(), edge.getTail());
+			try {
+				super.removeEdge(edge);
+			} finally {
+				unlockBoth(edge.getHead(), edge.getTail());
+			}
+		} finally {
+			this.structure.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes an edge from the graph given head and tail nodes
+	 * Does nothing if they are not joined
+	 * @param head The head of an edge
+	 * @param tail The tail of an edge
+	 */
+	@Override
+	public void removeEdge(Node head, Node tail) {
+		this.structure.readLock().lock();
+		try {
+			lockBoth(head, tail);
+			try {
+				Edge edge = head.edgeTo(tail);
+				if (edge != null) {
+					removeEdge(edge);
+				}
+			} finally {
+				unlockBoth(head, tail);
+			}
+		} finally {
+			this.structure.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes a node and all of its edges, excluding every other change and read while it does
+	 * @param node The node to remove
+	 */
+	@Override
+	public void removeNode(Node node) {
+		this.structure.writeLock().lock();
+		try {
+			if (!super.contains(node)) {
+				return;
+			}
+			int index = node.getIndex();
+			super.removeNode(node);
+			this.master.lock();
+			try {
+				publishRemoved(this.nodeSlots, this.nodeCount, index, super.getNodesList());
+				this.nodeCount--;
+				this.publishedModCount = super.getModCount();
+			} finally {
+				this.master.unlock();
+			}
+		} finally {
+			this.structure.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void refreshWeights() {
+		this.structure.writeLock().lock();
+		try {
+			super.refreshWeights();
+			this.publishedModCount = super.getModCount();
+		} finally {
+			this.structure.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Sets an edge's data and weight, holding the stripes of its endpoints
+	 * @param edge The edge
+	 * @param data The edge's new data
+	 */
+	@Override
+	void setEdgeData(Edge edge, E data) {
+		this.structure.readLock().lock();
+		try {
+			lockBoth(edge.getHead(), edge.getTail());
+			try {
+				super.setEdgeData(edge, data);
+			} finally {
+				unlockBoth(edge.getHead(), edge.getTail());
+			}
+		} finally {
+			this.structure.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Sets an edge's weight, holding the stripes of its endpoints
+	 * @param edge The edge
+	 * @param weight The edge's new weight
+	 */
+	@Override
+	void setEdgeWeight(Edge edge, double weight) {
+		this.structure.readLock().lock();
+		try {
+			lockBoth(edge.getHead(), edge.getTail());
+			try {
+				super.setEdgeWeight(edge, weight);
+			} finally {
+				unlockBoth(edge.getHead(), edge.getTail());
+			}
+		} finally {
+			this.structure.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the edge between a head and tail node
+	 * @param head The head node
+	 * @param tail The tail node
+	 * @return edge The edge between the head and tail node, or null if none
+	 */
+	@Override
+	public Edge getEdgeRef(Node head, Node tail) {
+		this.structure.readLock().lock();
+		try {
+			lockBoth(head, tail);
+			try {
+				return super.getEdgeRef(head, tail);
+			} finally {
+				unlockBoth(head, tail);
+			}
+		} finally {
+			this.structure.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets a copy of a node's edge list, which Node.getEdgeList cannot safely return while other threads change it
+	 * @param node The node
+	 * @return edges
+	 */
+	public ArrayList<Edge> edgesOf(Node node) {
+		this.structure.readLock().lock();
+		ReentrantLock stripe = stripeOf(node);
+		stripe.lock();
+		try {
+			return new ArrayList<Edge>(node.getEdgeList());
+		} finally {
+			stripe.unlock();
+			this.structure.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the number of edges of a node, counting a self-loop twice
+	 * @param node The node
+	 * @return degree
+	 */
+	public int degree(Node node) {
+		this.structure.readLock().lock();
+		ReentrantLock stripe = stripeOf(node);
+		stripe.lock();
+		try {
+			return node.degree();
+		} finally {
+			stripe.unlock();
+			this.structure.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Runs an action while no other thread can change the graph, for reads that walk the Node and Edge objects
+	 * directly, such as DFT, BFT or distances
+	 * @param action The action
+	 * @return result The action's result
+	 */
+	public <T> T exclusive(Supplier<T> action) {
+		this.structure.writeLock().lock();
+		try {
+			return action.get();
+		} finally {
+			this.structure.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Takes an immutable compressed sparse row copy of the graph, holding the exclusive lock only while copying
+	 * @return snapshot The CSR snapshot of the graph
+	 */
+	@Override
+	public GraphSnapshot<N, E> snapshot() {
+		return exclusive(super::snapshot);
+	}
+
+	@Override
+	GraphSnapshot<N, E> searchSnapshot() {
+		return exclusive(super::searchSnapshot);
+	}
+
+	/**
+	 * Gets a point-in-time version of the graph that later changes never affect
+	 * Holds the exclusive lock only to publish, which is O(1) after the first call
+	 * @return view
+	 */
+	@Override
+	public ReadView<N, E> readView() {
+		return exclusive(super::readView);
+	}
+
+	@Override
+	public ArrayList<String> validate() {
+		return exclusive(super::validate);
+	}
+
+	@Override
+	public void print() {
+		exclusive(() -> {
+			super.print();
+			return null;
+		});
+	}
+
+	@Override
+	public HashSet<Node> otherNodes(HashSet<Node> group) {
+		return exclusive(() -> super.otherNodes(group));
+	}
+
+	@Override
+	void load(IntFunction<? extends N> nodeData, IntFunction<? extends E> edgeData, int[] heads, int[] tails,
+			double[] weights, int numEdges, int[] offsets, int[] edgeIds) {
+		this.structure.writeLock().lock();
+		this.master.lock();
+		try {
+			super.load(nodeData, edgeData, heads, tails, weights, numEdges, offsets, edgeIds);
+			for (Node node : super.getNodesList()) {
+				this.nodeSlots = publishAdded(this.nodeSlots, this.nodeCount, node);
+				this.nodeCount++;
+			}
+			for (Edge edge : super.getEdgesList()) {
+				this.edgeSlots = publishAdded(this.edgeSlots, this.edgeCount, edge);
+				this.edgeCount++;
+			}
+			this.publishedModCount = super.getModCount();
+		} finally {
+			this.master.unlock();
+			this.structure.writeLock().unlock();
+		}
+	}
+
+	@Override
+	void registerEdge(Edge edge) {
+		this.master.lock();
+		try {
+			super.registerEdge(edge);
+			this.edgeSlots = publishAdded(this.edgeSlots, this.edgeCount, edge);
+			this.edgeCount++;
+			this.publishedModCount = super.getModCount();
+		} finally {
+			this.master.unlock();
+		}
+	}
+
+	@Override
+	void unregisterEdge(Edge edge) {
+		this.master.lock();
+		try {
+			int index = edge.getIndex();
+			super.unregisterEdge(edge);
+			publishRemoved(this.edgeSlots, this.edgeCount, index, super.getEdgesList());
+			this.edgeCount--;
+			this.publishedModCount = super.getModCount();
+		} finally {
+			this.master.unlock();
+		}
+	}
+
+	@Override
+	void countChange() {
+		this.master.lock();
+		try {
+			super.countChange();
+			this.publishedModCount = super.getModCount();
+		} finally {
+			this.master.unlock();
+		}
+	}
+
+	@Override
+	void weightChanged(Edge edge, double oldWeight) {
+		this.master.lock();
+		try {
+			super.weightChanged(edge, oldWeight);
+			this.publishedModCount = super.getModCount();
+		} finally {
+			this.master.unlock();
+		}
+	}
+
+	/**
+	 * Publishes an item appended to a master list, growing the published array if it is full
+	 * The caller publishes the new count afterwards, so readers never see an unfilled slot
+	 * @param slots The published array
+	 * @param count The published count
+	 * @param item The appended item
+	 * @return slots The array to publish, which may be a new one
+	 */
+	private static <T> AtomicReferenceArray<T> publishAdded(AtomicReferenceArray<T> slots, int count, T item) {
+		if (count == slots.length()) {
+			AtomicReferenceArray<T> grown = new AtomicReferenceArray<T>(2*count);
+			for (int i = 0; i < count; i++) {
+				grown.set(i, slots.get(i));
+			}
+			slots = grown;
+		}
+		slots.set(count, item);
+		return slots;
+	}
+
+	/**
+	 * Publishes a swap-removal from a master list: the last item moves into the freed slot and the last slot is emptied
+	 * The caller publishes the smaller count afterwards
+	 * @param slots The published array
+	 * @param count The published count, before the removal
+	 * @param index The index the removed item had
+	 * @param list The master list after the removal
+	 */
+	private static <T> void publishRemoved(AtomicReferenceArray<T> slots, int count, int index, ArrayList<T> list) {
+		if (index < count-1) {
+			slots.set(index, list.get(index));
+		}
+		slots.set(count-1, null);
+	}
+
+	/**
+	 * Returns true if this thread is in the middle of changing the master lists, as a listener is,
+	 * so it must read them directly rather than the state published before the change
+	 */
+	private boolean changing() {
+		return this.master.isHeldByCurrentThread() || this.structure.isWriteLockedByCurrentThread();
+	}
+
+	/**
+	 * Gets the lock stripe of a node
+	 * @param node The node
+	 * @return stripe
+	 */
+	private ReentrantLock stripeOf(Node node) {
+		return this.stripes[stripeIndex(node)];
+	}
+
+	/**
+	 * Gets the position of a node's lock stripe, by identity since the node's index moves on removals
+	 * @param node The node
+	 * @return index
+	 */
+	private int stripeIndex(Node node) {
+		int hash = System.identityHashCode(node);
+		return (hash ^ (hash >>> 16)) & (this.stripes.length-1);
+	}
+
+	/**
+	 * Locks the stripes of two nodes, lower position first so two threads cannot deadlock
+	 */
+	private void lockBoth(Node a, Node b) {
+		int first = stripeIndex(a);
+		int second = stripeIndex(b);
+		this.stripes[Math.min(first, second)].lock();
+		if (first != second) {
+			this.stripes[Math.max(first, second)].lock();
+		}
+	}
+
+	/**
+	 * Unlocks the stripes of two nodes locked by lockBoth
+	 */
+	private void unlockBoth(Node a, Node b) {
+		int first = stripeIndex(a);
+		int second = stripeIndex(b);
+		if (first != second) {
+			this.stripes[Math.max(first, second)].unlock();
+		}
+		this.stripes[Math.min(first, second)].unlock();
+	}
+}
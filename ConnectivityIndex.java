@@ -0,0 +1,243 @@
+import java.util.*;
+
+/**
+ * Connected components of a graph, kept up to date as nodes and edges are added
+ * A union-find over node indexes, with path compression and union by rank, so each query
+ * and each added edge costs near-constant time. Removals can split a component, which
+ * union-find cannot undo, so a removal only marks the index stale and it is rebuilt from
+ * the graph in O(V+E) at the next query, however many removals came before it
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class ConnectivityIndex<N, E> implements GraphListener<N, E> {
+	/** The graph being followed */
+	private Graph<N, E> graph;
+	/** Parent of each node index in its union-find tree, itself for a root */
+	private int[] parents;
+	/** Upper bound on the height of each root's tree */
+	private byte[] ranks;
+	/** Number of nodes in each root's component */
+	private int[] sizes;
+	/** Number of components */
+	private int components;
+	/** Whether a removal has happened since the last rebuild */
+	private boolean stale;
+	/** Number of rebuilds, including the first */
+	private int rebuilds;
+
+	/**
+	 * Constructor
+	 * Builds the index and registers for the graph's changes
+	 * Queries rebuild from the whole edge list, which a ConcurrentGraph does not lock for them,
+	 * so such a graph is refused
+	 * @param graph The graph to follow, not a ConcurrentGraph
+	 */
+	ConnectivityIndex(Graph<N, E> graph) {
+		if (graph instanceof ConcurrentGraph) {
+			throw new IllegalArgumentException("A connectivity index cannot follow a ConcurrentGraph; use its snapshot instead");
+		}
+		this.graph = graph;
+		rebuild();
+		graph.addListener(this);
+	}
+
+	/**
+	 * Stops following the graph's changes
+	 */
+	public void detach() {
+		this.graph.removeListener(this);
+	}
+
+	/**
+	 * Gets an id for the component of a node
+	 * Two nodes have the same id exactly when they are connected, until the graph next changes
+	 * @param node The node
+	 * @return id The component id, from 0 to numNodes-1
+	 * @throws IllegalArgumentException If the node is not in the graph
+	 */
+	public int componentOf(Graph<N, E>.Node node) {
+		refresh();
+		return find(indexOf(node));
+	}
+
+	/**
+	 * Returns true if there is a path between two nodes
+	 * @param a One node
+	 * @param b The other node
+	 * @return true if connected
+	 * @throws IllegalArgumentException If either node is not in the graph
+	 */
+	public boolean connected(Graph<N, E>.Node a, Graph<N, E>.Node b) {
+		refresh();
+		return find(indexOf(a)) == find(indexOf(b));
+	}
+
+	/**
+	 * Gets the number of nodes in a node's component, including the node
+	 * @param node The node
+	 * @return size
+	 * @throws IllegalArgumentException If the node is not in the graph
+	 */
+	public int componentSize(Graph<N, E>.Node node) {
+		refresh();
+		return this.sizes[find(indexOf(node))];
+	}
+
+	/**
+	 * Gets the number of components
+	 * @return components
+	 */
+	public int numComponents() {
+		refresh();
+		return this.components;
+	}
+
+	/**
+	 * Gets the size of every component
+	 * @return sizes The component sizes, largest first
+	 */
+	public int[] getComponentSizes() {
+		refresh();
+		int[] all = new int[this.components];
+		int count = 0;
+		for (int i = 0; i < this.graph.numNodes(); i++) {
+			if (this.parents[i] == i) {
+				all[count++] = this.sizes[i];
+			}
+		}
+		Arrays.sort(all);
+		for (int i = 0; i < all.length/2; i++) {
+			int swap = all[i];
+			all[i] = all[all.length-1-i];
+			all[all.length-1-i] = swap;
+		}
+		return all;
+	}
+
+	/**
+	 * Accessor for the number of rebuilds, including the first
+	 * @return rebuilds
+	 */
+	public int getRebuilds() {
+		return this.rebuilds;
+	}
+
+	@Override
+	public void nodeAdded(Graph<N, E>.Node node) {
+		if (this.stale) {
+			return;
+		}
+		int index = node.getIndex();
+		if (index >= this.parents.length) {
+			int capacity = Math.max(index+1, this.parents.length*2);
+			this.parents = Arrays.copyOf(this.parents, capacity);
+			this.ranks = Arrays.copyOf(this.ranks, capacity);
+			this.sizes = Arrays.copyOf(this.sizes, capacity);
+		}
+		this.parents[index] = index;
+		this.ranks[index] = 0;
+		this.sizes[index] = 1;
+		this.components++;
+	}
+
+	@Override
+	public void nodeRemoved(Graph<N, E>.Node node, int index) {
+		this.stale = true;
+	}
+
+	@Override
+	public void edgeAdded(Graph<N, E>.Edge edge) {
+		if (!this.stale) {
+			union(edge.getHead().getIndex(), edge.getTail().getIndex());
+		}
+	}
+
+	@Override
+	public void edgeRemoved(Graph<N, E>.Edge edge, int index) {
+		this.stale = true;
+	}
+
+	/**
+	 * Gets the index of a node, which must still be in the graph
+	 */
+	private int indexOf(Graph<N, E>.Node node) {
+		if (!this.graph.contains(node)) {
+			throw new IllegalArgumentException("Node "+node.getData()+" is not in the graph");
+		}
+		return node.getIndex();
+	}
+
+	/**
+	 * Rebuilds the index if a removal has made it stale
+	 */
+	private void refresh() {
+		if (this.stale) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Builds the index from scratch by joining the ends of every edge
+	 */
+	private void rebuild() {
+		int numNodes = this.graph.numNodes();
+		int capacity = Math.max(numNodes, 16);
+		this.parents = new int[capacity];
+		this.ranks = new byte[capacity];
+		this.sizes = new int[capacity];
+		for (int i = 0; i < numNodes; i++) {
+			this.parents[i] = i;
+			this.sizes[i] = 1;
+		}
+		this.components = numNodes;
+		for (int i = 0; i < this.graph.numEdges(); i++) {
+			Graph<N, E>.Edge edge = this.graph.getEdge(i);
+			union(edge.getHead().getIndex(), edge.getTail().getIndex());
+		}
+		this.stale = false;
+		this.rebuilds++;
+	}
+
+	/**
+	 * Finds the root of a node's tree, pointing every node on the way straight at it
+	 * @param index The node index
+	 * @return root
+	 */
+	private int find(int index) {
+		int root = index;
+		while (this.parents[root] != root) {
+			root = this.parents[root];
+		}
+		while (this.parents[index] != root) {
+			int next = this.parents[index];
+			this.parents[index] = root;
+			index = next;
+		}
+		return root;
+	}
+
+	/**
+	 * Joins the components of two nodes, hanging the shorter tree under the taller
+	 * @param a One node index
+	 * @param b The other node index
+	 */
+	private void union(int a, int b) {
+		int rootA = find(a);
+		int rootB = find(b);
+		if (rootA == rootB) {
+			return;
+		}
+		if (this.ranks[rootA] < this.ranks[rootB]) {
+			int swap = rootA;
+			rootA = rootB;
+			rootB = swap;
+		}
+		this.parents[rootB] = rootA;
+		this.sizes[rootA] += this.sizes[rootB];
+		if (this.ranks[rootA] == this.ranks[rootB]) {
+			this.ranks[rootA]++;
+		}
+		this.components--;
+	}
+}
@@ -0,0 +1,678 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * A contraction hierarchy for fast repeated distance queries on a graph that rarely changes
+ * Preprocessing removes the nodes one at a time, least important first, and adds a shortcut
+ * between two neighbors of a removed node whenever the path through it was their only shortest
+ * one. Each node keeps the edges and shortcuts to nodes removed after it, its upward edges, and a
+ * query is a bidirectional Dijkstra that only goes upwards from both ends, settling a few hundred
+ * nodes at most on road-like graphs
+ * Node ids are the node indexes of the graph when the hierarchy was built. A hierarchy reuses its
+ * search arrays between queries, so it must only be queried from one thread at a time
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class ContractionHierarchy {
+	/** Marks the start of a serialized hierarchy */
+	static final int MAGIC = 0x43484744;
+	/** Version of the serialized layout */
+	static final int VERSION = 1;
+	/** Most nodes a witness search may settle before a shortcut is added anyway */
+	static final int WITNESS_SETTLE_LIMIT = 64;
+
+	/** Number of nodes */
+	private int numNodes;
+	/** Position of each node in the contraction order */
+	private int[] ranks;
+	/** Start of each node's upward edges, with numNodes+1 entries */
+	private int[] offsets;
+	/** Higher-ranked end of each upward edge */
+	private int[] targets;
+	/** Weight of each upward edge */
+	private double[] weights;
+	/** Node each shortcut skips over, -1 for original edges */
+	private int[] middles;
+
+	/** Distance from each end of the current query, positive infinity if untouched */
+	private double[][] costs;
+	/** Node each node was reached from on each side, -1 for none */
+	private int[][] parents;
+	/** Nodes each side has touched, so the arrays can be reset in time proportional to the search */
+	private int[][] touched;
+	/** Number of touched nodes on each side */
+	private int[] touchedCount;
+	/** Queue of each side */
+	private IndexedMinHeap[] heaps;
+
+	/**
+	 * Constructor
+	 * @param numNodes The number of nodes
+	 * @param ranks The position of each node in the contraction order
+	 * @param offsets The start of each node's upward edges
+	 * @param targets The higher-ranked end of each upward edge
+	 * @param weights The weight of each upward edge
+	 * @param middles The node each shortcut skips over, -1 for original edges
+	 */
+	ContractionHierarchy(int numNodes, int[] ranks, int[] offsets, int[] targets, double[] weights, int[] middles) {
+		this.numNodes = numNodes;
+		this.ranks = ranks;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		this.middles = middles;
+		this.costs = new double[2][numNodes];
+		this.parents = new int[2][numNodes];
+		this.touched = new int[2][numNodes];
+		this.touchedCount = new int[2];
+		this.heaps = new IndexedMinHeap[] { new IndexedMinHeap(numNodes), new IndexedMinHeap(numNodes) };
+		for (int side = 0; side < 2; side++) {
+			Arrays.fill(this.costs[side], Double.POSITIVE_INFINITY);
+			Arrays.fill(this.parents[side], -1);
+		}
+	}
+
+	/**
+	 * Builds a hierarchy from a snapshot of a graph
+	 * Self-loops are dropped and only the lightest of several edges between two nodes is kept
+	 * @param snapshot The graph to preprocess
+	 * @return hierarchy
+	 */
+	public static ContractionHierarchy build(GraphSnapshot<?, ?> snapshot) {
+		return new Builder(snapshot).build();
+	}
+
+	/**
+	 * Gets the number of nodes
+	 * @return num
+	 */
+	public int numNodes() {
+		return this.numNodes;
+	}
+
+	/**
+	 * Gets the number of upward edges, including shortcuts
+	 * @return num
+	 */
+	public int numUpwardEdges() {
+		return this.targets.length;
+	}
+
+	/**
+	 * Gets the number of shortcuts added by preprocessing
+	 * @return num
+	 */
+	public int numShortcuts() {
+		int count = 0;
+		for (int middle : this.middles) {
+			if (middle >= 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Gets a node's position in the contraction order
+	 * @param id The node's id
+	 * @return rank
+	 */
+	public int rankOf(int id) {
+		return this.ranks[id];
+	}
+
+	/**
+	 * Finds the shortest distance between two nodes
+	 * @param from The starting node's id
+	 * @param to The end node's id
+	 * @return distance The shortest distance, positive infinity if there is no path
+	 */
+	public double distance(int from, int to) {
+		return distance(from, to, null);
+	}
+
+	/**
+	 * Finds the shortest distance between two nodes
+	 * @param from The starting node's id
+	 * @param to The end node's id
+	 * @param stats Counters to add the query's work to, may be null
+	 * @return distance The shortest distance, positive infinity if there is no path
+	 */
+	public double distance(int from, int to, SearchStats stats) {
+		int meeting = search(from, to, stats);
+		double distance = meeting < 0 ? Double.POSITIVE_INFINITY : this.costs[0][meeting]+this.costs[1][meeting];
+		reset();
+		return distance;
+	}
+
+	/**
+	 * Finds the shortest path between two nodes, with every shortcut expanded into original edges
+	 * @param from The starting node's id
+	 * @param to The end node's id
+	 * @return path The ids of the nodes along the path, or null if there is none
+	 */
+	public int[] path(int from, int to) {
+		int meeting = search(from, to, null);
+		if (meeting < 0) {
+			reset();
+			return null;
+		}
+		// Upward edges from the start to the meeting node, then from the meeting node down to the end
+		ArrayList<Integer> ends = new ArrayList<Integer>();
+		for (int node = meeting; node != -1; node = this.parents[0][node]) {
+			ends.add(node);
+		}
+		Collections.reverse(ends);
+		for (int node = this.parents[1][meeting]; node != -1; node = this.parents[1][node]) {
+			ends.add(node);
+		}
+		reset();
+		int[] nodes = new int[16];
+		int count = 0;
+		nodes[count++] = from;
+		for (int i = 1; i < ends.size(); i++) {
+			int[] stack = { ends.get(i-1), ends.get(i) };
+			int top = 2;
+			// Pairs of consecutive path nodes, expanded depth first so they come out in order
+			while (top > 0) {
+				int b = stack[--top];
+				int a = stack[--top];
+				int middle = this.middles[entryBetween(a, b)];
+				if (middle < 0) {
+					if (count == nodes.length) {
+						nodes = Arrays.copyOf(nodes, count*2);
+					}
+					nodes[count++] = b;
+				} else {
+					if (top+4 > stack.length) {
+						stack = Arrays.copyOf(stack, stack.length*2+4);
+					}
+					stack[top++] = middle;
+					stack[top++] = b;
+					stack[top++] = a;
+					stack[top++] = middle;
+				}
+			}
+		}
+		return Arrays.copyOf(nodes, count);
+	}
+
+	/**
+	 * Writes the hierarchy so it can be loaded with read instead of being rebuilt
+	 * @param out The stream to write to
+	 * @throws IOException If the stream fails
+	 */
+	public void write(DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(this.numNodes);
+		out.writeInt(this.targets.length);
+		for (int i = 0; i < this.numNodes; i++) {
+			out.writeInt(this.ranks[i]);
+		}
+		for (int i = 0; i <= this.numNodes; i++) {
+			out.writeInt(this.offsets[i]);
+		}
+		for (int i = 0; i < this.targets.length; i++) {
+			out.writeInt(this.targets[i]);
+			out.writeDouble(this.weights[i]);
+			out.writeInt(this.middles[i]);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Reads a hierarchy written by write
+	 * @param in The stream to read from
+	 * @return hierarchy
+	 * @throws IOException If the stream fails or does not hold a hierarchy
+	 */
+	public static ContractionHierarchy read(DataInputStream in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a contraction hierarchy");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported contraction hierarchy version "+version);
+		}
+		int numNodes = in.readInt();
+		int numEdges = in.readInt();
+		if (numNodes < 0 || numEdges < 0) {
+			throw new IOException("Corrupt contraction hierarchy header");
+		}
+		int[] ranks = new int[numNodes];
+		int[] offsets = new int[numNodes+1];
+		int[] targets = new int[numEdges];
+		double[] weights = new double[numEdges];
+		int[] middles = new int[numEdges];
+		for (int i = 0; i < numNodes; i++) {
+			ranks[i] = in.readInt();
+		}
+		for (int i = 0; i <= numNodes; i++) {
+			offsets[i] = in.readInt();
+		}
+		for (int i = 0; i < numEdges; i++) {
+			targets[i] = in.readInt();
+			weights[i] = in.readDouble();
+			middles[i] = in.readInt();
+		}
+		if (offsets[0] != 0 || offsets[numNodes] != numEdges) {
+			throw new IOException("Corrupt contraction hierarchy offsets");
+		}
+		// Queries index by every stored number, so a corrupt one must fail here rather than mid-query
+		boolean[] ranked = new boolean[numNodes];
+		for (int i = 0; i < numNodes; i++) {
+			if (ranks[i] < 0 || ranks[i] >= numNodes || ranked[ranks[i]]) {
+				throw new IOException("Corrupt contraction hierarchy rank "+ranks[i]+" of node "+i);
+			}
+			ranked[ranks[i]] = true;
+			if (offsets[i+1] < offsets[i]) {
+				throw new IOException("Corrupt contraction hierarchy offsets at node "+i);
+			}
+		}
+		for (int node = 0; node < numNodes; node++) {
+			for (int i = offsets[node]; i < offsets[node+1]; i++) {
+				int target = targets[i];
+				if (target < 0 || target >= numNodes || ranks[target] <= ranks[node]) {
+					throw new IOException("Corrupt contraction hierarchy edge from "+node+" to "+target);
+				}
+				if (middles[i] < -1 || middles[i] >= numNodes || !(weights[i] >= 0)) {
+					throw new IOException("Corrupt contraction hierarchy edge from "+node+" to "+target);
+				}
+			}
+		}
+		return new ContractionHierarchy(numNodes, ranks, offsets, targets, weights, middles);
+	}
+
+	/**
+	 * Runs the upward searches from both ends, taking turns, until neither can improve on the
+	 * best meeting node
+	 * @param from The starting node's id
+	 * @param to The end node's id
+	 * @param stats Counters to add the query's work to, may be null
+	 * @return meeting The node on the shortest path with the highest rank, or -1 if there is no path
+	 */
+	private int search(int from, int to, SearchStats stats) {
+		int[] roots = { from, to };
+		for (int side = 0; side < 2; side++) {
+			touch(side, roots[side], 0, -1);
+		}
+		double best = Double.POSITIVE_INFINITY;
+		int meeting = -1;
+		long settled = 0;
+		long relaxations = 0;
+		int side = 0;
+		while (true) {
+			boolean forwardDone = this.heaps[0].isEmpty() || this.heaps[0].peekKey() >= best;
+			boolean backwardDone = this.heaps[1].isEmpty() || this.heaps[1].peekKey() >= best;
+			if (forwardDone && backwardDone) {
+				break;
+			}
+			if (side == 0 ? forwardDone : backwardDone) {
+				side = 1-side;
+			}
+			int current = this.heaps[side].poll();
+			settled++;
+			double currentCost = this.costs[side][current];
+			double total = currentCost+this.costs[1-side][current];
+			if (total < best) {
+				best = total;
+				meeting = current;
+			}
+			for (int i = this.offsets[current]; i < this.offsets[current+1]; i++) {
+				relaxations++;
+				double combinedCost = currentCost+this.weights[i];
+				if (combinedCost < this.costs[side][this.targets[i]]) {
+					touch(side, this.targets[i], combinedCost, current);
+				}
+			}
+			side = 1-side;
+		}
+		if (stats != null) {
+			stats.addSettled(settled);
+			stats.addRelaxations(relaxations);
+		}
+		return meeting;
+	}
+
+	/**
+	 * Lowers a node's cost on one side and queues it
+	 */
+	private void touch(int side, int node, double cost, int parent) {
+		if (this.costs[side][node] == Double.POSITIVE_INFINITY) {
+			this.touched[side][this.touchedCount[side]++] = node;
+		}
+		this.costs[side][node] = cost;
+		this.parents[side][node] = parent;
+		this.heaps[side].offer(node, cost);
+	}
+
+	/**
+	 * Clears the search arrays touched by the last query
+	 */
+	private void reset() {
+		for (int side = 0; side < 2; side++) {
+			for (int i = 0; i < this.touchedCount[side]; i++) {
+				this.costs[side][this.touched[side][i]] = Double.POSITIVE_INFINITY;
+				this.parents[side][this.touched[side][i]] = -1;
+			}
+			this.touchedCount[side] = 0;
+			this.heaps[side].clear();
+		}
+	}
+
+	/**
+	 * Finds the upward edge joining two nodes, stored with whichever has the lower rank
+	 */
+	private int entryBetween(int a, int b) {
+		int low = this.ranks[a] < this.ranks[b] ? a : b;
+		int high = low == a ? b : a;
+		for (int i = this.offsets[low]; i < this.offsets[low+1]; i++) {
+			if (this.targets[i] == high) {
+				return i;
+			}
+		}
+		throw new IllegalStateException("No upward edge between "+a+" and "+b);
+	}
+
+	/**
+	 * The working state of preprocessing
+	 */
+	private static class Builder {
+		/** Number of nodes */
+		private int numNodes;
+		/** Neighbors of each node that are still in the graph, or were when the node was contracted */
+		private int[][] neighbors;
+		/** Weight of the edge to each neighbor */
+		private double[][] edgeWeights;
+		/** Node each edge skips over, -1 for original edges */
+		private int[][] edgeMiddles;
+		/** Number of edges of each node */
+		private int[] degrees;
+		/** Position of each edge in its node's arrays, keyed by node*numNodes+neighbor */
+		private HashMap<Long, Integer> positions = new HashMap<Long, Integer>();
+		/** Whether each node has been contracted */
+		private boolean[] contracted;
+		/** Number of contracted neighbors of each node, which spreads contraction evenly */
+		private int[] contractedNeighbors;
+		/** One more than the highest level of any contracted neighbor, which keeps the hierarchy shallow */
+		private int[] levels;
+		/** Witness search costs, positive infinity if untouched */
+		private double[] witnessCosts;
+		/** Nodes touched by the current witness search */
+		private int[] witnessTouched;
+		/** Number of touched nodes */
+		private int witnessCount;
+		/** Whether each node is one the current witness search is looking for */
+		private boolean[] witnessTargets;
+		/** Witness search queue */
+		private IndexedMinHeap witnessHeap;
+
+		/**
+		 * Constructor
+		 * @param snapshot The graph to preprocess
+		 */
+		Builder(GraphSnapshot<?, ?> snapshot) {
+			this.numNodes = snapshot.numNodes();
+			this.neighbors = new int[this.numNodes][];
+			this.edgeWeights = new double[this.numNodes][];
+			this.edgeMiddles = new int[this.numNodes][];
+			this.degrees = new int[this.numNodes];
+			this.contracted = new boolean[this.numNodes];
+			this.contractedNeighbors = new int[this.numNodes];
+			this.levels = new int[this.numNodes];
+			this.witnessCosts = new double[this.numNodes];
+			this.witnessTouched = new int[this.numNodes];
+			this.witnessTargets = new boolean[this.numNodes];
+			this.witnessHeap = new IndexedMinHeap(this.numNodes);
+			Arrays.fill(this.witnessCosts, Double.POSITIVE_INFINITY);
+			int[] offsets = snapshot.getOffsets();
+			int[] targets = snapshot.getTargets();
+			double[] weights = snapshot.getWeights();
+			for (int node = 0; node < this.numNodes; node++) {
+				int degree = offsets[node+1]-offsets[node];
+				this.neighbors[node] = new int[Math.max(degree, 1)];
+				this.edgeWeights[node] = new double[Math.max(degree, 1)];
+				this.edgeMiddles[node] = new int[Math.max(degree, 1)];
+				for (int i = offsets[node]; i < offsets[node+1]; i++) {
+					if (targets[i] != node) {
+						addEdge(node, targets[i], weights[i], -1);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Contracts every node and collects the upward edges
+		 * @return hierarchy
+		 */
+		ContractionHierarchy build() {
+			IndexedMinHeap queue = new IndexedMinHeap(this.numNodes);
+			for (int node = 0; node < this.numNodes; node++) {
+				queue.offer(node, priority(node));
+			}
+			int[] ranks = new int[this.numNodes];
+			int[] offsets = new int[this.numNodes+1];
+			int[] targets = new int[16];
+			double[] weights = new double[16];
+			int[] middles = new int[16];
+			int rank = 0;
+			while (!queue.isEmpty()) {
+				int node = queue.poll();
+				// Priorities go stale as neighbors are contracted, so check this one before using it
+				double priority = priority(node);
+				if (!queue.isEmpty() && priority > queue.peekKey()) {
+					queue.offer(node, priority);
+					continue;
+				}
+				ranks[node] = rank++;
+				contract(node);
+				for (int i = 0; i < this.degrees[node]; i++) {
+					int neighbor = this.neighbors[node][i];
+					if (!this.contracted[neighbor]) {
+						this.levels[neighbor] = Math.max(this.levels[neighbor], this.levels[node]+1);
+						queue.update(neighbor, priority(neighbor));
+					}
+				}
+			}
+			// Every edge left on a node when it was contracted leads to a node contracted later
+			int count = 0;
+			for (int node = 0; node < this.numNodes; node++) {
+				offsets[node] = count;
+				for (int i = 0; i < this.degrees[node]; i++) {
+					int neighbor = this.neighbors[node][i];
+					if (ranks[neighbor] > ranks[node]) {
+						if (count == targets.length) {
+							targets = Arrays.copyOf(targets, count*2);
+							weights = Arrays.copyOf(weights, count*2);
+							middles = Arrays.copyOf(middles, count*2);
+						}
+						targets[count] = neighbor;
+						weights[count] = this.edgeWeights[node][i];
+						middles[count] = this.edgeMiddles[node][i];
+						count++;
+					}
+				}
+			}
+			offsets[this.numNodes] = count;
+			return new ContractionHierarchy(this.numNodes, ranks, offsets, Arrays.copyOf(targets, count),
+					Arrays.copyOf(weights, count), Arrays.copyOf(middles, count));
+		}
+
+		/**
+		 * Scores how much contracting a node now would cost, as twice the shortcuts it would add
+		 * minus the edges it would remove, plus its contracted neighbors and its level
+		 */
+		private double priority(int node) {
+			int shortcuts = shortcuts(node, false);
+			int remaining = 0;
+			for (int i = 0; i < this.degrees[node]; i++) {
+				if (!this.contracted[this.neighbors[node][i]]) {
+					remaining++;
+				}
+			}
+			return 2*(shortcuts-remaining)+this.contractedNeighbors[node]+this.levels[node];
+		}
+
+		/**
+		 * Removes a node from the remaining graph, adding the shortcuts it needs
+		 * Its own edges, which all lead to remaining nodes, become its upward edges, and the
+		 * neighbors' edges back to it are dropped so later searches never scan them
+		 */
+		private void contract(int node) {
+			shortcuts(node, true);
+			this.contracted[node] = true;
+			for (int i = 0; i < this.degrees[node]; i++) {
+				int neighbor = this.neighbors[node][i];
+				this.contractedNeighbors[neighbor]++;
+				removeEdge(neighbor, node);
+			}
+		}
+
+		/**
+		 * Counts, and optionally adds, the shortcuts needed to contract a node
+		 * A pair of remaining neighbors needs one unless a witness search that avoids the node finds
+		 * a path between them that is no longer than the one through it
+		 * @param node The node to contract
+		 * @param add True to add the shortcuts
+		 * @return shortcuts The number of shortcuts needed
+		 */
+		private int shortcuts(int node, boolean add) {
+			int count = 0;
+			int degree = this.degrees[node];
+			for (int i = 0; i < degree; i++) {
+				int from = this.neighbors[node][i];
+				if (this.contracted[from]) {
+					continue;
+				}
+				double maxCost = -1;
+				int targets = 0;
+				for (int j = i+1; j < degree; j++) {
+					int to = this.neighbors[node][j];
+					if (!this.contracted[to] && !this.witnessTargets[to]) {
+						maxCost = Math.max(maxCost, this.edgeWeights[node][i]+this.edgeWeights[node][j]);
+						this.witnessTargets[to] = true;
+						targets++;
+					}
+				}
+				if (maxCost < 0) {
+					continue;
+				}
+				witnessSearch(from, node, maxCost, targets);
+				for (int j = i+1; j < degree; j++) {
+					int to = this.neighbors[node][j];
+					double through = this.edgeWeights[node][i]+this.edgeWeights[node][j];
+					if (!this.contracted[to] && this.witnessCosts[to] > through) {
+						count++;
+						if (add) {
+							addEdge(from, to, through, node);
+							addEdge(to, from, through, node);
+						}
+					}
+				}
+				for (int j = i+1; j < degree; j++) {
+					this.witnessTargets[this.neighbors[node][j]] = false;
+				}
+				clearWitness();
+			}
+			return count;
+		}
+
+		/**
+		 * Runs Dijkstra from a node over the remaining graph without passing through another,
+		 * up to a cost limit and the settle limit, stopping early once every target is settled
+		 * since their costs cannot improve after that
+		 */
+		private void witnessSearch(int from, int avoid, double maxCost, int targets) {
+			this.witnessCosts[from] = 0;
+			this.witnessTouched[this.witnessCount++] = from;
+			this.witnessHeap.offer(from, 0);
+			int settled = 0;
+			while (!this.witnessHeap.isEmpty() && this.witnessHeap.peekKey() <= maxCost && settled < WITNESS_SETTLE_LIMIT) {
+				int current = this.witnessHeap.poll();
+				settled++;
+				if (this.witnessTargets[current] && --targets == 0) {
+					break;
+				}
+				double currentCost = this.witnessCosts[current];
+				for (int i = 0; i < this.degrees[current]; i++) {
+					int neighbor = this.neighbors[current][i];
+					if (neighbor == avoid || this.contracted[neighbor]) {
+						continue;
+					}
+					double combinedCost = currentCost+this.edgeWeights[current][i];
+					if (combinedCost < this.witnessCosts[neighbor]) {
+						if (this.witnessCosts[neighbor] == Double.POSITIVE_INFINITY) {
+							this.witnessTouched[this.witnessCount++] = neighbor;
+						}
+						this.witnessCosts[neighbor] = combinedCost;
+						this.witnessHeap.offer(neighbor, combinedCost);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Clears the arrays touched by the last witness search
+		 */
+		private void clearWitness() {
+			for (int i = 0; i < this.witnessCount; i++) {
+				this.witnessCosts[this.witnessTouched[i]] = Double.POSITIVE_INFINITY;
+			}
+			this.witnessCount = 0;
+			this.witnessHeap.clear();
+		}
+
+		/**
+		 * Adds an edge to a node, or lowers the weight of its existing edge to the same neighbor, in O(1) expected time
+		 */
+		private void addEdge(int node, int neighbor, double weight, int middle) {
+			Integer position = this.positions.get(key(node, neighbor));
+			if (position != null) {
+				int i = position;
+				if (weight < this.edgeWeights[node][i]) {
+					this.edgeWeights[node][i] = weight;
+					this.edgeMiddles[node][i] = middle;
+				}
+				return;
+			}
+			int degree = this.degrees[node];
+			if (degree == this.neighbors[node].length) {
+				this.neighbors[node] = Arrays.copyOf(this.neighbors[node], degree*2);
+				this.edgeWeights[node] = Arrays.copyOf(this.edgeWeights[node], degree*2);
+				this.edgeMiddles[node] = Arrays.copyOf(this.edgeMiddles[node], degree*2);
+			}
+			this.neighbors[node][degree] = neighbor;
+			this.edgeWeights[node][degree] = weight;
+			this.edgeMiddles[node][degree] = middle;
+			this.positions.put(key(node, neighbor), degree);
+			this.degrees[node]++;
+		}
+
+		/**
+		 * Removes a node's edge to a neighbor in O(1) expected time, moving its last edge into the freed position
+		 */
+		private void removeEdge(int node, int neighbor) {
+			Integer position = this.positions.remove(key(node, neighbor));
+			if (position == null) {
+				return;
+			}
+			int i = position;
+			int last = --this.degrees[node];
+			if (i != last) {
+				this.neighbors[node][i] = this.neighbors[node][last];
+				this.edgeWeights[node][i] = this.edgeWeights[node][last];
+				this.edgeMiddles[node][i] = this.edgeMiddles[node][last];
+				this.positions.put(key(node, this.neighbors[node][i]), i);
+			}
+		}
+
+		/**
+		 * Gets the key of a node's edge to a neighbor in the position map
+		 */
+		private long key(int node, int neighbor) {
+			return (long) node*this.numNodes+neighbor;
+		}
+	}
+}
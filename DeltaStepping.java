@@ -0,0 +1,403 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Delta-stepping single-source shortest paths, with each phase split across a ForkJoinPool
+ * Nodes are kept in buckets of width delta by tentative distance. The lowest bucket is emptied by
+ * repeatedly relaxing the light edges (weight at most delta) of its nodes, which may refill it, and
+ * then the heavy edges of every node it settled are relaxed once. Distances are lowered with a
+ * compare-and-set on their bits, so the result matches Dijkstra's algorithm for any number of threads
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class DeltaStepping {
+	/** Phases with fewer adjacency entries than this are relaxed on the calling thread */
+	static final int SEQUENTIAL_THRESHOLD = 4096;
+	/** Number of chunks each worker gets per phase, to even out uneven degrees */
+	static final int CHUNKS_PER_WORKER = 4;
+
+	/** Pool the phases are split across */
+	private ForkJoinPool pool;
+	/** Whether this object created the pool and so must shut it down */
+	private boolean ownsPool;
+
+	/**
+	 * Constructor
+	 * @param parallelism The number of worker threads to use
+	 */
+	DeltaStepping(int parallelism) {
+		this.pool = new ForkJoinPool(parallelism);
+		this.ownsPool = true;
+	}
+
+	/**
+	 * Constructor
+	 * @param pool An existing pool to run on, which is left running by shutdown
+	 */
+	DeltaStepping(ForkJoinPool pool) {
+		this.pool = pool;
+		this.ownsPool = false;
+	}
+
+	/**
+	 * Accessor for the number of worker threads
+	 * @return parallelism
+	 */
+	public int getParallelism() {
+		return this.pool.getParallelism();
+	}
+
+	/**
+	 * Shuts down the pool if this object created it
+	 */
+	public void shutdown() {
+		if (this.ownsPool) {
+			this.pool.shutdown();
+		}
+	}
+
+	/**
+	 * Picks a bucket width of the largest weight over the average degree, which keeps the
+	 * number of light-edge phases per bucket small on graphs with random weights
+	 * @param snapshot The graph to be searched
+	 * @return delta A positive bucket width
+	 */
+	public static double defaultDelta(GraphSnapshot<?, ?> snapshot) {
+		double maxWeight = 0;
+		for (double weight : snapshot.getWeights()) {
+			maxWeight = Math.max(maxWeight, weight);
+		}
+		double averageDegree = snapshot.numNodes() == 0 ? 1 : (double) snapshot.getTargets().length/snapshot.numNodes();
+		double delta = maxWeight/Math.max(averageDegree, 1);
+		return delta > 0 && delta != Double.POSITIVE_INFINITY ? delta : 1;
+	}
+
+	/**
+	 * Finds the shortest paths from a node to every reachable node
+	 * @param snapshot The graph to search
+	 * @param source The starting node's id
+	 * @param delta The bucket width
+	 * @return tree The shortest-path tree, whose stats include the buckets processed
+	 */
+	public <N, E> ShortestPathTree<N, E> shortestPathTree(GraphSnapshot<N, E> snapshot, int source, double delta) {
+		SearchStats stats = new SearchStats();
+		int[] parentEntries = new int[snapshot.numNodes()];
+		double[] distances = run(snapshot, source, delta, parentEntries, stats);
+		return ShortestPathTree.fromArrays(snapshot, source, distances, parentEntries, stats);
+	}
+
+	/**
+	 * Finds the shortest distance from a node to every node
+	 * @param snapshot The graph to search
+	 * @param source The starting node's id
+	 * @param delta The bucket width
+	 * @param parentEntries Filled with the adjacency entry each node was reached through, -1 for none; may be null
+	 * @param stats Counters to add the search's work to, may be null
+	 * @return distances The shortest distance to each node, positive infinity if unreachable
+	 */
+	public double[] run(GraphSnapshot<?, ?> snapshot, int source, double delta, int[] parentEntries, SearchStats stats) {
+		if (!(delta > 0)) {
+			throw new IllegalArgumentException("Bucket width must be positive: "+delta);
+		}
+		int numNodes = snapshot.numNodes();
+		int[] offsets = snapshot.getOffsets();
+		AtomicLongArray bits = new AtomicLongArray(numNodes);
+		long infinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+		for (int i = 0; i < numNodes; i++) {
+			bits.set(i, infinity);
+		}
+		bits.set(source, Double.doubleToRawLongBits(0));
+		// Distance each node last had its light edges relaxed at, so repeats in a bucket are skipped
+		double[] done = new double[numNodes];
+		Arrays.fill(done, Double.POSITIVE_INFINITY);
+		// Number of the last bucket each node was settled in, so it joins that bucket's set once
+		int[] settledIn = new int[numNodes];
+		Arrays.fill(settledIn, -1);
+		TreeMap<Long, NodeList> buckets = new TreeMap<Long, NodeList>();
+		buckets.put(0L, new NodeList(source));
+		Phase phase = new Phase(snapshot, delta, bits);
+		long settledCount = 0;
+		long relaxations = 0;
+		int bucketCount = 0;
+		while (!buckets.isEmpty()) {
+			Map.Entry<Long, NodeList> first = buckets.pollFirstEntry();
+			long bucket = first.getKey();
+			NodeList pending = first.getValue();
+			NodeList settled = new NodeList();
+			while (pending.size > 0) {
+				NodeList active = new NodeList();
+				long work = 0;
+				for (int k = 0; k < pending.size; k++) {
+					int node = pending.items[k];
+					double distance = Double.longBitsToDouble(bits.get(node));
+					// Skip nodes that moved to a lower bucket, or were already relaxed at this distance
+					if (bucketOf(distance, delta) != bucket || done[node] == distance) {
+						continue;
+					}
+					// Only the first activation settles a node, later ones in its bucket just lower its distance
+					if (done[node] == Double.POSITIVE_INFINITY) {
+						settledCount++;
+					}
+					done[node] = distance;
+					active.add(node);
+					work += offsets[node+1]-offsets[node];
+					if (settledIn[node] != bucketCount) {
+						settledIn[node] = bucketCount;
+						settled.add(node);
+					}
+				}
+				Relaxed relaxed = relax(phase, active, work, true);
+				relaxations += relaxed.relaxations;
+				pending = new NodeList();
+				for (int k = 0; k < relaxed.nodes.size; k++) {
+					int node = relaxed.nodes.items[k];
+					long target = bucketOf(Double.longBitsToDouble(bits.get(node)), delta);
+					if (target == bucket) {
+						pending.add(node);
+					} else {
+						bucketFor(buckets, target).add(node);
+					}
+				}
+			}
+			long work = 0;
+			for (int k = 0; k < settled.size; k++) {
+				work += offsets[settled.items[k]+1]-offsets[settled.items[k]];
+			}
+			Relaxed relaxed = relax(phase, settled, work, false);
+			relaxations += relaxed.relaxations;
+			for (int k = 0; k < relaxed.nodes.size; k++) {
+				int node = relaxed.nodes.items[k];
+				bucketFor(buckets, bucketOf(Double.longBitsToDouble(bits.get(node)), delta)).add(node);
+			}
+			bucketCount++;
+		}
+		double[] distances = new double[numNodes];
+		for (int i = 0; i < numNodes; i++) {
+			distances[i] = Double.longBitsToDouble(bits.get(i));
+		}
+		if (parentEntries != null) {
+			findParents(snapshot, source, distances, parentEntries);
+		}
+		if (stats != null) {
+			stats.addSettled(settledCount);
+			stats.addRelaxations(relaxations);
+			stats.addBuckets(bucketCount);
+		}
+		return distances;
+	}
+
+	/**
+	 * Gets the bucket a distance falls in
+	 * @param distance The tentative distance
+	 * @param delta The bucket width
+	 * @return bucket
+	 */
+	private static long bucketOf(double distance, double delta) {
+		return (long) Math.floor(distance/delta);
+	}
+
+	/**
+	 * Gets a bucket, creating it if it is empty
+	 * @param buckets The non-empty buckets
+	 * @param bucket The bucket number
+	 * @return list The nodes waiting in the bucket
+	 */
+	private static NodeList bucketFor(TreeMap<Long, NodeList> buckets, long bucket) {
+		NodeList list = buckets.get(bucket);
+		if (list == null) {
+			list = new NodeList();
+			buckets.put(bucket, list);
+		}
+		return list;
+	}
+
+	/**
+	 * Relaxes the light or heavy edges of a set of nodes, across the pool if there is enough work
+	 * @param phase The shared search state
+	 * @param nodes The nodes whose edges are relaxed
+	 * @param work The total degree of the nodes
+	 * @param light True to relax edges no heavier than delta, false for the rest
+	 * @return relaxed The nodes whose distance was lowered and the number of edges examined
+	 */
+	private Relaxed relax(Phase phase, NodeList nodes, long work, boolean light) {
+		if (work < SEQUENTIAL_THRESHOLD || this.pool.getParallelism() == 1) {
+			return phase.relax(nodes.items, 0, nodes.size, light);
+		}
+		int chunks = Math.min(nodes.size, this.pool.getParallelism()*CHUNKS_PER_WORKER);
+		ArrayList<Callable<Relaxed>> tasks = new ArrayList<Callable<Relaxed>>(chunks);
+		for (int c = 0; c < chunks; c++) {
+			int from = (int) ((long) nodes.size*c/chunks);
+			int to = (int) ((long) nodes.size*(c+1)/chunks);
+			tasks.add(() -> phase.relax(nodes.items, from, to, light));
+		}
+		try {
+			Relaxed total = new Relaxed();
+			for (Future<Relaxed> part : this.pool.invokeAll(tasks)) {
+				Relaxed relaxed = part.get();
+				total.nodes.addAll(relaxed.nodes);
+				total.relaxations += relaxed.relaxations;
+			}
+			return total;
+		} catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Delta-stepping search was interrupted", exc);
+		} catch (ExecutionException exc) {
+			throw new IllegalStateException("Delta-stepping search failed", exc.getCause());
+		}
+	}
+
+	/**
+	 * Picks a parent entry for every reached node by breadth-first search over tight edges, those
+	 * whose weight makes up the whole difference in distance. Every reached node has one, and going
+	 * outwards from the source keeps zero-weight edges from forming cycles
+	 * @param snapshot The graph that was searched
+	 * @param source The starting node's id
+	 * @param distances The final shortest distances
+	 * @param parentEntries Filled with the adjacency entry each node was reached through, -1 for none
+	 */
+	private static void findParents(GraphSnapshot<?, ?> snapshot, int source, double[] distances, int[] parentEntries) {
+		int[] offsets = snapshot.getOffsets();
+		int[] targets = snapshot.getTargets();
+		double[] weights = snapshot.getWeights();
+		Arrays.fill(parentEntries, -1);
+		boolean[] found = new boolean[distances.length];
+		int[] queue = new int[distances.length];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = source;
+		found[source] = true;
+		while (head < tail) {
+			int current = queue[head++];
+			for (int i = offsets[current]; i < offsets[current+1]; i++) {
+				int neighbor = targets[i];
+				if (!found[neighbor] && distances[current]+weights[i] <= distances[neighbor]) {
+					found[neighbor] = true;
+					parentEntries[neighbor] = i;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+	}
+
+	/**
+	 * The state shared by every thread of a search
+	 */
+	private static class Phase {
+		/** Snapshot offsets */
+		private int[] offsets;
+		/** Snapshot targets */
+		private int[] targets;
+		/** Snapshot weights */
+		private double[] weights;
+		/** The bucket width */
+		private double delta;
+		/** Tentative distance of every node, as the bits of a double */
+		private AtomicLongArray bits;
+
+		/**
+		 * Constructor
+		 */
+		Phase(GraphSnapshot<?, ?> snapshot, double delta, AtomicLongArray bits) {
+			this.offsets = snapshot.getOffsets();
+			this.targets = snapshot.getTargets();
+			this.weights = snapshot.getWeights();
+			this.delta = delta;
+			this.bits = bits;
+		}
+
+		/**
+		 * Relaxes the light or heavy edges of a range of nodes
+		 * @param nodes The nodes whose edges are relaxed
+		 * @param from The first position in nodes
+		 * @param to One past the last position in nodes
+		 * @param light True to relax edges no heavier than delta, false for the rest
+		 * @return relaxed The nodes whose distance this call lowered and the number of edges examined
+		 */
+		Relaxed relax(int[] nodes, int from, int to, boolean light) {
+			Relaxed relaxed = new Relaxed();
+			for (int p = from; p < to; p++) {
+				int node = nodes[p];
+				double distance = Double.longBitsToDouble(this.bits.get(node));
+				for (int i = this.offsets[node]; i < this.offsets[node+1]; i++) {
+					double weight = this.weights[i];
+					if ((weight <= this.delta) != light) {
+						continue;
+					}
+					relaxed.relaxations++;
+					int neighbor = this.targets[i];
+					double combinedCost = distance+weight;
+					long current = this.bits.get(neighbor);
+					while (combinedCost < Double.longBitsToDouble(current)) {
+						if (this.bits.compareAndSet(neighbor, current, Double.doubleToRawLongBits(combinedCost))) {
+							relaxed.nodes.add(neighbor);
+							break;
+						}
+						current = this.bits.get(neighbor);
+					}
+				}
+			}
+			return relaxed;
+		}
+	}
+
+	/**
+	 * The result of relaxing the edges of some nodes
+	 */
+	private static class Relaxed {
+		/** Nodes whose distance was lowered, possibly more than once */
+		private NodeList nodes = new NodeList();
+		/** Number of edges examined */
+		private long relaxations;
+	}
+
+	/**
+	 * A growable list of node ids
+	 */
+	private static class NodeList {
+		/** The ids, valid up to size */
+		private int[] items;
+		/** Number of ids */
+		private int size;
+
+		/**
+		 * Constructor
+		 */
+		NodeList() {
+			this.items = new int[8];
+		}
+
+		/**
+		 * Constructor
+		 * @param node The first id
+		 */
+		NodeList(int node) {
+			this();
+			add(node);
+		}
+
+		/**
+		 * Adds an id
+		 * @param node The id
+		 */
+		void add(int node) {
+			if (this.size == this.items.length) {
+				this.items = Arrays.copyOf(this.items, this.size*2);
+			}
+			this.items[this.size++] = node;
+		}
+
+		/**
+		 * Adds every id of another list
+		 * @param other The other list
+		 */
+		void addAll(NodeList other) {
+			if (this.size+other.size > this.items.length) {
+				this.items = Arrays.copyOf(this.items, Math.max(this.size+other.size, this.items.length*2));
+			}
+			System.arraycopy(other.items, 0, this.items, this.size, other.size);
+			this.size += other.size;
+		}
+	}
+}
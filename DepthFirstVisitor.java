@@ -0,0 +1,51 @@
+/**
+ * Callbacks for Graph.depthFirstSearch
+ * Every hook returns true to keep searching or false to stop the search early,
+ * and the default hooks do nothing and keep searching
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public interface DepthFirstVisitor<N, E> {
+
+	/**
+	 * Called when a node is reached for the first time
+	 * @param node The discovered node
+	 * @return true to keep searching
+	 */
+	default boolean discover(Graph<N, E>.Node node) {
+		return true;
+	}
+
+	/**
+	 * Called once every edge of a node has been explored
+	 * @param node The finished node
+	 * @return true to keep searching
+	 */
+	default boolean finish(Graph<N, E>.Node node) {
+		return true;
+	}
+
+	/**
+	 * Called for an edge that leads to an undiscovered node, before that node is discovered
+	 * @param edge The tree edge
+	 * @param from The node the edge is explored from
+	 * @param to The undiscovered node
+	 * @return true to keep searching
+	 */
+	default boolean treeEdge(Graph<N, E>.Edge edge, Graph<N, E>.Node from, Graph<N, E>.Node to) {
+		return true;
+	}
+
+	/**
+	 * Called for an edge that leads back to a node that is still being explored, which closes a cycle
+	 * Each back edge is reported once, from its deeper end
+	 * @param edge The back edge
+	 * @param from The node the edge is explored from
+	 * @param to The ancestor the edge leads to
+	 * @return true to keep searching
+	 */
+	default boolean backEdge(Graph<N, E>.Edge edge, Graph<N, E>.Node from, Graph<N, E>.Node to) {
+		return true;
+	}
+}
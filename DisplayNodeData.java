@@ -1,5 +1,6 @@
 import java.util.*;
 import java.awt.*;
+import java.util.function.ToDoubleBiFunction;
 
 /**
  * Class for storing GUI node data
@@ -67,6 +68,31 @@ public class DisplayNodeData {
 		this.label = label;
 	}
 	
+	/**
+	 * Makes an A* heuristic of the straight-line distance between node points, scaled by the
+	 * smallest cost per unit length of any edge in the graph. Every path then costs at least the
+	 * scaled distance between its ends, so the estimate never overestimates and is consistent
+	 * The heuristic only holds until the graph's points or costs change
+	 * @param graph The graph to be searched
+	 * @return heuristic The scaled distance, or null if no edge has a positive cost per unit length
+	 */
+	public static ToDoubleBiFunction<DisplayNodeData, DisplayNodeData> euclideanHeuristic(
+			Graph<DisplayNodeData, DisplayEdgeData> graph) {
+		double scale = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < graph.numEdges(); i++) {
+			Graph<DisplayNodeData, DisplayEdgeData>.Edge edge = graph.getEdge(i);
+			double length = edge.getHead().getData().getPoint().distance(edge.getTail().getData().getPoint());
+			if (length > 0) {
+				scale = Math.min(scale, edge.getWeight()/length);
+			}
+		}
+		if (!(scale > 0) || scale == Double.POSITIVE_INFINITY) {
+			return null;
+		}
+		final double costPerUnit = scale;
+		return (node, goal) -> costPerUnit*node.getPoint().distance(goal.getPoint());
+	}
+	
 	/**
 	 * Sets the node color
 	 * @param color
@@ -0,0 +1,276 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Many-to-many shortest distances, with one Dijkstra search per source split across a ForkJoinPool
+ * Each search stops once every target is settled. Every worker thread keeps its own search arrays
+ * and reuses them for every source it runs, in this call and later ones, so a batch allocates
+ * nothing per source beyond its result row
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class DistanceMatrix {
+	/** Number of chunks each worker gets, to even out searches of different sizes */
+	static final int CHUNKS_PER_WORKER = 4;
+	/** Most entries a flat matrix can hold, the largest array length every JVM allows */
+	static final int MAX_FLAT_SIZE = Integer.MAX_VALUE-8;
+
+	/** Instance behind Graph.distanceMatrix, created by its first call and never shut down */
+	private static DistanceMatrix shared;
+
+	/** Pool the searches are split across */
+	private ForkJoinPool pool;
+	/** Whether this object created the pool and so must shut it down */
+	private boolean ownsPool;
+	/** Search arrays of each worker thread */
+	private ThreadLocal<Scratch> scratch = new ThreadLocal<Scratch>();
+
+	/**
+	 * Constructor
+	 * @param parallelism The number of worker threads to use
+	 */
+	DistanceMatrix(int parallelism) {
+		this.pool = new ForkJoinPool(parallelism);
+		this.ownsPool = true;
+	}
+
+	/**
+	 * Constructor
+	 * @param pool An existing pool to run on, which is left running by shutdown
+	 */
+	DistanceMatrix(ForkJoinPool pool) {
+		this.pool = pool;
+		this.ownsPool = false;
+	}
+
+	/**
+	 * Gets the instance Graph.distanceMatrix shares, with one worker thread per processor
+	 * Its pool's threads are daemons, so it never needs to be shut down
+	 * @return matrix
+	 */
+	static synchronized DistanceMatrix shared() {
+		if (shared == null) {
+			shared = new DistanceMatrix(Runtime.getRuntime().availableProcessors());
+		}
+		return shared;
+	}
+
+	/**
+	 * Accessor for the number of worker threads
+	 * @return parallelism
+	 */
+	public int getParallelism() {
+		return this.pool.getParallelism();
+	}
+
+	/**
+	 * Shuts down the pool if this object created it
+	 */
+	public void shutdown() {
+		if (this.ownsPool) {
+			this.pool.shutdown();
+		}
+	}
+
+	/**
+	 * Finds the shortest distance from every source to every target
+	 * @param snapshot The graph to search
+	 * @param sources The ids of the source nodes
+	 * @param targets The ids of the target nodes
+	 * @param stats Counters to add the work of every search to, may be null
+	 * @return matrix Row i holds the distances from sources[i] to each target, positive infinity if unreachable
+	 */
+	public double[][] compute(GraphSnapshot<?, ?> snapshot, int[] sources, int[] targets, SearchStats stats) {
+		double[][] matrix = new double[sources.length][targets.length];
+		run(snapshot, sources, targets, (row, distances) -> System.arraycopy(distances, 0, matrix[row], 0, targets.length), stats);
+		return matrix;
+	}
+
+	/**
+	 * Finds the shortest distance from every source to every target, as one row-major array
+	 * @param snapshot The graph to search
+	 * @param sources The ids of the source nodes
+	 * @param targets The ids of the target nodes
+	 * @param stats Counters to add the work of every search to, may be null
+	 * @return matrix The distance from sources[i] to targets[j] at i*targets.length+j
+	 * @throws IllegalArgumentException If the matrix has more than MAX_FLAT_SIZE entries
+	 */
+	public double[] computeFlat(GraphSnapshot<?, ?> snapshot, int[] sources, int[] targets, SearchStats stats) {
+		long size = (long) sources.length*targets.length;
+		if (size > MAX_FLAT_SIZE) {
+			throw new IllegalArgumentException("A flat matrix of "+sources.length+" by "+targets.length
+					+" is too large for one array; use compute instead");
+		}
+		double[] matrix = new double[(int) size];
+		run(snapshot, sources, targets, (row, distances) -> System.arraycopy(distances, 0, matrix, (int) ((long) row*targets.length),
+				targets.length), stats);
+		return matrix;
+	}
+
+	/**
+	 * Receives the distances of one source, which must be copied before returning
+	 */
+	private interface RowSink {
+		/**
+		 * Stores a row
+		 * @param row The source's position
+		 * @param distances The distances to each target
+		 */
+		void accept(int row, double[] distances);
+	}
+
+	/**
+	 * Runs a search from every source, in chunks across the pool
+	 */
+	private void run(GraphSnapshot<?, ?> snapshot, int[] sources, int[] targets, RowSink sink, SearchStats stats) {
+		int numNodes = snapshot.numNodes();
+		// Marks each target node with its first position, so every search can tell when it is done
+		int[] targetPositions = new int[numNodes];
+		Arrays.fill(targetPositions, -1);
+		int distinctTargets = 0;
+		for (int j = 0; j < targets.length; j++) {
+			if (targetPositions[targets[j]] < 0) {
+				targetPositions[targets[j]] = j;
+				distinctTargets++;
+			}
+		}
+		int needed = distinctTargets;
+		int chunks = Math.max(1, Math.min(sources.length, this.pool.getParallelism()*CHUNKS_PER_WORKER));
+		ArrayList<Callable<long[]>> tasks = new ArrayList<Callable<long[]>>(chunks);
+		for (int c = 0; c < chunks; c++) {
+			int from = (int) ((long) sources.length*c/chunks);
+			int to = (int) ((long) sources.length*(c+1)/chunks);
+			tasks.add(() -> {
+				Scratch local = scratchFor(numNodes, targets.length);
+				for (int i = from; i < to; i++) {
+					local.search(snapshot, sources[i], targets, targetPositions, needed);
+					sink.accept(i, local.row);
+				}
+				long[] work = { local.settled, local.relaxations };
+				local.settled = 0;
+				local.relaxations = 0;
+				return work;
+			});
+		}
+		try {
+			long settled = 0;
+			long relaxations = 0;
+			for (Future<long[]> part : this.pool.invokeAll(tasks)) {
+				long[] work = part.get();
+				settled += work[0];
+				relaxations += work[1];
+			}
+			if (stats != null) {
+				stats.addSettled(settled);
+				stats.addRelaxations(relaxations);
+			}
+		} catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Distance matrix was interrupted", exc);
+		} catch (ExecutionException exc) {
+			throw new IllegalStateException("Distance matrix failed", exc.getCause());
+		}
+	}
+
+	/**
+	 * Gets the calling thread's search arrays, replacing them if the graph is larger or the row a different size
+	 */
+	private Scratch scratchFor(int numNodes, int rowLength) {
+		Scratch local = this.scratch.get();
+		if (local == null || local.costs.length < numNodes) {
+			local = new Scratch(numNodes, rowLength);
+			this.scratch.set(local);
+		} else if (local.row.length != rowLength) {
+			local.row = new double[rowLength];
+		}
+		return local;
+	}
+
+	/**
+	 * The search arrays of one worker thread
+	 */
+	private static class Scratch {
+		/** Tentative cost of each node, positive infinity if untouched */
+		private double[] costs;
+		/** Number of the search that last settled each node */
+		private int[] settledIn;
+		/** Nodes touched by the current search, so costs can be reset in time proportional to it */
+		private int[] touched;
+		/** Number of touched nodes */
+		private int touchedCount;
+		/** Number of the current search */
+		private int searchNumber;
+		/** The search queue */
+		private IndexedMinHeap heap;
+		/** Distances to the targets found by the current search */
+		private double[] row;
+		/** Nodes settled since the counters were last collected */
+		private long settled;
+		/** Edges examined since the counters were last collected */
+		private long relaxations;
+
+		/**
+		 * Constructor
+		 * @param numNodes The number of nodes
+		 * @param rowLength The number of targets
+		 */
+		Scratch(int numNodes, int rowLength) {
+			this.costs = new double[numNodes];
+			this.settledIn = new int[numNodes];
+			this.touched = new int[numNodes];
+			this.heap = new IndexedMinHeap(numNodes);
+			this.row = new double[rowLength];
+			Arrays.fill(this.costs, Double.POSITIVE_INFINITY);
+		}
+
+		/**
+		 * Runs Dijkstra from a source until every target is settled, leaving the distances in row
+		 */
+		void search(GraphSnapshot<?, ?> snapshot, int source, int[] targets, int[] targetPositions, int needed) {
+			int[] offsets = snapshot.getOffsets();
+			int[] nodeTargets = snapshot.getTargets();
+			double[] weights = snapshot.getWeights();
+			if (++this.searchNumber == Integer.MAX_VALUE) {
+				Arrays.fill(this.settledIn, 0);
+				this.searchNumber = 1;
+			}
+			int searchNumber = this.searchNumber;
+			this.costs[source] = 0;
+			this.touched[this.touchedCount++] = source;
+			this.heap.offer(source, 0);
+			int remaining = needed;
+			while (remaining > 0 && !this.heap.isEmpty()) {
+				int current = this.heap.poll();
+				this.settledIn[current] = searchNumber;
+				this.settled++;
+				if (targetPositions[current] >= 0) {
+					remaining--;
+				}
+				double currentCost = this.costs[current];
+				for (int i = offsets[current]; i < offsets[current+1]; i++) {
+					int neighbor = nodeTargets[i];
+					if (this.settledIn[neighbor] != searchNumber) {
+						this.relaxations++;
+						double combinedCost = currentCost+weights[i];
+						if (combinedCost < this.costs[neighbor]) {
+							if (this.costs[neighbor] == Double.POSITIVE_INFINITY) {
+								this.touched[this.touchedCount++] = neighbor;
+							}
+							this.costs[neighbor] = combinedCost;
+							this.heap.offer(neighbor, combinedCost);
+						}
+					}
+				}
+			}
+			for (int j = 0; j < targets.length; j++) {
+				this.row[j] = this.settledIn[targets[j]] == searchNumber ? this.costs[targets[j]] : Double.POSITIVE_INFINITY;
+			}
+			for (int i = 0; i < this.touchedCount; i++) {
+				this.costs[this.touched[i]] = Double.POSITIVE_INFINITY;
+			}
+			this.touchedCount = 0;
+			this.heap.clear();
+		}
+	}
+}
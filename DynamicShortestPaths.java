@@ -0,0 +1,248 @@
+import java.util.*;
+
+/**
+ * Shortest paths from one source that are kept up to date as the graph changes
+ * An added edge or a lowered weight can only shorten paths, so the new distances are pushed outwards
+ * from the edge with a Dijkstra search that stops wherever nothing improves, as in Ramalingam and
+ * Reps' algorithm. A removed edge or a raised weight can only lengthen paths through it, so when it
+ * is in the shortest-path tree the subtree below it is cut off, each of its nodes is seeded from its
+ * neighbors outside the subtree, and Dijkstra is run over the subtree alone. Changes to edges outside
+ * the tree cost O(1). Either way the distances match a fresh run of Dijkstra's algorithm
+ * Distances and parents are kept by node index and follow the moves made by node removals
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class DynamicShortestPaths<N, E> implements GraphListener<N, E> {
+	/** The graph being followed */
+	private Graph<N, E> graph;
+	/** The node the paths start from, null once it has been removed */
+	private Graph<N, E>.Node source;
+	/** Shortest distance to each node, by node index */
+	private double[] costs;
+	/** Edge joining each node to its parent in the shortest-path tree, by node index */
+	private ArrayList<Graph<N, E>.Edge> parentEdges;
+	/** Queue used by every repair */
+	private IndexedMinHeap heap;
+	/** Whether each node is in the subtree being rebuilt, by node index */
+	private boolean[] affected;
+	/** Work done by the initial search and every repair since */
+	private SearchStats stats = new SearchStats();
+
+	/**
+	 * Constructor
+	 * Runs Dijkstra's algorithm once and registers for the graph's changes
+	 * Repairs walk the edge lists of nodes other than the changed edge's endpoints, which a ConcurrentGraph
+	 * does not lock for its listeners, so such a graph is refused
+	 * @param graph The graph to follow, not a ConcurrentGraph
+	 * @param source The node the paths start from
+	 */
+	DynamicShortestPaths(Graph<N, E> graph, Graph<N, E>.Node source) {
+		if (graph instanceof ConcurrentGraph) {
+			throw new IllegalArgumentException("Shortest paths cannot follow a ConcurrentGraph; use its snapshot instead");
+		}
+		this.graph = graph;
+		this.source = source;
+		int numNodes = graph.numNodes();
+		this.costs = new double[Math.max(numNodes, 16)];
+		this.affected = new boolean[this.costs.length];
+		this.heap = new IndexedMinHeap(this.costs.length);
+		this.parentEdges = new ArrayList<Graph<N, E>.Edge>(numNodes);
+		for (int i = 0; i < numNodes; i++) {
+			this.costs[i] = Double.POSITIVE_INFINITY;
+			this.parentEdges.add(null);
+		}
+		this.costs[source.getIndex()] = 0;
+		this.heap.offer(source.getIndex(), 0);
+		propagate();
+		graph.addListener(this);
+	}
+
+	/**
+	 * Stops following the graph's changes, after which the answers are those of the last change seen
+	 */
+	public void detach() {
+		this.graph.removeListener(this);
+	}
+
+	/**
+	 * Accessor for the source node
+	 * @return source The source, or null if it has been removed from the graph
+	 */
+	public Graph<N, E>.Node getSource() {
+		return this.source;
+	}
+
+	/**
+	 * Accessor for the work done by the initial search and every repair since
+	 * @return stats
+	 */
+	public SearchStats getStats() {
+		return this.stats;
+	}
+
+	/**
+	 * Gets the shortest distance from the source to a node
+	 * @param node The target node
+	 * @return distance The shortest distance, or positive infinity if the node is unreachable
+	 */
+	public double distanceTo(Graph<N, E>.Node node) {
+		return this.graph.contains(node) ? this.costs[node.getIndex()] : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Reconstructs the shortest path from the source to a node
+	 * @param node The target node
+	 * @return path The shortest path, or null if the node is unreachable
+	 */
+	public GraphPath<N, E> pathTo(Graph<N, E>.Node node) {
+		double cost = distanceTo(node);
+		if (cost == Double.POSITIVE_INFINITY) {
+			return null;
+		}
+		ArrayList<Graph<N, E>.Node> nodes = new ArrayList<Graph<N, E>.Node>();
+		ArrayList<Graph<N, E>.Edge> edges = new ArrayList<Graph<N, E>.Edge>();
+		Graph<N, E>.Node current = node;
+		nodes.add(current);
+		while (current != this.source) {
+			Graph<N, E>.Edge edge = this.parentEdges.get(current.getIndex());
+			current = edge.oppositeTo(current);
+			edges.add(edge);
+			nodes.add(current);
+		}
+		Collections.reverse(nodes);
+		Collections.reverse(edges);
+		return new GraphPath<N, E>(nodes, edges, cost);
+	}
+
+	@Override
+	public void nodeAdded(Graph<N, E>.Node node) {
+		int index = node.getIndex();
+		if (index >= this.costs.length) {
+			int capacity = Math.max(index+1, this.costs.length*2);
+			this.costs = Arrays.copyOf(this.costs, capacity);
+			this.affected = Arrays.copyOf(this.affected, capacity);
+			this.heap = new IndexedMinHeap(capacity);
+		}
+		this.costs[index] = Double.POSITIVE_INFINITY;
+		this.parentEdges.add(null);
+	}
+
+	@Override
+	public void nodeRemoved(Graph<N, E>.Node node, int index) {
+		if (node == this.source) {
+			this.source = null;
+			Arrays.fill(this.costs, Double.POSITIVE_INFINITY);
+			Collections.fill(this.parentEdges, null);
+		}
+		int last = this.parentEdges.size()-1;
+		this.costs[index] = this.costs[last];
+		this.parentEdges.set(index, this.parentEdges.get(last));
+		this.parentEdges.remove(last);
+	}
+
+	@Override
+	public void edgeAdded(Graph<N, E>.Edge edge) {
+		shorten(edge);
+	}
+
+	@Override
+	public void edgeRemoved(Graph<N, E>.Edge edge, int index) {
+		lengthen(edge);
+	}
+
+	@Override
+	public void weightChanged(Graph<N, E>.Edge edge, double oldWeight) {
+		if (edge.getWeight() < oldWeight) {
+			shorten(edge);
+		} else {
+			lengthen(edge);
+		}
+	}
+
+	/**
+	 * Pushes improvements through an edge that is new or lighter
+	 */
+	private void shorten(Graph<N, E>.Edge edge) {
+		relax(edge, edge.getHead());
+		relax(edge, edge.getTail());
+		propagate();
+	}
+
+	/**
+	 * Rebuilds the subtree below an edge that is gone or heavier, if the edge is in the tree
+	 */
+	private void lengthen(Graph<N, E>.Edge edge) {
+		Graph<N, E>.Node child = null;
+		if (edge.getHead().getIndex() >= 0 && this.parentEdges.get(edge.getHead().getIndex()) == edge) {
+			child = edge.getHead();
+		} else if (edge.getTail().getIndex() >= 0 && this.parentEdges.get(edge.getTail().getIndex()) == edge) {
+			child = edge.getTail();
+		}
+		if (child == null) {
+			return;
+		}
+		// Collect the subtree hanging from the child, whose paths all used the edge
+		ArrayList<Graph<N, E>.Node> subtree = new ArrayList<Graph<N, E>.Node>();
+		subtree.add(child);
+		this.affected[child.getIndex()] = true;
+		for (int k = 0; k < subtree.size(); k++) {
+			Graph<N, E>.Node current = subtree.get(k);
+			for (int i = 0; i < current.degree(); i++) {
+				Graph<N, E>.Edge next = current.edgeAt(i);
+				Graph<N, E>.Node neighbor = next.oppositeTo(current);
+				if (!this.affected[neighbor.getIndex()] && this.parentEdges.get(neighbor.getIndex()) == next) {
+					this.affected[neighbor.getIndex()] = true;
+					subtree.add(neighbor);
+				}
+			}
+		}
+		for (Graph<N, E>.Node node : subtree) {
+			this.costs[node.getIndex()] = Double.POSITIVE_INFINITY;
+			this.parentEdges.set(node.getIndex(), null);
+		}
+		// Seed each subtree node with its best edge from outside the subtree
+		for (Graph<N, E>.Node node : subtree) {
+			for (int i = 0; i < node.degree(); i++) {
+				Graph<N, E>.Edge next = node.edgeAt(i);
+				Graph<N, E>.Node neighbor = next.oppositeTo(node);
+				if (!this.affected[neighbor.getIndex()]) {
+					relax(next, neighbor);
+				}
+			}
+		}
+		for (Graph<N, E>.Node node : subtree) {
+			this.affected[node.getIndex()] = false;
+		}
+		propagate();
+	}
+
+	/**
+	 * Lowers the cost of an edge's far end if the path through the near end is shorter, and queues it
+	 * @param edge The edge
+	 * @param from The near end
+	 */
+	private void relax(Graph<N, E>.Edge edge, Graph<N, E>.Node from) {
+		Graph<N, E>.Node to = edge.oppositeTo(from);
+		double combinedCost = this.costs[from.getIndex()]+edge.getWeight();
+		this.stats.addRelaxations(1);
+		if (combinedCost < this.costs[to.getIndex()]) {
+			this.costs[to.getIndex()] = combinedCost;
+			this.parentEdges.set(to.getIndex(), edge);
+			this.heap.offer(to.getIndex(), combinedCost);
+		}
+	}
+
+	/**
+	 * Runs Dijkstra's algorithm from the queued nodes until no cost improves
+	 */
+	private void propagate() {
+		while (!this.heap.isEmpty()) {
+			Graph<N, E>.Node current = this.graph.getNode(this.heap.poll());
+			this.stats.addSettled(1);
+			for (int i = 0; i < current.degree(); i++) {
+				relax(current.edgeAt(i), current);
+			}
+		}
+	}
+}
@@ -0,0 +1,389 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+
+/**
+ * Loads edges from edge-list and CSV files into a graph, parsing chunks of the file across a ForkJoinPool
+ * Each line holds a head label, a tail label and an optional weight, which defaults to 1. Fields are split by
+ * commas if the line has one and by spaces or tabs otherwise, and any further fields are ignored. Blank lines
+ * and lines starting with # or % are skipped, and so is a header: a first line, after any blank and comment
+ * lines, whose two labels are both column names, as in src,dst or src,dst,weight. Labels are interned to nodes
+ * through a concurrent map, creating a node the first time a label is seen. Each chunk's edges are added in one
+ * batch, and batches are added in file order, so edge indexes follow the lines of the file; node indexes do
+ * too when there is a single worker thread.
+ * Only a few chunks are read at a time, so files larger than the heap can be loaded into a graph that fits
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class EdgeListImporter {
+	/** Size of the chunks the file is split into */
+	static final int CHUNK_SIZE = 1 << 23;
+	/** Number of chunks read ahead per worker, bounding the memory used */
+	static final int CHUNKS_PER_WORKER = 2;
+	/** Column names that mark a first line without weights as a header */
+	static final Set<String> HEADER_NAMES = new HashSet<String>(Arrays.asList("src", "dst", "source", "target",
+			"from", "to", "head", "tail"));
+
+	/** Pool the chunks are parsed on */
+	private ForkJoinPool pool;
+	/** Whether this object created the pool and so must shut it down */
+	private boolean ownsPool;
+
+	/**
+	 * Constructor
+	 * @param parallelism The number of worker threads to use
+	 */
+	EdgeListImporter(int parallelism) {
+		this.pool = new ForkJoinPool(parallelism);
+		this.ownsPool = true;
+	}
+
+	/**
+	 * Constructor
+	 * @param pool An existing pool to run on, which is left running by shutdown
+	 */
+	EdgeListImporter(ForkJoinPool pool) {
+		this.pool = pool;
+		this.ownsPool = false;
+	}
+
+	/**
+	 * Accessor for the number of worker threads
+	 * @return parallelism
+	 */
+	public int getParallelism() {
+		return this.pool.getParallelism();
+	}
+
+	/**
+	 * Shuts down the pool if this object created it
+	 */
+	public void shutdown() {
+		if (this.ownsPool) {
+			this.pool.shutdown();
+		}
+	}
+
+	/**
+	 * Loads a file into a new graph whose nodes hold their labels and whose edges hold their weights
+	 * @param path The file to load
+	 * @return graph
+	 * @throws IOException If the file cannot be read or has a malformed line
+	 */
+	public Graph<String, Double> load(Path path) throws IOException {
+		Graph<String, Double> graph = new Graph<String, Double>();
+		load(path, graph, new ConcurrentHashMap<String, Graph<String, Double>.Node>(), label -> label, Double::valueOf);
+		return graph;
+	}
+
+	/**
+	 * Loads a file into a graph, adding nodes for new labels and an edge for every line
+	 * The graph must not be changed by other threads during the load unless it is a ConcurrentGraph
+	 * @param path The file to load
+	 * @param graph The graph to add to
+	 * @param labels The node of each label, which may already hold nodes of the graph and gets the new ones
+	 * @param nodeData Gives the data of a new node from its label
+	 * @param edgeData Gives the data of a new edge from its weight, or null to add weighted edges without data
+	 * @return count The number of edges added
+	 * @throws IOException If the file cannot be read or has a malformed line, after which the graph holds the edges
+	 * of the chunks before the failure and possibly nodes from later ones
+	 */
+	public <N, E> long load(Path path, Graph<N, E> graph, ConcurrentHashMap<String, Graph<N, E>.Node> labels,
+			Function<String, ? extends N> nodeData, DoubleFunction<? extends E> edgeData) throws IOException {
+		Object lock = new Object();
+		// Set under the lock once the load ends, after which chunks still running never touch the graph
+		AtomicBoolean stopped = new AtomicBoolean();
+		Function<String, Graph<N, E>.Node> intern = label -> {
+			// Most labels are already interned, and get takes no lock where computeIfAbsent would
+			Graph<N, E>.Node node = labels.get(label);
+			return node != null ? node : labels.computeIfAbsent(label, key -> {
+				synchronized (lock) {
+					if (stopped.get()) {
+						throw new CancellationException("Edge list import has stopped");
+					}
+					return graph.addNode(nodeData.apply(key));
+				}
+			});
+		};
+		long count = 0;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			long first = firstLine(channel);
+			ArrayDeque<Future<Batch<N, E>>> pending = new ArrayDeque<Future<Batch<N, E>>>();
+			int ahead = this.pool.getParallelism()*CHUNKS_PER_WORKER;
+			long next = 0;
+			try {
+				while (next < size || !pending.isEmpty()) {
+					while (next < size && pending.size() < ahead) {
+						long start = next;
+						long end = Math.min(size, start+CHUNK_SIZE);
+						pending.add(this.pool.submit(() -> parse(channel, start, end, first, intern, stopped)));
+						next = end;
+					}
+					Batch<N, E> batch = pending.poll().get();
+					// One lock for the whole batch, which new nodes from other chunks wait behind
+					synchronized (lock) {
+						for (int i = 0; i < batch.size; i++) {
+							if (edgeData == null) {
+								graph.addWeightedEdge(batch.weights[i], batch.heads[i], batch.tails[i]);
+							} else {
+								graph.addEdge(edgeData.apply(batch.weights[i]), batch.heads[i], batch.tails[i]);
+							}
+						}
+					}
+					count += batch.size;
+				}
+			} catch (InterruptedException exc) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Edge list import was interrupted", exc);
+			} catch (ExecutionException exc) {
+				// The pool wraps a chunk's checked exception, so look for it through the causes
+				for (Throwable cause = exc.getCause(); cause != null; cause = cause.getCause()) {
+					if (cause instanceof IOException) {
+						throw (IOException) cause;
+					}
+				}
+				throw new IllegalStateException("Edge list import failed", exc.getCause());
+			} finally {
+				// Cancelling does not stop a chunk that is already running, the flag does
+				synchronized (lock) {
+					stopped.set(true);
+				}
+				for (Future<Batch<N, E>> part : pending) {
+					part.cancel(true);
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Parses the lines that start within a range of the file, reading past its end to finish the last one
+	 * A line belongs to the chunk holding its first byte, so each line is parsed exactly once
+	 * @param channel The file
+	 * @param start The start of the range
+	 * @param end The end of the range
+	 * @param first The start of the file's first line that is not blank or a comment, which may be a header
+	 * @param intern Gives the node of a label
+	 * @param stopped Set once the load has ended, so the rest of the chunk is not needed
+	 * @return batch The edges of the lines, in order
+	 * @throws IOException If the file cannot be read or a line is malformed
+	 */
+	private static <N, E> Batch<N, E> parse(FileChannel channel, long start, long end, long first,
+			Function<String, Graph<N, E>.Node> intern, AtomicBoolean stopped) throws IOException {
+		// Read one byte before the range, to tell whether the range starts a line
+		long from = Math.max(0, start-1);
+		byte[] bytes = new byte[(int) (end-from)];
+		int length = read(channel, from, bytes, 0, bytes.length);
+		int position = 0;
+		if (start > 0) {
+			while (position < length && bytes[position] != '\n') {
+				position++;
+			}
+			position++;
+		}
+		Batch<N, E> batch = new Batch<N, E>();
+		String[] fields = new String[3];
+		while (position < length && from+position < end) {
+			if (stopped.get()) {
+				throw new CancellationException("Edge list import has stopped");
+			}
+			int lineEnd = position;
+			while (true) {
+				while (lineEnd < length && bytes[lineEnd] != '\n') {
+					lineEnd++;
+				}
+				if (lineEnd < length || from+length >= channel.size()) {
+					break;
+				}
+				// The line runs past the bytes read, so read further until it ends
+				bytes = Arrays.copyOf(bytes, bytes.length*2);
+				length += read(channel, from+length, bytes, length, bytes.length-length);
+			}
+			int count = split(bytes, position, lineEnd, fields);
+			if (count > 0) {
+				if (count < 2 || fields[0].isEmpty() || fields[1].isEmpty()) {
+					throw new IOException("Malformed line at byte "+(from+position)+": "+line(bytes, position, lineEnd));
+				}
+				boolean header = from+position == first && HEADER_NAMES.contains(fields[0].toLowerCase())
+						&& HEADER_NAMES.contains(fields[1].toLowerCase());
+				if (!header) {
+					double weight = Graph.DEFAULT_WEIGHT;
+					if (count > 2) {
+						try {
+							weight = Double.parseDouble(fields[2]);
+						} catch (NumberFormatException exc) {
+							throw new IOException("Malformed weight at byte "+(from+position)+": "+line(bytes, position, lineEnd));
+						}
+					}
+					batch.add(intern.apply(fields[0]), intern.apply(fields[1]), weight);
+				}
+			}
+			position = lineEnd+1;
+		}
+		return batch;
+	}
+
+	/**
+	 * Finds the first line of a file that is not blank or a comment, reading only the lines before it
+	 * @param channel The file
+	 * @return position The start of the line, or the size of the file if every line is blank or a comment
+	 * @throws IOException If the file cannot be read
+	 */
+	private static long firstLine(FileChannel channel) throws IOException {
+		long size = channel.size();
+		byte[] bytes = new byte[1 << 16];
+		long from = 0;
+		int length = 0;
+		long lineStart = 0;
+		// Whether the line is a comment, whose end is all that is left to find
+		boolean comment = false;
+		// Whether the last byte was a \r, which only ends a blank line if a \n follows
+		boolean carriageReturn = false;
+		for (long position = 0; position < size; position++) {
+			if (position == from+length) {
+				from = position;
+				length = read(channel, position, bytes, 0, bytes.length);
+				if (length == 0) {
+					break;
+				}
+			}
+			byte b = bytes[(int) (position-from)];
+			if (b == '\n') {
+				comment = false;
+				carriageReturn = false;
+				lineStart = position+1;
+			} else if (comment) {
+				continue;
+			} else if (carriageReturn) {
+				return lineStart;
+			} else if (b == '\r') {
+				carriageReturn = true;
+			} else if (b == '#' || b == '%') {
+				comment = true;
+			} else if (!isSpace(b)) {
+				return lineStart;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Splits a line into at most three fields, by commas if it has one and by spaces or tabs otherwise
+	 * @return count The number of fields, 0 for a blank or comment line
+	 */
+	private static int split(byte[] bytes, int start, int end, String[] fields) {
+		if (end > start && bytes[end-1] == '\r') {
+			end--;
+		}
+		while (start < end && isSpace(bytes[start])) {
+			start++;
+		}
+		if (start == end || bytes[start] == '#' || bytes[start] == '%') {
+			return 0;
+		}
+		boolean commas = false;
+		for (int i = start; i < end && !commas; i++) {
+			commas = bytes[i] == ',';
+		}
+		int count = 0;
+		int i = start;
+		while (i < end && count < fields.length) {
+			int fieldStart = i;
+			while (i < end && (commas ? bytes[i] != ',' : !isSpace(bytes[i]))) {
+				i++;
+			}
+			int fieldEnd = i;
+			while (fieldStart < fieldEnd && isSpace(bytes[fieldStart])) {
+				fieldStart++;
+			}
+			while (fieldEnd > fieldStart && isSpace(bytes[fieldEnd-1])) {
+				fieldEnd--;
+			}
+			fields[count++] = new String(bytes, fieldStart, fieldEnd-fieldStart, StandardCharsets.UTF_8);
+			i++;
+			while (!commas && i < end && isSpace(bytes[i])) {
+				i++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Checks whether a byte is a space or tab
+	 */
+	private static boolean isSpace(byte b) {
+		return b == ' ' || b == '\t';
+	}
+
+	/**
+	 * Gets a line for an error message
+	 */
+	private static String line(byte[] bytes, int start, int end) {
+		return new String(bytes, start, Math.min(end-start, 200), StandardCharsets.UTF_8).trim();
+	}
+
+	/**
+	 * Reads from a position of the file until the array range is full or the file ends
+	 * @return count The number of bytes read
+	 */
+	private static int read(FileChannel channel, long position, byte[] bytes, int offset, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+		while (buffer.hasRemaining()) {
+			int count = channel.read(buffer, position+buffer.position()-offset);
+			if (count < 0) {
+				break;
+			}
+		}
+		return buffer.position()-offset;
+	}
+
+	/**
+	 * The edges parsed from one chunk, as parallel arrays of endpoints and weights
+	 */
+	private static class Batch<N, E> {
+		/** Head of each edge */
+		Graph<N, E>.Node[] heads;
+		/** Tail of each edge */
+		Graph<N, E>.Node[] tails;
+		/** Weight of each edge */
+		double[] weights = new double[1024];
+		/** Number of edges */
+		int size;
+
+		/**
+		 * Constructor
+		 */
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Batch() {
+			this.heads = (Graph<N, E>.Node[]) new Graph.Node[this.weights.length];
+			this.tails = (Graph<N, E>.Node[]) new Graph.Node[this.weights.length];
+		}
+
+		/**
+		 * Adds an edge, doubling the arrays when full
+		 * @param head The head node
+		 * @param tail The tail node
+		 * @param weight The weight
+		 */
+		void add(Graph<N, E>.Node head, Graph<N, E>.Node tail, double weight) {
+			if (this.size == this.weights.length) {
+				this.heads = Arrays.copyOf(this.heads, this.size*2);
+				this.tails = Arrays.copyOf(this.tails, this.size*2);
+				this.weights = Arrays.copyOf(this.weights, this.size*2);
+			}
+			this.heads[this.size] = head;
+			this.tails[this.size] = tail;
+			this.weights[this.size++] = weight;
+		}
+	}
+}
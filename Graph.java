@@ -1,4 +1,8 @@
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
 
 /**
  * A sparse arrayList implementation of a graph
@@ -14,14 +18,42 @@ public class Graph<N, E> {
 	private ArrayList<Node> masterNodeList;
 	/** Arraylist containing all the edges in a graph */
 	private ArrayList<Edge> masterEdgeList;
+	/** Extracts an edge's weight from its data, captured once per graph */
+	private ToDoubleFunction<? super E> weightFunction;
+	/** Number of changes to the nodes, edges or weights, so results computed earlier can tell they are stale */
+	private long modCount;
+	/** Objects told about every change, in the order they were added */
+	private ArrayList<GraphListener<N, E>> listeners = new ArrayList<GraphListener<N, E>>();
+	/** Writer of the read views, created by the first call to readView */
+	private VersionedAdjacency<N, E> versions;
+	/** Snapshot shared by the searches that run on one, reused until the graph changes */
+	private GraphSnapshot<N, E> searchSnapshot;
+	/** The change count searchSnapshot was taken at */
+	private long searchSnapshotVersion;
+	
+	/** Weight of an edge whose data is null or not a Number under the default weight function */
+	public static final double DEFAULT_WEIGHT = 1;
+	/** Default weight function, a Number's double value or DEFAULT_WEIGHT for any other data */
+	public static final ToDoubleFunction<Object> NUMBER_WEIGHT = data -> data instanceof Number ? ((Number) data).doubleValue() : DEFAULT_WEIGHT;
 	
 	/**
 	 * Constructor
 	 * Initializes an empty array list of nodes and edges
 	 */
 	Graph() {
+		this(NUMBER_WEIGHT);
+	}
+	
+	/**
+	 * Constructor
+	 * Initializes an empty array list of nodes and edges
+	 * @param weightFunction Extracts the primitive weight of an edge from its data whenever the data is set,
+	 * which is never called with null: edges with null data weigh DEFAULT_WEIGHT
+	 */
+	Graph(ToDoubleFunction<? super E> weightFunction) {
 		this.masterNodeList = new ArrayList<Node>();
 		this.masterEdgeList = new ArrayList<Edge>();
+		this.weightFunction = weightFunction;
 	}
 	
 	/**
@@ -65,13 +97,11 @@ public class Graph<N, E> {
 	 * @return edge The edge between the head and tail node connecting them
 	 */
 	public Edge getEdgeRef(Node head, Node tail) {
-		for (Edge edge : this.masterEdgeList) {
-			if ((edge.head == head && edge.tail == tail) || (edge.head == tail && edge.tail == head)) {
-				return edge;
-			}
-			
+		// Look up through whichever endpoint has the smaller edge list
+		if (tail.edgeList.size() < head.edgeList.size()) {
+			return tail.edgeTo(head);
 		}
-		return null;
+		return head.edgeTo(tail);
 	}
 	
 	/**
@@ -90,6 +120,31 @@ public class Graph<N, E> {
 		return this.masterNodeList.size();
 	}
 	
+	/**
+	 * Gets the number of changes made to the graph's nodes, edges or edge weights
+	 * Two equal counts mean nothing a search depends on has changed in between
+	 * @return modCount
+	 */
+	public long getModCount() {
+		return this.modCount;
+	}
+	
+	/**
+	 * Registers an object to be told about every change to the graph
+	 * @param listener The listener
+	 */
+	public void addListener(GraphListener<N, E> listener) {
+		this.listeners.add(listener);
+	}
+	
+	/**
+	 * Stops telling an object about changes to the graph
+	 * @param listener The listener
+	 */
+	public void removeListener(GraphListener<N, E> listener) {
+		this.listeners.remove(listener);
+	}
+	
 	/**
 	 * Adds a node to the graph 
 	 * @param nodeData The data that will go into the new node
@@ -97,7 +152,12 @@ public class Graph<N, E> {
 	 */
 	public Node addNode(N nodeData) {
 		Node node = new Node(nodeData);
+		node.index = this.masterNodeList.size();
 		this.masterNodeList.add(node);
+		this.modCount++;
+		for (int i = 0; i < this.listeners.size(); i++) {
+			this.listeners.get(i).nodeAdded(node);
+		}
 		return node;
 	}
 	
@@ -109,21 +169,107 @@ public class Graph<N, E> {
 	 *  @return edge The newly added edge between the head and tail nodes
 	 *   */
 	public Edge addEdge(E edgeData, Node head, Node tail) {
-		Edge edge = new Edge(edgeData, head, tail);
-		this.masterEdgeList.add(edge);
-		head.addEdge(edge);
-		tail.addEdge(edge);
+		return linkEdge(new Edge(edgeData, head, tail));
+	}
+	
+	/**
+	 *  Adds an edge to the graph that carries only a primitive weight and no data
+	 *  @param weight The edge's weight
+	 *  @param head The head node
+	 *  @param tail The tail node
+	 *  @return edge The newly added edge between the head and tail nodes
+	 */
+	public Edge addWeightedEdge(double weight, Node head, Node tail) {
+		Edge edge = new Edge(null, head, tail);
+		edge.weight = weight;
+		return linkEdge(edge);
+	}
+	
+	/**
+	 * Adds a new edge to the edge lists of its endpoints and to the master edge list
+	 * @param edge The edge, with its weight set
+	 * @return edge
+	 */
+	private Edge linkEdge(Edge edge) {
+		edge.head.addEdge(edge);
+		edge.tail.addEdge(edge);
+		registerEdge(edge);
 		return edge;
 	}
 	
 	/**
-	 * Removes an edge from the graph
+	 * Appends an edge already linked to its endpoints to the master edge list and tells the listeners
+	 * @param edge The new edge
+	 */
+	void registerEdge(Edge edge) {
+		edge.index = this.masterEdgeList.size();
+		this.masterEdgeList.add(edge);
+		this.modCount++;
+		for (int i = 0; i < this.listeners.size(); i++) {
+			this.listeners.get(i).edgeAdded(edge);
+		}
+	}
+	
+	/**
+	 * Accessor for the weight function
+	 * @return weightFunction
+	 */
+	public ToDoubleFunction<? super E> getWeightFunction() {
+		return this.weightFunction;
+	}
+	
+	/**
+	 * Re-extracts the weight of every edge that has data
+	 * Needed only after edge data has been changed in place rather than through Edge.setData.
+	 * Edges without data keep their weight, which may have been set directly
+	 */
+	public void refreshWeights() {
+		for (Edge edge : this.masterEdgeList) {
+			if (edge.data == null) {
+				continue;
+			}
+			double oldWeight = edge.weight;
+			edge.refreshWeight();
+			if (edge.weight != oldWeight) {
+				weightChanged(edge, oldWeight);
+			}
+		}
+		this.modCount++;
+	}
+	
+	/**
+	 * Removes an edge from the graph in O(1) expected time, or O(m) for one of m edges joining the same two nodes
+	 * The last edge of each affected list is moved into the freed slot
 	 * @param edge The edge to remove
 	 */
 	public void removeEdge(Edge edge) {
-		edge.getHead().getEdgeList().remove(edge);
-		edge.getTail().getEdgeList().remove(edge);
-		this.masterEdgeList.remove(edge);
+		if (!contains(edge)) {
+			return;
+		}
+		edge.getHead().unlinkEdge(edge);
+		if (edge.getTail() != edge.getHead()) {
+			edge.getTail().unlinkEdge(edge);
+		}
+		unregisterEdge(edge);
+	}
+	
+	/**
+	 * Removes an edge already unlinked from its endpoints from the master edge list and tells the listeners
+	 * The last edge of the list is moved into the freed slot
+	 * @param edge The removed edge
+	 */
+	void unregisterEdge(Edge edge) {
+		Edge last = this.masterEdgeList.remove(this.masterEdgeList.size()-1);
+		if (last != edge) {
+			this.masterEdgeList.set(edge.index, last);
+			last.index = edge.index;
+		}
+		int index = edge.index;
+		edge.index = -1;
+		this.modCount++;
+		for (int i = 0; i < this.listeners.size(); i++) {
+			this.listeners.get(i).edgeRemoved(edge, index);
+		}
 	}
 	
 	/**
@@ -137,18 +283,98 @@ public class Graph<N, E> {
 	}
 	
 	/**
-	 * Removes a node from the graph
+	 * Removes a node and all of its edges from the graph in O(degree) expected time
+	 * Parallel edges are removed newest first, so each costs O(1) as well.
+	 * The last node of the master node list is moved into the freed slot
 	 * @param node The node to remove
 	 */
 	public void removeNode(Node node) {
-		ArrayList<Node> neighborList = node.getNeighbors();
-		if (neighborList != null) {
-			for (Node neighbor : neighborList) {
-				removeEdge(node.edgeTo(neighbor));
-			}
+		if (!contains(node)) {
+			return;
 		}
-		this.masterNodeList.remove(node);
-
+		ArrayList<Edge> edgeList = node.getEdgeList();
+		while (!edgeList.isEmpty()) {
+			removeEdge(edgeList.get(edgeList.size()-1));
+		}
+		Node last = this.masterNodeList.remove(this.masterNodeList.size()-1);
+		if (last != node) {
+			this.masterNodeList.set(node.index, last);
+			last.index = node.index;
+		}
+		int index = node.index;
+		node.index = -1;
+		this.modCount++;
+		for (int i = 0; i < this.listeners.size(); i++) {
+			this.listeners.get(i).nodeRemoved(node, index);
+		}
+	}
+	
+	/**
+	 * Records a change that does not affect any search, such as new data with the same weight
+	 */
+	void countChange() {
+		this.modCount++;
+	}
+	
+	/**
+	 * Records a change to an edge's weight and tells the listeners
+	 * @param edge The edge
+	 * @param oldWeight The weight before the change
+	 */
+	void weightChanged(Edge edge, double oldWeight) {
+		this.modCount++;
+		for (int i = 0; i < this.listeners.size(); i++) {
+			this.listeners.get(i).weightChanged(edge, oldWeight);
+		}
+	}
+	
+	/**
+	 * Sets an edge's data and the weight extracted from it, and records the change
+	 * @param edge The edge
+	 * @param data The edge's new data
+	 */
+	void setEdgeData(Edge edge, E data) {
+		edge.data = data;
+		double oldWeight = edge.weight;
+		edge.refreshWeight();
+		if (edge.weight != oldWeight && edge.index >= 0) {
+			weightChanged(edge, oldWeight);
+		} else {
+			countChange();
+		}
+	}
+	
+	/**
+	 * Sets an edge's primitive weight and records the change
+	 * @param edge The edge
+	 * @param weight The edge's new weight
+	 */
+	void setEdgeWeight(Edge edge, double weight) {
+		double oldWeight = edge.weight;
+		edge.weight = weight;
+		if (weight != oldWeight && edge.index >= 0) {
+			weightChanged(edge, oldWeight);
+		} else {
+			countChange();
+		}
+	}
+	
+	/**
+	 * Returns true if the node is in this graph
+	 * @param node The node in question
+	 * @return true if the node has not been removed, in O(1)
+	 */
+	public boolean contains(Node node) {
+		return node.index >= 0 && node.index < this.masterNodeList.size() && this.masterNodeList.get(node.index) == node;
+	}
+	
+	/**
+	 * Returns true if the edge is in this graph
+	 * @param edge The edge in question
+	 * @return true if the edge has not been removed, in O(1)
+	 */
+	public boolean contains(Edge edge) {
+		return edge.index >= 0 && edge.index < this.masterEdgeList.size() && this.masterEdgeList.get(edge.index) == edge;
 	}
 	
 	/**
@@ -167,35 +393,162 @@ public class Graph<N, E> {
 	}
 	
 	/**
-	 * Checks the graph for consistency
+	 * Fills an empty graph from edges already grouped by node, without growing any list
+	 * Each node's edge list gets its edges in the order of its entries, as if they had been added one at a time.
+	 * Neighbor indexes are left to be built by the first edgeTo or addEdge on each node
+	 * @param nodeData Gives the data of each node id, or null for no data
+	 * @param edgeData Gives the data of each edge id, or null for no data
+	 * @param heads The head node id of each edge
+	 * @param tails The tail node id of each edge
+	 * @param weights The weight of each edge, kept even where the edge's data would give another
+	 * @param numEdges The number of edges, the used length of the edge arrays
+	 * @param offsets The start of each node's entries, with one extra entry marking the end
+	 * @param edgeIds The edge id of every entry
+	 */
+	void load(IntFunction<? extends N> nodeData, IntFunction<? extends E> edgeData, int[] heads, int[] tails,
+			double[] weights, int numEdges, int[] offsets, int[] edgeIds) {
+		if (!this.masterNodeList.isEmpty() || !this.masterEdgeList.isEmpty()) {
+			throw new IllegalStateException("Bulk loading needs an empty graph");
+		}
+		int numNodes = offsets.length-1;
+		this.masterNodeList.ensureCapacity(numNodes);
+		for (int i = 0; i < numNodes; i++) {
+			Node node = new Node(nodeData == null ? null : nodeData.apply(i), new ArrayList<Edge>(offsets[i+1]-offsets[i]));
+			node.index = i;
+			this.masterNodeList.add(node);
+		}
+		this.masterEdgeList.ensureCapacity(numEdges);
+		for (int e = 0; e < numEdges; e++) {
+			Edge edge = new Edge(edgeData == null ? null : edgeData.apply(e), this.masterNodeList.get(heads[e]), this.masterNodeList.get(tails[e]));
+			edge.weight = weights[e];
+			edge.index = e;
+			this.masterEdgeList.add(edge);
+		}
+		for (int i = 0; i < numNodes; i++) {
+			Node node = this.masterNodeList.get(i);
+			for (int entry = offsets[i]; entry < offsets[i+1]; entry++) {
+				Edge edge = this.masterEdgeList.get(edgeIds[entry]);
+				int slot = node.edgeList.size();
+				node.edgeList.add(edge);
+				// A self-loop's first entry is its head slot and its second its tail slot, as in Node.addEdge
+				if (edge.head == node && edge.headSlot < 0) {
+					edge.headSlot = slot;
+				} else {
+					edge.tailSlot = slot;
+				}
+			}
+		}
+		this.modCount++;
+	}
+	
+	/**
+	 * Takes an immutable compressed sparse row copy of the graph for read-heavy algorithms
+	 * Later changes to the graph are not reflected in the snapshot
+	 * @return snapshot The CSR snapshot of the graph
+	 */
+	public GraphSnapshot<N, E> snapshot() {
+		return new GraphSnapshot<N, E>(this);
+	}
+	
+	/**
+	 * Gets a snapshot for searches that read only the structure and weights, taking a new one only after a change
+	 * @return snapshot
+	 */
+	GraphSnapshot<N, E> searchSnapshot() {
+		long version = getModCount();
+		if (this.searchSnapshot == null || this.searchSnapshotVersion != version) {
+			this.searchSnapshot = snapshot();
+			this.searchSnapshotVersion = version;
+		}
+		return this.searchSnapshot;
+	}
+	
+	/**
+	 * Gets a point-in-time version of the graph that later changes never affect, for long reads alongside changes
+	 * The first call copies the graph in O(V+E), so make it from the thread that changes the graph. After that
+	 * the graph keeps the versions up to date, each call takes O(1) and any thread may read the views
+	 * @return view
+	 */
+	public ReadView<N, E> readView() {
+		if (this.versions == null) {
+			this.versions = new VersionedAdjacency<N, E>(this);
+		}
+		return this.versions.publish();
+	}
+	
+	/**
+	 * Checks the graph for consistency, printing every problem found
 	 */
 	public void check() {
+		for (String problem : validate()) {
+			System.out.println(problem);
+		}
+		System.out.println("Check done.");
+	}
+	
+	/**
+	 * Checks the graph for consistency
+	 * @return problems A description of every problem found, empty if the graph is consistent
+	 */
+	public ArrayList<String> validate() {
+		ArrayList<String> problems = new ArrayList<String>();
 		/** Does head and tail of an edge also link backto that edge? */
 		for (Edge mEdge : this.masterEdgeList) {
 			if (!mEdge.getHead().getEdgeList().contains(mEdge) && !mEdge.getTail().getEdgeList().contains(mEdge)) {
-				System.out.println("Head or tail of edge "+mEdge.getData()+" does not link back to edge.");
+				problems.add("Head or tail of edge "+mEdge.getData()+" does not link back to edge.");
 			}
 		/** Is every head and tail of an edge also in the master edge list? */
-			if (!this.masterNodeList.contains(mEdge.getHead()) && !this.masterNodeList.contains(mEdge.getTail())) {
-				System.out.println("Head or tail of "+mEdge.getData()+" is not in the master node list.");
+			if (!contains(mEdge.getHead()) && !contains(mEdge.getTail())) {
+				problems.add("Head or tail of "+mEdge.getData()+" is not in the master node list.");
+			}
+		}
+		/** Does every node and edge know its own position in the master lists? */
+		for (int i = 0; i < this.masterNodeList.size(); i++) {
+			if (this.masterNodeList.get(i).index != i) {
+				problems.add("Node "+this.masterNodeList.get(i).getData()+" has index "+this.masterNodeList.get(i).index+" but is at "+i+".");
+			}
+		}
+		for (int i = 0; i < this.masterEdgeList.size(); i++) {
+			Edge mEdge = this.masterEdgeList.get(i);
+			if (mEdge.index != i) {
+				problems.add("Edge "+mEdge.getData()+" has index "+mEdge.index+" but is at "+i+".");
+			}
+			if (!isAtSlot(mEdge, mEdge.getHead(), mEdge.headSlot) || !isAtSlot(mEdge, mEdge.getTail(), mEdge.tailSlot)) {
+				problems.add("Edge "+mEdge.getData()+" is not at its recorded slots in its head and tail edge lists.");
 			}
 		}
 		/** Every edge referenced by a node is in masterlist of edges */
+		int entries = 0;
 		for (Node node : this.masterNodeList){
+			entries += node.getEdgeList().size();
 			if (node.getEdgeList().size() != 0) {
 				for (Edge edge : node.getEdgeList()) {
-					if (!this.masterEdgeList.contains(edge)) {
-						System.out.println("Edge "+edge.getData()+" is not in the master edge list.");
+					if (!contains(edge)) {
+						problems.add("Edge "+edge.getData()+" is not in the master edge list.");
 					}
 		/** Every edge for a node has that node as either its head or tail */
 					if (edge.getHead() != node && edge.getTail() != node) {
-						System.out.println("Head or tail of edge "+edge.getData()+" does not reference back to node "+node.getData());
+						problems.add("Head or tail of edge "+edge.getData()+" does not reference back to node "+node.getData());
 					}
 				}	
 			}
 		}
-		System.out.println("Check done.");
-		
+		/** Every edge is listed exactly once at each end */
+		if (entries != 2*this.masterEdgeList.size()) {
+			problems.add("Edge lists hold "+entries+" entries for "+this.masterEdgeList.size()+" edges.");
+		}
+		return problems;
+	}
+	
+	/**
+	 * Returns true if an edge is at a slot of a node's edge list, false for a slot out of range
+	 * @param edge The edge
+	 * @param node One of its endpoints
+	 * @param slot The slot recorded for that endpoint
+	 * @return true if the slot holds the edge
+	 */
+	private static boolean isAtSlot(Graph<?, ?>.Edge edge, Graph<?, ?>.Node node, int slot) {
+		return slot >= 0 && slot < node.getEdgeList().size() && node.getEdgeList().get(slot) == edge;
 	}
 	
 	/**
@@ -221,60 +574,256 @@ public class Graph<N, E> {
 	}
 	
 	/**
-	 *  Performs depth-first traversal of a graph (recursive)
+	 *  Performs depth-first traversal of a graph, printing every traversed edge
 	 *  @param start The starting node
 	 *  @visited hashset The hashset of of visited nodes (initial set should be empty)
 	 *  @return traversedEdges The hashset of edges that have been traversed (initial set should be empty)
 	 */
 	public HashSet<Edge> DFT(Node node, HashSet<Node> visited, HashSet<Edge> traversedEdges) {
+		return DFT(node, visited, traversedEdges, true);
+	}
+	
+	/**
+	 *  Performs depth-first traversal of a graph
+	 *  Nodes already in visited are treated as explored: the traversal never enters them and does not
+	 *  record the edges leading to them, so several calls sharing the sets cover each node once
+	 *  @param start The starting node
+	 *  @visited hashset The hashset of of visited nodes (initial set should be empty)
+	 *  @param traversedEdges The hashset of edges that have been traversed (initial set should be empty)
+	 *  @param log Whether to print every traversed edge
+	 *  @return traversedEdges The hashset of edges that have been traversed
+	 */
+	public HashSet<Edge> DFT(Node node, HashSet<Node> visited, HashSet<Edge> traversedEdges, boolean log) {
 		if (visited.contains(node)) {
 			return traversedEdges;
-		} else {
-			visited.add(node);
-			if (node.getNeighbors() != null) {
-				for (Node neighbor : node.getNeighbors()) {
-					if (!traversedEdges.contains(node.edgeTo(neighbor))) {
-						traversedEdges.add(node.edgeTo(neighbor));
-						System.out.println("Nodes: "+node.getData()+" and "+neighbor.getData()+" are connected via edge "+node.edgeTo(neighbor).getData());
-						traversedEdges = DFT(neighbor, visited, traversedEdges);
+		}
+		depthFirstSearch(node, visited, new DepthFirstVisitor<N, E>() {
+			public boolean discover(Graph<N, E>.Node discovered) {
+				visited.add(discovered);
+				return true;
+			}
+			
+			public boolean treeEdge(Graph<N, E>.Edge edge, Graph<N, E>.Node from, Graph<N, E>.Node to) {
+				return traverse(edge, from, to);
+			}
+			
+			public boolean backEdge(Graph<N, E>.Edge edge, Graph<N, E>.Node from, Graph<N, E>.Node to) {
+				return traverse(edge, from, to);
+			}
+			
+			/** Records an edge, printing it the first time it is seen */
+			private boolean traverse(Graph<N, E>.Edge edge, Graph<N, E>.Node from, Graph<N, E>.Node to) {
+				if (traversedEdges.add(edge) && log) {
+					System.out.println("Nodes: "+from.getData()+" and "+to.getData()+" are connected via edge "+edge.getData());
+				}
+				return true;
+			}
+		});
+		return traversedEdges;
+	}
+	
+	/**
+	 * Performs an iterative depth-first search from a node, reporting what it finds to a visitor
+	 * Uses an explicit stack, so path-like graphs of any depth are safe.
+	 * Neighbors are explored in edge list order and the graph must not be changed during the search
+	 * @param start The starting node
+	 * @param visitor The callbacks for discovered and finished nodes, tree edges and back edges
+	 * @return true if the search ran to completion, false if the visitor stopped it early
+	 */
+	public boolean depthFirstSearch(Node start, DepthFirstVisitor<N, E> visitor) {
+		return depthFirstSearch(start, null, visitor);
+	}
+	
+	/**
+	 * Performs an iterative depth-first search from a node, treating some nodes as already finished
+	 * @param start The starting node, not one of the finished nodes
+	 * @param finished Nodes the search must neither enter nor report edges to, may be null
+	 * @param visitor The callbacks for discovered and finished nodes, tree edges and back edges
+	 * @return true if the search ran to completion, false if the visitor stopped it early
+	 */
+	private boolean depthFirstSearch(Node start, Set<Node> finished, DepthFirstVisitor<N, E> visitor) {
+		int numNodes = this.masterNodeList.size();
+		/** 0 for undiscovered, 1 while on the stack, 2 once finished */
+		byte[] state = new byte[numNodes];
+		if (finished != null) {
+			for (Node node : finished) {
+				if (contains(node)) {
+					state[node.index] = 2;
+				}
+			}
+		}
+		int[] cursor = new int[numNodes];
+		int[] parentEdge = new int[numNodes];
+		int[] stack = new int[numNodes];
+		int top = 0;
+		state[start.index] = 1;
+		parentEdge[start.index] = -1;
+		stack[top++] = start.index;
+		if (!visitor.discover(start)) {
+			return false;
+		}
+		while (top > 0) {
+			int current = stack[top-1];
+			Node node = this.masterNodeList.get(current);
+			if (cursor[current] < node.edgeList.size()) {
+				int slot = cursor[current]++;
+				Edge edge = node.edgeList.get(slot);
+				if (edge.index == parentEdge[current]) {
+					continue; // The edge this node was reached through
+				}
+				Node neighbor = edge.head == node ? edge.tail : edge.head;
+				if (neighbor == node && slot != edge.headSlot) {
+					continue; // Second listing of a self-loop
+				}
+				int next = neighbor.index;
+				if (state[next] == 0) {
+					if (!visitor.treeEdge(edge, node, neighbor)) {
+						return false;
+					}
+					state[next] = 1;
+					parentEdge[next] = edge.index;
+					cursor[next] = 0;
+					stack[top++] = next;
+					if (!visitor.discover(neighbor)) {
+						return false;
+					}
+				} else if (state[next] == 1) {
+					if (!visitor.backEdge(edge, node, neighbor)) {
+						return false;
 					}
 				}
-			}			
-			return traversedEdges;
+			} else {
+				state[current] = 2;
+				top--;
+				if (!visitor.finish(node)) {
+					return false;
+				}
+			}
 		}
+		return true;
 	}
 	
 	/**
-	 * Performs breadth-first traversal of a graph
+	 * Performs breadth-first traversal of a graph, printing every traversed edge and the unreachable nodes
 	 * @param start The starting node
 	 * @return traversedEdges The hashset of edges that have been traversed 
 	 */
 	public HashSet<Edge> BFT(Node start) {
+		return BFT(start, true);
+	}
+	
+	/**
+	 * Performs breadth-first traversal of a graph
+	 * Nodes are marked visited when they are first queued, so each node is queued once
+	 * and the traversed edges form a breadth-first tree
+	 * @param start The starting node
+	 * @param log Whether to print every traversed edge and the unreachable nodes
+	 * @return traversedEdges The hashset of edges that have been traversed 
+	 */
+	public HashSet<Edge> BFT(Node start, boolean log) {
 		HashSet<Edge> traversedEdges = new HashSet<Edge>();
-		HashSet<Node> visited = new HashSet<Node>();
-		Queue<Node> queueNodes = new LinkedList<Node>();
+		boolean[] visited = new boolean[this.masterNodeList.size()];
+		Queue<Node> queueNodes = new ArrayDeque<Node>();
 		queueNodes.add(start);
+		visited[start.index] = true; // Marking as visited
 		while (!queueNodes.isEmpty()) {
 			Node currentNode = queueNodes.remove();
-			visited.add(currentNode); // Marking as visited
-			if (currentNode.getNeighbors() != null) {
-				for (Node neighbor : currentNode.getNeighbors()) {
-					if (!visited.contains(neighbor)) {
-						queueNodes.add(neighbor);
-						traversedEdges.add(currentNode.edgeTo(neighbor));
-						System.out.println("Nodes: "+currentNode.getData()+" to "+neighbor.getData()+" connected via edge "+currentNode.edgeTo(neighbor).getData());
+			for (int i = 0; i < currentNode.degree(); i++) {
+				Edge edge = currentNode.edgeAt(i);
+				Node neighbor = edge.oppositeTo(currentNode);
+				if (!visited[neighbor.index]) {
+					visited[neighbor.index] = true;
+					queueNodes.add(neighbor);
+					traversedEdges.add(edge);
+					if (log) {
+						System.out.println("Nodes: "+currentNode.getData()+" to "+neighbor.getData()+" connected via edge "+edge.getData());
 					}
 				}
 			}
 		}
-		/** Print out all nodes that are not reachable from the starting node (if any) */
-		System.out.print("Unreachable nodes from node "+start.getData()+":");
-		for (Node unreachable : otherNodes(visited)) {
-			System.out.print(" "+unreachable.getData());
+		if (log) {
+			/** Print out all nodes that are not reachable from the starting node (if any) */
+			System.out.print("Unreachable nodes from node "+start.getData()+":");
+			for (int i = 0; i < visited.length; i++) {
+				if (!visited[i]) {
+					System.out.print(" "+this.masterNodeList.get(i).getData());
+				}
+			}
 		}
 		return traversedEdges;
 	}
 	
+	/**
+	 * Performs breadth-first traversal of a graph with each level split across several threads
+	 * Returns the same edges as BFT(start, false) for any number of threads
+	 * @param start The starting node
+	 * @param parallelism The number of worker threads to use
+	 * @return traversedEdges The hashset of edges that have been traversed
+	 */
+	public HashSet<Edge> parallelBFT(Node start, int parallelism) {
+		ParallelBFS search = new ParallelBFS(parallelism);
+		try {
+			return new HashSet<Edge>(search.run(snapshot(), start.index).getTreeEdges());
+		} finally {
+			search.shutdown();
+		}
+	}
+	
+	/**
+	 * Performs a direction-optimizing breadth-first search on a snapshot of the graph
+	 * @param start The starting node
+	 * @return tree The levels, parents and parent edges of every node, by node index
+	 */
+	public BFSTree<N, E> breadthFirstSearch(Node start) {
+		return snapshot().bfsTree(start.index);
+	}
+	
+	/**
+	 * Labels every node of a snapshot of the graph with its connected component, split across several threads
+	 * @param parallelism The number of worker threads to use
+	 * @return labels The component of every node by node index, numbered in order of each component's smallest index
+	 */
+	public ComponentLabels<N, E> connectedComponents(int parallelism) {
+		ParallelComponents labelling = new ParallelComponents(parallelism);
+		try {
+			return labelling.run(snapshot());
+		} finally {
+			labelling.shutdown();
+		}
+	}
+	
+	/**
+	 * Finds a minimum spanning forest of a snapshot of the graph with Kruskal's algorithm
+	 * @return forest The chosen edges and their total weight, one tree per connected component
+	 */
+	public SpanningForest<N, E> minimumSpanningForest() {
+		return MinimumSpanningForest.kruskal(snapshot());
+	}
+
+	/**
+	 * Finds a minimum spanning forest of a snapshot of the graph with Boruvka's algorithm, split across several threads
+	 * It chooses exactly the same edges as minimumSpanningForest()
+	 * @param parallelism The number of worker threads to use
+	 * @return forest The chosen edges and their total weight, one tree per connected component
+	 */
+	public SpanningForest<N, E> minimumSpanningForest(int parallelism) {
+		MinimumSpanningForest engine = new MinimumSpanningForest(parallelism);
+		try {
+			return engine.boruvka(snapshot());
+		} finally {
+			engine.shutdown();
+		}
+	}
+
+	/**
+	 * Preprocesses a snapshot of the graph into a contraction hierarchy for repeated distance queries
+	 * Its node ids are the current node indexes, and it does not follow later changes to the graph
+	 * @return hierarchy
+	 */
+	public ContractionHierarchy contractionHierarchy() {
+		return ContractionHierarchy.build(snapshot());
+	}
+	
 	
 	/**
 	 * Performs Dijkstra's shortest-path algorithm to compute the shortest distance between two nodes
@@ -283,66 +832,431 @@ public class Graph<N, E> {
 	 * @param end The end node
 	 * @return distance The shortest distance between the start and end node
 	 */
-	public static <S, T extends Number> double distances(Graph<S, T> graph, Graph<S, T>.Node start, Graph<S, T>.Node end){
-		Map<Graph<S, T>.Node, Graph<S, T>.DijkstraNode> hashMap = new HashMap<Graph<S, T>.Node, Graph<S, T>.DijkstraNode>();
-		for (Graph<S, T>.Node node : graph.masterNodeList) {
-			hashMap.put(node, graph.new DijkstraNode(Double.POSITIVE_INFINITY, null, false));
-		}
-		hashMap.get(start).setCost(0);
-		hashMap.get(start).setDirection(start);
-		while (graph.getSmallestUnvisited(hashMap) != null) {
-			Graph<S, T>.Node smallestUnvisited = graph.getSmallestUnvisited(hashMap);
-			double currentCost = hashMap.get(smallestUnvisited).getCost();
-			hashMap.get(smallestUnvisited).setVisited(true);
-			if (smallestUnvisited.getNeighbors() != null) {
-				for (Graph<S, T>.Node neighbor : smallestUnvisited.getNeighbors()) {
-					if (!hashMap.get(neighbor).getVisited()) {
-						double neighborsCost = hashMap.get(neighbor).getCost();
-						double edgeCost = smallestUnvisited.edgeTo(neighbor).getData().doubleValue();
-						double combinedCost = currentCost+edgeCost;
-						if (combinedCost <= neighborsCost) {
-							hashMap.get(neighbor).setCost(combinedCost);
-							hashMap.get(neighbor).setDirection(smallestUnvisited);
-						}
+	public static <S, T> double distances(Graph<S, T> graph, Graph<S, T>.Node start, Graph<S, T>.Node end){
+		return distances(graph, start, end, null);
+	}
+	
+	/**
+	 * Performs Dijkstra's shortest-path algorithm to compute the shortest distance between two nodes
+	 * @param graph An instance of a graph
+	 * @param start The starting node
+	 * @param end The end node
+	 * @param stats Counters to add the search's work to, may be null
+	 * @return distance The shortest distance between the start and end node
+	 */
+	public static <S, T> double distances(Graph<S, T> graph, Graph<S, T>.Node start, Graph<S, T>.Node end,
+			SearchStats stats){
+		return dijkstra(graph, start, end, stats).get(end.index).getCost();
+	}
+	
+	/**
+	 * Performs Dijkstra's shortest-path algorithm from a starting node to every reachable node
+	 * @param graph An instance of a graph
+	 * @param start The starting node
+	 * @return tree The shortest-path tree rooted at the starting node
+	 */
+	public static <S, T> ShortestPathTree<S, T> shortestPaths(Graph<S, T> graph, Graph<S, T>.Node start){
+		SearchStats stats = new SearchStats();
+		return new ShortestPathTree<S, T>(start, dijkstra(graph, start, null, stats), stats);
+	}
+	
+	/**
+	 * Performs delta-stepping on a snapshot of the graph, with each phase split across several threads
+	 * Gives the same costs as shortestPaths, with a bucket width picked from the weights and degrees
+	 * @param graph An instance of a graph
+	 * @param start The starting node
+	 * @param parallelism The number of worker threads to use
+	 * @return tree The shortest-path tree rooted at the starting node
+	 */
+	public static <S, T> ShortestPathTree<S, T> shortestPathsParallel(Graph<S, T> graph, Graph<S, T>.Node start,
+			int parallelism){
+		GraphSnapshot<S, T> snapshot = graph.snapshot();
+		return shortestPathsParallel(snapshot, start, DeltaStepping.defaultDelta(snapshot), parallelism);
+	}
+	
+	/**
+	 * Performs delta-stepping on a snapshot of the graph, with each phase split across several threads
+	 * @param graph An instance of a graph
+	 * @param start The starting node
+	 * @param delta The bucket width; smaller widths do less extra work, larger ones fewer phases
+	 * @param parallelism The number of worker threads to use
+	 * @return tree The shortest-path tree rooted at the starting node, with the buckets processed in its stats
+	 */
+	public static <S, T> ShortestPathTree<S, T> shortestPathsParallel(Graph<S, T> graph, Graph<S, T>.Node start,
+			double delta, int parallelism){
+		return shortestPathsParallel(graph.snapshot(), start, delta, parallelism);
+	}
+	
+	/**
+	 * Runs delta-stepping on a snapshot with a pool of its own
+	 */
+	private static <S, T> ShortestPathTree<S, T> shortestPathsParallel(GraphSnapshot<S, T> snapshot,
+			Graph<S, T>.Node start, double delta, int parallelism){
+		DeltaStepping search = new DeltaStepping(parallelism);
+		try {
+			return search.shortestPathTree(snapshot, start.index, delta);
+		} finally {
+			search.shutdown();
+		}
+	}
+	
+	/**
+	 * Performs Dijkstra's shortest-path algorithm to find the shortest path between two nodes
+	 * The search stops as soon as the end node is settled
+	 * @param graph An instance of a graph
+	 * @param start The starting node
+	 * @param end The end node
+	 * @return path The shortest path between the start and end node, or null if there is none
+	 */
+	public static <S, T> GraphPath<S, T> shortestPath(Graph<S, T> graph, Graph<S, T>.Node start, Graph<S, T>.Node end){
+		SearchStats stats = new SearchStats();
+		return new ShortestPathTree<S, T>(start, dijkstra(graph, start, end, stats), stats).pathTo(end);
+	}
+	
+	/**
+	 * Performs bidirectional Dijkstra to compute the shortest distance between two nodes
+	 * @param graph An instance of a graph
+	 * @param start The starting node
+	 * @param end The end node
+	 * @param stats Counters to add the work of both searches to, may be null
+	 * @return distance The shortest distance between the start and end node
+	 */
+	public static <S, T> double bidirectionalDistance(Graph<S, T> graph, Graph<S, T>.Node start, Graph<S, T>.Node end,
+			SearchStats stats){
+		GraphPath<S, T> path = bidirectionalPath(graph, start, end, stats);
+		return path == null ? Double.POSITIVE_INFINITY : path.getCost();
+	}
+	
+	/**
+	 * Performs bidirectional Dijkstra to find the shortest path between two nodes
+	 * @param graph An instance of a graph
+	 * @param start The starting node
+	 * @param end The end node
+	 * @return path The shortest path between the start and end node, or null if there is none
+	 */
+	public static <S, T> GraphPath<S, T> bidirectionalPath(Graph<S, T> graph, Graph<S, T>.Node start, Graph<S, T>.Node end){
+		return bidirectionalPath(graph, start, end, null);
+	}
+	
+	/**
+	 * Performs bidirectional Dijkstra to find the shortest path between two nodes
+	 * One search grows from the start and one from the end, taking turns to settle a node. Every edge
+	 * that joins the two searches offers a candidate path, and the search stops once the smallest
+	 * costs left in both queues add up to at least the best candidate, since no path through an
+	 * unsettled node can then be shorter
+	 * @param graph An instance of a graph
+	 * @param start The starting node
+	 * @param end The end node
+	 * @param stats Counters to add the work of both searches to, may be null
+	 * @return path The shortest path between the start and end node, or null if there is none
+	 */
+	public static <S, T> GraphPath<S, T> bidirectionalPath(Graph<S, T> graph, Graph<S, T>.Node start,
+			Graph<S, T>.Node end, SearchStats stats){
+		int numNodes = graph.masterNodeList.size();
+		double[][] costs = new double[2][numNodes];
+		int[][] parentEdges = new int[2][numNodes];
+		boolean[][] settled = new boolean[2][numNodes];
+		IndexedMinHeap[] heaps = { new IndexedMinHeap(numNodes), new IndexedMinHeap(numNodes) };
+		int[] roots = { start.index, end.index };
+		for (int side = 0; side < 2; side++) {
+			Arrays.fill(costs[side], Double.POSITIVE_INFINITY);
+			Arrays.fill(parentEdges[side], -1);
+			costs[side][roots[side]] = 0;
+			heaps[side].offer(roots[side], 0);
+		}
+		// Best path found so far, joined by meetingEdge from meetingFrom on the start side to meetingTo on the end side
+		double best = start == end ? 0 : Double.POSITIVE_INFINITY;
+		int meetingEdge = -1;
+		int meetingFrom = start.index;
+		int meetingTo = end.index;
+		long settledCount = 0;
+		long relaxations = 0;
+		int side = 0;
+		while (!heaps[0].isEmpty() && !heaps[1].isEmpty() && heaps[0].peekKey()+heaps[1].peekKey() < best) {
+			int other = 1-side;
+			Graph<S, T>.Node current = graph.masterNodeList.get(heaps[side].poll());
+			double currentCost = costs[side][current.index];
+			settled[side][current.index] = true;
+			settledCount++;
+			for (int i = 0; i < current.degree(); i++) {
+				Graph<S, T>.Edge edge = current.edgeAt(i);
+				Graph<S, T>.Node neighbor = edge.oppositeTo(current);
+				double combinedCost = currentCost+edge.weight;
+				if (combinedCost+costs[other][neighbor.index] < best) {
+					best = combinedCost+costs[other][neighbor.index];
+					meetingEdge = edge.index;
+					meetingFrom = side == 0 ? current.index : neighbor.index;
+					meetingTo = side == 0 ? neighbor.index : current.index;
+				}
+				if (!settled[side][neighbor.index]) {
+					relaxations++;
+					if (combinedCost < costs[side][neighbor.index]) {
+						costs[side][neighbor.index] = combinedCost;
+						parentEdges[side][neighbor.index] = edge.index;
+						heaps[side].offer(neighbor.index, combinedCost);
 					}
 				}
 			}
+			side = other;
 		}
-
-		return hashMap.get(end).getCost();
+		if (stats != null) {
+			stats.addSettled(settledCount);
+			stats.addRelaxations(relaxations);
+		}
+		if (best == Double.POSITIVE_INFINITY) {
+			return null;
+		}
+		ArrayList<Graph<S, T>.Node> nodes = new ArrayList<Graph<S, T>.Node>();
+		ArrayList<Graph<S, T>.Edge> edges = new ArrayList<Graph<S, T>.Edge>();
+		// Walk the start side back from the meeting point, then the end side forward
+		Graph<S, T>.Node current = graph.masterNodeList.get(meetingFrom);
+		nodes.add(current);
+		while (parentEdges[0][current.index] >= 0) {
+			Graph<S, T>.Edge edge = graph.masterEdgeList.get(parentEdges[0][current.index]);
+			current = edge.oppositeTo(current);
+			edges.add(edge);
+			nodes.add(current);
+		}
+		Collections.reverse(nodes);
+		Collections.reverse(edges);
+		current = graph.masterNodeList.get(meetingTo);
+		if (meetingEdge >= 0) {
+			edges.add(graph.masterEdgeList.get(meetingEdge));
+			nodes.add(current);
+		}
+		while (parentEdges[1][current.index] >= 0) {
+			Graph<S, T>.Edge edge = graph.masterEdgeList.get(parentEdges[1][current.index]);
+			current = edge.oppositeTo(current);
+			edges.add(edge);
+			nodes.add(current);
+		}
+		return new GraphPath<S, T>(nodes, edges, best);
+	}
+	
+	/**
+	 * Finds the shortest distance from every source to every target, one search per source on each core
+	 * Every call shares one pool, whose threads keep their search arrays between calls, and one snapshot
+	 * of the graph until it changes, so repeated calls allocate little more than the matrix
+	 * @param graph An instance of a graph
+	 * @param sources The source nodes
+	 * @param targets The target nodes
+	 * @return matrix Row i holds the distances from source i to each target, positive infinity if unreachable
+	 */
+	public static <S, T> double[][] distanceMatrix(Graph<S, T> graph, List<Graph<S, T>.Node> sources,
+			List<Graph<S, T>.Node> targets){
+		return DistanceMatrix.shared().compute(graph.searchSnapshot(), indexesOf(sources), indexesOf(targets), null);
+	}
+	
+	/**
+	 * Finds the shortest distance from every source to every target, with the searches split across several threads
+	 * Starts and stops a pool of its own on every call; repeated calls should keep a DistanceMatrix instead
+	 * @param graph An instance of a graph
+	 * @param sources The source nodes
+	 * @param targets The target nodes
+	 * @param parallelism The number of worker threads to use
+	 * @return matrix Row i holds the distances from source i to each target, positive infinity if unreachable
+	 */
+	public static <S, T> double[][] distanceMatrix(Graph<S, T> graph, List<Graph<S, T>.Node> sources,
+			List<Graph<S, T>.Node> targets, int parallelism){
+		DistanceMatrix search = new DistanceMatrix(parallelism);
+		try {
+			return search.compute(graph.searchSnapshot(), indexesOf(sources), indexesOf(targets), null);
+		} finally {
+			search.shutdown();
+		}
+	}
+	
+	/**
+	 * Gets the index of every node in a list
+	 */
+	private static <S, T> int[] indexesOf(List<Graph<S, T>.Node> nodes){
+		int[] indexes = new int[nodes.size()];
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = nodes.get(i).index;
+		}
+		return indexes;
+	}
+	
+	/**
+	 * Performs A* search to find the shortest path between two nodes
+	 * @param graph An instance of a graph
+	 * @param start The starting node
+	 * @param end The end node
+	 * @param heuristic Estimates the cost from a node's data to the end node's data, never overestimating
+	 * @return path The shortest path between the start and end node, or null if there is none
+	 */
+	public static <S, T> GraphPath<S, T> aStarPath(Graph<S, T> graph, Graph<S, T>.Node start, Graph<S, T>.Node end,
+			ToDoubleBiFunction<? super S, ? super S> heuristic){
+		return aStarPath(graph, start, end, heuristic, null);
+	}
+	
+	/**
+	 * Performs A* search to find the shortest path between two nodes
+	 * Nodes leave the queue in order of cost so far plus the heuristic's estimate of the cost left,
+	 * so the search heads towards the end node. A node whose cost improves after it was settled is
+	 * queued again, so the path is shortest for any heuristic that never overestimates, and every
+	 * node is settled at most once when the heuristic is also consistent
+	 * @param graph An instance of a graph
+	 * @param start The starting node
+	 * @param end The end node
+	 * @param heuristic Estimates the cost from a node's data to the end node's data, never overestimating
+	 * @param stats Counters to add the search's work to, may be null
+	 * @return path The shortest path between the start and end node, or null if there is none
+	 */
+	public static <S, T> GraphPath<S, T> aStarPath(Graph<S, T> graph, Graph<S, T>.Node start, Graph<S, T>.Node end,
+			ToDoubleBiFunction<? super S, ? super S> heuristic, SearchStats stats){
+		int numNodes = graph.masterNodeList.size();
+		double[] costs = new double[numNodes];
+		double[] estimates = new double[numNodes];
+		int[] parentEdges = new int[numNodes];
+		boolean[] settled = new boolean[numNodes];
+		Arrays.fill(costs, Double.POSITIVE_INFINITY);
+		Arrays.fill(estimates, Double.NaN);
+		Arrays.fill(parentEdges, -1);
+		IndexedMinHeap heap = new IndexedMinHeap(numNodes);
+		costs[start.index] = 0;
+		heap.offer(start.index, heuristic.applyAsDouble(start.data, end.data));
+		long settledCount = 0;
+		long relaxations = 0;
+		boolean found = false;
+		while (!heap.isEmpty()) {
+			Graph<S, T>.Node current = graph.masterNodeList.get(heap.poll());
+			settled[current.index] = true;
+			settledCount++;
+			if (current == end) {
+				found = true;
+				break;
+			}
+			double currentCost = costs[current.index];
+			for (int i = 0; i < current.degree(); i++) {
+				Graph<S, T>.Edge edge = current.edgeAt(i);
+				Graph<S, T>.Node neighbor = edge.oppositeTo(current);
+				double combinedCost = currentCost+edge.weight;
+				if (!settled[neighbor.index] || combinedCost < costs[neighbor.index]) {
+					relaxations++;
+				}
+				if (combinedCost < costs[neighbor.index]) {
+					if (Double.isNaN(estimates[neighbor.index])) {
+						estimates[neighbor.index] = heuristic.applyAsDouble(neighbor.data, end.data);
+					}
+					costs[neighbor.index] = combinedCost;
+					parentEdges[neighbor.index] = edge.index;
+					settled[neighbor.index] = false;
+					heap.offer(neighbor.index, combinedCost+estimates[neighbor.index]);
+				}
+			}
+		}
+		if (stats != null) {
+			stats.addSettled(settledCount);
+			stats.addRelaxations(relaxations);
+		}
+		if (!found) {
+			return null;
+		}
+		ArrayList<Graph<S, T>.Node> nodes = new ArrayList<Graph<S, T>.Node>();
+		ArrayList<Graph<S, T>.Edge> edges = new ArrayList<Graph<S, T>.Edge>();
+		Graph<S, T>.Node current = end;
+		nodes.add(current);
+		while (parentEdges[current.index] >= 0) {
+			Graph<S, T>.Edge edge = graph.masterEdgeList.get(parentEdges[current.index]);
+			current = edge.oppositeTo(current);
+			edges.add(edge);
+			nodes.add(current);
+		}
+		Collections.reverse(nodes);
+		Collections.reverse(edges);
+		return new GraphPath<S, T>(nodes, edges, costs[end.index]);
 	}
 	
 	/**
-	 * Gets the smallest unvisited nodes in a hashmap, if none return null
-	 * @param hashMap
-	 * @return true If there are any unvisited nodes, false otherwise
+	 * Runs Dijkstra's algorithm from a starting node using an indexed binary heap
+	 * Every node is settled at most once, and the search stops as soon as the end node is settled.
+	 * Edge costs are the primitive weights captured by the graph's weight function
+	 * @param graph An instance of a graph
+	 * @param start The starting node
+	 * @param end The node to stop at, or null to settle every reachable node
+	 * @param stats Counters to add the search's work to, may be null
+	 * @return costs The cost and homeward direction of every node in the graph, by node index
 	 */
-	private Node getSmallestUnvisited(Map<Node, DijkstraNode> hashMap){
-		Node smallestUnvisited = null;
-		double lowestSeenCost = Double.POSITIVE_INFINITY;
-		for (Map.Entry<Node, DijkstraNode> entry : hashMap.entrySet()) {
-		    Node nodeKey = entry.getKey();
-		    DijkstraNode value = entry.getValue();
-		    if (!value.visited && value.getCost() <= lowestSeenCost) {
-		    	lowestSeenCost = value.getCost();
-		    	smallestUnvisited = nodeKey;
-		    }
+	private static <S, T> ArrayList<Graph<S, T>.DijkstraNode> dijkstra(Graph<S, T> graph,
+			Graph<S, T>.Node start, Graph<S, T>.Node end, SearchStats stats){
+		ArrayList<Graph<S, T>.Node> nodeList = graph.masterNodeList;
+		ArrayList<Graph<S, T>.DijkstraNode> costs = new ArrayList<Graph<S, T>.DijkstraNode>(nodeList.size());
+		for (int i = 0; i < nodeList.size(); i++) {
+			costs.add(graph.new DijkstraNode(nodeList.get(i), Double.POSITIVE_INFINITY, null, false));
+		}
+		Graph<S, T>.DijkstraNode startNode = costs.get(start.index);
+		startNode.setCost(0);
+		startNode.setDirection(start);
+		IndexedMinHeap heap = new IndexedMinHeap(nodeList.size());
+		heap.offer(startNode.id, 0);
+		long settled = 0;
+		long relaxations = 0;
+		while (!heap.isEmpty()) {
+			Graph<S, T>.Node smallestUnvisited = nodeList.get(heap.poll());
+			Graph<S, T>.DijkstraNode current = costs.get(smallestUnvisited.index);
+			double currentCost = current.getCost();
+			current.setVisited(true);
+			settled++;
+			if (smallestUnvisited == end) {
+				break;
+			}
+			for (int i = 0; i < smallestUnvisited.degree(); i++) {
+				Graph<S, T>.Edge edge = smallestUnvisited.edgeAt(i);
+				Graph<S, T>.Node neighbor = edge.oppositeTo(smallestUnvisited);
+				Graph<S, T>.DijkstraNode next = costs.get(neighbor.index);
+				if (!next.getVisited()) {
+					relaxations++;
+					double combinedCost = currentCost+edge.weight;
+					if (combinedCost <= next.getCost()) {
+						next.setCost(combinedCost);
+						next.setDirection(smallestUnvisited);
+						next.setEdge(edge);
+						heap.offer(next.id, combinedCost);
+					}
+				}
+			}
+		}
+		if (stats != null) {
+			stats.addSettled(settled);
+			stats.addRelaxations(relaxations);
 		}
-		return smallestUnvisited;
+		return costs;
 	}
 	
+	/** Edge list size above which a node indexes its edges by neighbor */
+	static final int ADJACENCY_INDEX_THRESHOLD = 8;
+	
 	public class Node {
 		/** Data stored in a node */
 		private N data;
 		/** Arraylist containing all the edges of a node **/
-		private ArrayList<Edge> edgeList = new ArrayList<Edge>();
+		private ArrayList<Edge> edgeList;
+		/** Edge to each neighbor, built once the edge list outgrows ADJACENCY_INDEX_THRESHOLD */
+		private HashMap<Node, Edge> adjacency;
+		/** Edges to each indexed neighbor besides the one in the neighbor index, only for neighbors that have them */
+		private HashMap<Node, ArrayList<Edge>> parallelEdges;
+		/** Position of the node in the master node list, -1 once removed */
+		private int index = -1;
+		/** Slot of the node in the graph's read views, fixed once assigned */
+		int slot = -1;
 		
 		/**
 		 * Constructor
 		 * @param data The data that goes into a node
 		 */
 		Node(N data) {
+			this(data, new ArrayList<Edge>());
+		}
+		
+		/**
+		 * Constructor
+		 * @param data The data that goes into a node
+		 * @param edgeList The node's empty edge list, presized by callers that know the degree
+		 */
+		Node(N data, ArrayList<Edge> edgeList) {
 			this.data = data;
+			this.edgeList = edgeList;
 		}
 		
 		/**
@@ -353,8 +1267,17 @@ public class Graph<N, E> {
 			return this.data;
 		}
 		
+		/**
+		 * Get node's position in the master node list
+		 * The position only changes when a removal moves this node into the freed slot
+		 * @return index The node's index, or -1 if it has been removed
+		 */
+		public int getIndex() {
+			return this.index;
+		}
+		
 		/** 
-		 * Get node's edge list 
+		 * Get node's edge list, which must be changed only through the graph
 		 * @return a node's edge list
 		 */
 		public ArrayList<Edge> getEdgeList() {
@@ -374,30 +1297,185 @@ public class Graph<N, E> {
 		 *  @param edge 
 		 */
 		public void addEdge(Edge edge) {
+			int slot = this.edgeList.size();
 			edgeList.add(edge);
+			boolean first = edge.head == this && edge.headSlot < 0;
+			if (first) {
+				edge.headSlot = slot;
+			} else {
+				edge.tailSlot = slot;
+			}
+			if (this.adjacency != null) {
+				// A self-loop is added twice but indexed once
+				if (first || edge.head != edge.tail) {
+					indexEdge(edge);
+				}
+			} else if (this.edgeList.size() > ADJACENCY_INDEX_THRESHOLD) {
+				indexAll();
+			}
+		}
+		
+		/**
+		 * Builds the neighbor index from the whole edge list
+		 */
+		private void indexAll() {
+			this.adjacency = new HashMap<Node, Edge>(this.edgeList.size()*2);
+			this.parallelEdges = null;
+			for (int i = 0; i < this.edgeList.size(); i++) {
+				Edge listed = this.edgeList.get(i);
+				if (listed.head != listed.tail || i == listed.headSlot) {
+					indexEdge(listed);
+				}
+			}
+		}
+		
+		/**
+		 * Adds an edge to the neighbor index, keeping the earlier edge if the neighbor is already indexed
+		 * and listing the new one among that neighbor's parallel edges
+		 * @param edge The edge to index, once even if it is a self-loop
+		 */
+		private void indexEdge(Edge edge) {
+			Node neighbor = edge.head == this ? edge.tail : edge.head;
+			Edge indexed = this.adjacency.putIfAbsent(neighbor, edge);
+			if (indexed != null) {
+				if (this.parallelEdges == null) {
+					this.parallelEdges = new HashMap<Node, ArrayList<Edge>>();
+				}
+				this.parallelEdges.computeIfAbsent(neighbor, key -> new ArrayList<Edge>(2)).add(edge);
+			}
+		}
+		
+		/**
+		 * Removes every occurrence of an edge from the edge list and the neighbor index
+		 * @param edge The edge to unlink
+		 */
+		void unlinkEdge(Edge edge) {
+			if (edge.head == edge.tail) {
+				// Free the later slot first so the earlier one is not moved
+				removeSlot(Math.max(edge.headSlot, edge.tailSlot));
+				removeSlot(Math.min(edge.headSlot, edge.tailSlot));
+				edge.headSlot = -1;
+				edge.tailSlot = -1;
+			} else if (edge.head == this) {
+				removeSlot(edge.headSlot);
+				edge.headSlot = -1;
+			} else {
+				removeSlot(edge.tailSlot);
+				edge.tailSlot = -1;
+			}
+			if (this.adjacency == null) {
+				return;
+			}
+			Node neighbor = edge.head == this ? edge.tail : edge.head;
+			ArrayList<Edge> parallel = this.parallelEdges == null ? null : this.parallelEdges.get(neighbor);
+			if (this.adjacency.get(neighbor) == edge) {
+				if (parallel == null) {
+					this.adjacency.remove(neighbor);
+					return;
+				}
+				// Another edge to the same neighbor is left, index it in place of the removed one
+				this.adjacency.put(neighbor, parallel.remove(parallel.size()-1));
+			} else {
+				// Parallel edges are equal to each other, so search by identity, from the end since
+				// they are mostly removed newest first, as removeNode does
+				int at = parallel.size()-1;
+				while (parallel.get(at) != edge) {
+					at--;
+				}
+				parallel.remove(at);
+			}
+			if (parallel.isEmpty()) {
+				this.parallelEdges.remove(neighbor);
+			}
+		}
+		
+		/**
+		 * Frees a slot in the edge list in O(1) by moving the last edge into it
+		 * @param slot The slot to free
+		 */
+		private void removeSlot(int slot) {
+			int lastSlot = this.edgeList.size()-1;
+			Edge last = this.edgeList.remove(lastSlot);
+			if (slot != lastSlot) {
+				this.edgeList.set(slot, last);
+				if (last.head == this && last.headSlot == lastSlot) {
+					last.headSlot = slot;
+				} else {
+					last.tailSlot = slot;
+				}
+			}
 		}
 		
 		/**
 		 * Returns edge to a specified node, or null if none
+		 * Takes O(1) expected time, through the neighbor index once the node has many edges.
+		 * The first call on a bulk loaded node builds its index, so it is not safe alongside other threads
 		 * @param neighbor neighbor node
 		 * @return edge
 		 */
 		public Edge edgeTo(Node neighbor) {
+			if (this.adjacency == null && this.edgeList.size() > ADJACENCY_INDEX_THRESHOLD) {
+				// Bulk loaded nodes build their index on first use
+				indexAll();
+			}
+			if (this.adjacency != null) {
+				return this.adjacency.get(neighbor);
+			}
 			for (Edge edge : this.edgeList) {
-				if (edge.getHead() == neighbor || edge.getTail() == neighbor) {
+				if ((edge.head == this && edge.tail == neighbor) || (edge.tail == this && edge.head == neighbor)) {
 						return edge;
 				}
 			}
 			return null; 
 		}
 		
+		/**
+		 * Gets the number of edges of a node, counting a self-loop twice
+		 * @return degree
+		 */
+		public int degree() {
+			return this.edgeList.size();
+		}
+		
+		/**
+		 * Gets an edge of the node by position, for walking neighbors without allocating
+		 * @param i The position in the edge list, from 0 to degree()-1
+		 * @return edge The edge at position i
+		 */
+		public Edge edgeAt(int i) {
+			return this.edgeList.get(i);
+		}
+		
+		/**
+		 * Gets the neighbor across an edge of the node by position
+		 * @param i The position in the edge list, from 0 to degree()-1
+		 * @return neighbor The node at the other end of the edge at position i
+		 */
+		public Node neighborAt(int i) {
+			Edge edge = this.edgeList.get(i);
+			return edge.head == this ? edge.tail : edge.head;
+		}
+		
+		/**
+		 * Calls an action with every neighbor and the edge leading to it, without allocating
+		 * The graph must not be changed during the walk
+		 * @param action The action taking a neighbor and its edge
+		 */
+		public void forEachNeighbor(BiConsumer<? super Node, ? super Edge> action) {
+			for (int i = 0; i < this.edgeList.size(); i++) {
+				Edge edge = this.edgeList.get(i);
+				action.accept(edge.head == this ? edge.tail : edge.head, edge);
+			}
+		}
+		
 		/**
 		 * Returns an array list of all the neighbors of a node
 		 * If no neighbors, returns null
+		 * Allocates a new list on every call, so prefer edgeAt or forEachNeighbor in loops
 		 * @return neighbors list of all nodes that are neighbors
 		 */
 		public ArrayList<Node> getNeighbors() {
-			ArrayList<Node> neighbors = new ArrayList<Node>();
+			ArrayList<Node> neighbors = new ArrayList<Node>(this.edgeList.size());
 			if (this.edgeList.size() != 0) {
 				for (Edge edge : edgeList) {
 					if (edge.getHead() != null && edge.getTail() == this) {
@@ -426,12 +1504,8 @@ public class Graph<N, E> {
 		 * @param edge The edge to be removed
 		 */
 		public void removeEdge(Edge edge) {
-			if (this.edgeList.size() != 0 && this.edgeList.contains(edge)) {
-				edge.tail.getEdgeList().remove(edge);
-				//edge.tail = null;
-				edge.head.getEdgeList().remove(edge);
-				//edge.head = null;
-				masterEdgeList.remove(edge);
+			if (edge.head == this || edge.tail == this) {
+				Graph.this.removeEdge(edge);
 			}
 			
 		}
@@ -444,6 +1518,18 @@ public class Graph<N, E> {
 		private Node head;
 		/** Contains reference to edge's tail (ending) node */
 		private Node tail;
+		/** Primitive weight of the edge, extracted from its data when the data is set */
+		private double weight;
+		/** Position of the edge in the master edge list, -1 once removed */
+		private int index = -1;
+		/** Position of the edge in its head's edge list */
+		private int headSlot = -1;
+		/** Position of the edge in its tail's edge list */
+		private int tailSlot = -1;
+		/** Position of the edge in its head's record in the read views, -1 if not recorded */
+		int headPosition = -1;
+		/** Position of the edge in its tail's record in the read views, the second listing for a self-loop */
+		int tailPosition = -1;
 		
 		/**
 		 * Constructor
@@ -455,6 +1541,7 @@ public class Graph<N, E> {
 			this.data = data;
 			this.head = head;
 			this.tail = tail;
+			refreshWeight();
 		}
 		
 		/**
@@ -487,7 +1574,7 @@ public class Graph<N, E> {
 		 * @return opposite Node opposite of the starting node, if any
 		 */
 		public Node oppositeTo(Node start) {
-			if (start.edgeList.size() != 0 && start.edgeList.contains(this)) {
+			if (start == this.head || start == this.tail) {
 				if (start == this.head) {
 					return this.tail;
 				} else {
@@ -497,12 +1584,44 @@ public class Graph<N, E> {
 			return null;
 		}
 		
+		/**
+		 * Get edge's position in the master edge list
+		 * The position only changes when a removal moves this edge into the freed slot
+		 * @return index The edge's index, or -1 if it has been removed
+		 */
+		public int getIndex() {
+			return this.index;
+		}
+		
+		/**
+		 * Get edge's primitive weight
+		 * @return weight The edge's weight
+		 */
+		public double getWeight() {
+			return this.weight;
+		}
+		
 		/** 
-		 * Set edge's data 
+		 * Set edge's data, and its weight through the graph's weight function, or DEFAULT_WEIGHT for null data
 		 * @param edge The edge's data
 		 */
 		public void setData(E data) {
-			this.data = data;
+			Graph.this.setEdgeData(this, data);
+		}
+		
+		/**
+		 * Set edge's primitive weight directly
+		 * @param weight The edge's weight
+		 */
+		public void setWeight(double weight) {
+			Graph.this.setEdgeWeight(this, weight);
+		}
+		
+		/**
+		 * Re-extracts the edge's weight from its data, or sets DEFAULT_WEIGHT if it has none
+		 */
+		void refreshWeight() {
+			this.weight = this.data == null ? DEFAULT_WEIGHT : weightFunction.applyAsDouble(this.data);
 		}
 		
 		/**
@@ -536,7 +1655,10 @@ public class Graph<N, E> {
 		 * @return new hashcode
 		 */
 		public int hashCode() {
-			return (this.getHead().hashCode()*this.getTail().hashCode());
+			// Order the endpoint hashes so reversed edges still match, then mix them
+			int h1 = this.getHead().hashCode();
+			int h2 = this.getTail().hashCode();
+			return 31*Math.min(h1, h2)+Math.max(h1, h2);
 		}
 		
 	}
@@ -548,6 +1670,12 @@ public class Graph<N, E> {
 		private Node direction;
 		/** Visited or unvisited node? */
 		private boolean visited = false;
+		/** Contains the edge to the homeward node */
+		private Edge edge;
+		/** The graph node this entry describes */
+		private Node node;
+		/** Index of the node when the search ran, used as its heap index */
+		private int id;
 		
 		/**
 		 * Constructor
@@ -556,11 +1684,32 @@ public class Graph<N, E> {
 		 * @param visited Boolean value for if the Dijkstra node has been visited
 		 */
 		DijkstraNode(double cost, Node direction, boolean visited) {
+			this(null, cost, direction, visited);
+		}
+		
+		/**
+		 * Constructor
+		 * @param node The graph node this entry describes
+		 * @param cost The cost of the Dijkstra node
+		 * @param direction The direction of the Dijkstra node
+		 * @param visited Boolean value for if the Dijkstra node has been visited
+		 */
+		DijkstraNode(Node node, double cost, Node direction, boolean visited) {
+			this.node = node;
+			this.id = node == null ? -1 : node.index;
 			this.cost = cost;
 			this.direction = direction;
 			this.visited = visited;
 		}
 		
+		/**
+		 * Accessor for the graph node this entry describes
+		 * @return node
+		 */
+		public Node getNode(){
+			return this.node;
+		}
+		
 		/**
 		 * Accessor for cost
 		 * @return cost The cost of the Dijkstra node
@@ -577,6 +1726,14 @@ public class Graph<N, E> {
 			return this.direction;
 		}
 		
+		/**
+		 * Accessor for the edge to the homeward node
+		 * @return edge The edge joining this node to its direction, null for the starting node
+		 */
+		public Edge getEdge(){
+			return this.edge;
+		}
+		
 		/**
 		 * Accessor for visited
 		 * @return visited
@@ -601,6 +1758,14 @@ public class Graph<N, E> {
 			this.direction = direction;
 		}
 		
+		/**
+		 * Sets the edge to the homeward node
+		 * @param edge The new homeward edge of the Dijkstra node
+		 */
+		public void setEdge(Edge edge){
+			this.edge = edge;
+		}
+		
 		/**
 		 * Sets visited boolean value
 		 * @param visited 
@@ -0,0 +1,232 @@
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Collects nodes and edges as primitive ids and weights, then builds a whole graph or CSR snapshot at once
+ * Edges are kept in flat arrays sized up front, and all adjacency is grouped by node in one counting-sort
+ * pass, so building allocates each list once at its final size instead of growing it edge by edge.
+ * Node ids are numbered from 0 in order of addition, and edge ids likewise
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class GraphBuilder<N, E> {
+	/** Number of nodes */
+	private int numNodes;
+	/** Number of edges */
+	private int numEdges;
+	/** Head node id of each edge */
+	private int[] heads;
+	/** Tail node id of each edge */
+	private int[] tails;
+	/** Weight of each edge */
+	private double[] weights;
+
+	/**
+	 * Constructor
+	 * @param numNodes The number of nodes to start with, with ids from 0 to numNodes-1
+	 */
+	GraphBuilder(int numNodes) {
+		this(numNodes, 16);
+	}
+
+	/**
+	 * Constructor
+	 * @param numNodes The number of nodes to start with, with ids from 0 to numNodes-1
+	 * @param expectedEdges The number of edges to make room for
+	 */
+	GraphBuilder(int numNodes, int expectedEdges) {
+		this.numNodes = numNodes;
+		this.heads = new int[Math.max(expectedEdges, 1)];
+		this.tails = new int[this.heads.length];
+		this.weights = new double[this.heads.length];
+	}
+
+	/**
+	 * Gets the number of nodes
+	 * @return num
+	 */
+	public int numNodes() {
+		return this.numNodes;
+	}
+
+	/**
+	 * Gets the number of edges
+	 * @return num
+	 */
+	public int numEdges() {
+		return this.numEdges;
+	}
+
+	/**
+	 * Adds a node
+	 * @return id The new node's id
+	 */
+	public int addNode() {
+		return this.numNodes++;
+	}
+
+	/**
+	 * Adds nodes
+	 * @param count The number of nodes to add
+	 * @return id The id of the first new node
+	 */
+	public int addNodes(int count) {
+		int first = this.numNodes;
+		this.numNodes += count;
+		return first;
+	}
+
+	/**
+	 * Adds an edge
+	 * @param head The head node id
+	 * @param tail The tail node id
+	 * @param weight The edge's weight
+	 * @return id The new edge's id
+	 */
+	public int addEdge(int head, int tail, double weight) {
+		checkNode(head);
+		checkNode(tail);
+		if (this.numEdges == this.heads.length) {
+			grow(this.numEdges+1);
+		}
+		this.heads[this.numEdges] = head;
+		this.tails[this.numEdges] = tail;
+		this.weights[this.numEdges] = weight;
+		return this.numEdges++;
+	}
+
+	/**
+	 * Adds a batch of edges from parallel arrays
+	 * @param heads The head node id of each edge
+	 * @param tails The tail node id of each edge
+	 * @param weights The weight of each edge
+	 * @param count The number of edges to take from the start of the arrays
+	 * @return id The id of the first new edge
+	 */
+	public int addEdges(int[] heads, int[] tails, double[] weights, int count) {
+		for (int i = 0; i < count; i++) {
+			checkNode(heads[i]);
+			checkNode(tails[i]);
+		}
+		if (this.numEdges+count > this.heads.length) {
+			grow(this.numEdges+count);
+		}
+		System.arraycopy(heads, 0, this.heads, this.numEdges, count);
+		System.arraycopy(tails, 0, this.tails, this.numEdges, count);
+		System.arraycopy(weights, 0, this.weights, this.numEdges, count);
+		int first = this.numEdges;
+		this.numEdges += count;
+		return first;
+	}
+
+	/**
+	 * Builds a graph of weighted edges without data
+	 * Its node and edge indexes are the builder's ids, and its snapshot matches buildSnapshot
+	 * @return graph
+	 */
+	public Graph<N, E> build() {
+		return build(null);
+	}
+
+	/**
+	 * Builds a graph of weighted edges without data
+	 * Its node and edge indexes are the builder's ids, and its snapshot matches buildSnapshot
+	 * @param nodeData Gives the data of each node id, or null for no data
+	 * @return graph
+	 */
+	public Graph<N, E> build(IntFunction<? extends N> nodeData) {
+		return build(nodeData, Graph.NUMBER_WEIGHT);
+	}
+
+	/**
+	 * Builds a graph of weighted edges without data
+	 * Its node and edge indexes are the builder's ids, and its snapshot matches buildSnapshot
+	 * @param nodeData Gives the data of each node id, or null for no data
+	 * @param weightFunction The graph's weight function, used once edge data is set later
+	 * @return graph
+	 */
+	public Graph<N, E> build(IntFunction<? extends N> nodeData, ToDoubleFunction<? super E> weightFunction) {
+		int[] offsets = offsets();
+		int[] edgeIds = new int[offsets[this.numNodes]];
+		sortEntries(offsets, null, edgeIds);
+		Graph<N, E> graph = new Graph<N, E>(weightFunction);
+		graph.load(nodeData, null, this.heads, this.tails, this.weights, this.numEdges, offsets, edgeIds);
+		return graph;
+	}
+
+	/**
+	 * Builds a CSR snapshot straight from the edges, without creating any Node or Edge objects
+	 * @return snapshot The snapshot, whose getNode and getEdge are unavailable
+	 */
+	public GraphSnapshot<N, E> buildSnapshot() {
+		int[] offsets = offsets();
+		int numEntries = offsets[this.numNodes];
+		int[] targets = new int[numEntries];
+		int[] edgeIds = new int[numEntries];
+		sortEntries(offsets, targets, edgeIds);
+		double[] entryWeights = new double[numEntries];
+		for (int i = 0; i < numEntries; i++) {
+			entryWeights[i] = this.weights[edgeIds[i]];
+		}
+		return new GraphSnapshot<N, E>(offsets, targets, edgeIds, entryWeights, this.numEdges);
+	}
+
+	/**
+	 * Counts the entries of each node, one at each end of every edge and so two for a self-loop
+	 * @return offsets The start of each node's entries, with one extra entry marking the end
+	 */
+	private int[] offsets() {
+		int[] offsets = new int[this.numNodes+1];
+		for (int e = 0; e < this.numEdges; e++) {
+			offsets[this.heads[e]+1]++;
+			offsets[this.tails[e]+1]++;
+		}
+		for (int i = 0; i < this.numNodes; i++) {
+			offsets[i+1] += offsets[i];
+		}
+		return offsets;
+	}
+
+	/**
+	 * Places every edge at both of its ends in order of edge id, completing the counting sort
+	 * @param offsets The start of each node's entries
+	 * @param targets Filled with the neighbor id of every entry, may be null
+	 * @param edgeIds Filled with the edge id of every entry
+	 */
+	private void sortEntries(int[] offsets, int[] targets, int[] edgeIds) {
+		int[] next = Arrays.copyOf(offsets, this.numNodes);
+		for (int e = 0; e < this.numEdges; e++) {
+			int head = this.heads[e];
+			int tail = this.tails[e];
+			if (targets != null) {
+				targets[next[head]] = tail;
+			}
+			edgeIds[next[head]++] = e;
+			if (targets != null) {
+				targets[next[tail]] = head;
+			}
+			edgeIds[next[tail]++] = e;
+		}
+	}
+
+	/**
+	 * Grows the edge arrays to hold at least a number of edges
+	 */
+	private void grow(int capacity) {
+		int length = Math.max(capacity, this.heads.length*2);
+		this.heads = Arrays.copyOf(this.heads, length);
+		this.tails = Arrays.copyOf(this.tails, length);
+		this.weights = Arrays.copyOf(this.weights, length);
+	}
+
+	/**
+	 * Checks that a node id has been added
+	 */
+	private void checkNode(int id) {
+		if (id < 0 || id >= this.numNodes) {
+			throw new IllegalArgumentException("No node with id "+id+", there are "+this.numNodes);
+		}
+	}
+}
@@ -3,6 +3,7 @@ import java.awt.*;
 import java.awt.event.*;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import java.util.function.ToDoubleBiFunction;
         
 	/**
 	 *  Implements a GUI for inputting nodes and edges on a graph.
@@ -17,6 +18,15 @@ public class GraphGUI {
     /** The graph to be displayed */
     private GraphView graphView;
 
+    /** Shortest-path trees of recently used start nodes, dropped automatically whenever the graph is edited */
+    private ShortestPathCache<DisplayNodeData, DisplayEdgeData> pathCache;
+
+    /** A* heuristic for the graph as it was at heuristicVersion, or null if none holds */
+    private ToDoubleBiFunction<DisplayNodeData, DisplayNodeData> heuristic;
+
+    /** The graph's modification count when the heuristic was made, or -1 once a node has moved since */
+    private long heuristicVersion = -1;
+
     /** Label for the input mode instructions */
     private JLabel instruction;
 
@@ -35,6 +45,9 @@ public class GraphGUI {
     /** Remembers color of last node on mousedown event */
     Color savedColor;
 
+    /** Color used to highlight the nodes and edges of a shortest path */
+    static final Color PATH_COLOR = new Color(0, 193, 118);
+
     /**
      *  Schedules a job for the event-dispatching thread
      *  creating and showing this application's GUI.
@@ -66,8 +79,9 @@ public class GraphGUI {
         instrPanel.setBackground(Color.white);
         instrPanel.setLayout(new BorderLayout());
         instrPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
-        graphCanvas = new Graph<DisplayNodeData, DisplayEdgeData>();
+        graphCanvas = new Graph<DisplayNodeData, DisplayEdgeData>(DisplayEdgeData::getCost);
         graphView = new GraphView(graphCanvas);
+        pathCache = new ShortestPathCache<DisplayNodeData, DisplayEdgeData>(graphCanvas, 16);
         PointMouseListener pointM1 = new PointMouseListener();
         graphView.addMouseListener(pointM1);
         graphView.addMouseMotionListener(pointM1);
@@ -107,7 +121,7 @@ public class GraphGUI {
         listOfButtons.add(DFTButton);
 
         JButton DistanceButton = new JButton("D I S T A N C E");
-        DistanceButton.addActionListener(new ButtonListener(InputMode.DISTANCE, "Select two nodes to find the shortest cost distance between them."));
+        DistanceButton.addActionListener(new ButtonListener(InputMode.DISTANCE, "Select two nodes to find and highlight the shortest cost path between them."));
         listOfButtons.add(DistanceButton);
 
         JButton ResetButton = new JButton("R E S E T");
@@ -164,6 +178,11 @@ public class GraphGUI {
     			node.getData().setColor(Color.RED);
     			graphView.repaint();
     		}
+    		// Reverts any highlighted path edges to black
+    		for (Graph<DisplayNodeData, DisplayEdgeData>.Edge edge : graphCanvas.getEdgesList()) {
+    			edge.getData().setColor(Color.BLACK);
+    		}
+    		graphView.repaint();
     	}
     }
     
@@ -300,7 +319,7 @@ public class GraphGUI {
             	break;
             case DFT:
             	if (clickedNode != null) {
-            		// Empty hashsets are required for the recursive DFT method
+            		// DFT skips nodes already in visited, so both sets start empty and it fills them as it goes
             		HashSet<Graph<DisplayNodeData, DisplayEdgeData>.Node> visited = new HashSet<Graph<DisplayNodeData, DisplayEdgeData>.Node>();
             		HashSet<Graph<DisplayNodeData, DisplayEdgeData>.Edge> listEdges = new HashSet<Graph<DisplayNodeData, DisplayEdgeData>.Edge>();
             		graphView.DFT(clickedNode, visited, listEdges);
@@ -313,8 +332,29 @@ public class GraphGUI {
             		// Activates shortest distance method once second node is clicked
             		if (counter == 1) {
             			nodeUnderMouse2 = clickedNode;
+            			// Heads towards the second node with A* whenever every edge costs at least some amount per unit length
+            			// The heuristic scans every edge, so it is only remade after an edit or a move
+            			if (heuristicVersion != graphCanvas.getModCount()) {
+            				heuristic = DisplayNodeData.euclideanHeuristic(graphCanvas);
+            				heuristicVersion = graphCanvas.getModCount();
+            			}
+            			GraphPath<DisplayNodeData, DisplayEdgeData> path = heuristic != null
+            					? pathCache.shortestPath(nodeUnderMouse, nodeUnderMouse2, heuristic)
+            					: pathCache.shortestPath(nodeUnderMouse, nodeUnderMouse2);
+            			double distance = Double.POSITIVE_INFINITY;
+            			if (path != null) {
+            				// Highlights the nodes and edges along the shortest path
+            				distance = path.getCost();
+            				for (Graph<DisplayNodeData, DisplayEdgeData>.Node node : path.getNodes()) {
+            					node.getData().setColor(PATH_COLOR);
+            				}
+            				for (Graph<DisplayNodeData, DisplayEdgeData>.Edge edge : path.getEdges()) {
+            					edge.getData().setColor(PATH_COLOR);
+            				}
+            				graphView.repaint();
+            			}
             			JOptionPane.showMessageDialog(null, "The shortest distance between "+nodeUnderMouse.getData().getLabel()+"and "+
-                    	nodeUnderMouse2.getData().getLabel()+" is "+Graph.distances(graphCanvas, nodeUnderMouse, nodeUnderMouse2), "Shortest Distance", JOptionPane.INFORMATION_MESSAGE);
+                    	nodeUnderMouse2.getData().getLabel()+" is "+distance, "Shortest Distance", JOptionPane.INFORMATION_MESSAGE);
             			counter = 0;
             		} else { // First time clicking a node 
 	            		counter++;
@@ -398,12 +438,12 @@ public class GraphGUI {
         		// If a node has neighbors, the edges connecting to its neighbors will also move along with it
         		if (nodeUnderMouse != null) {
         			nodeUnderMouse.getData().setPoint(e.getPoint());
-        			if (nodeUnderMouse.getNeighbors() != null) {
-        				for (Graph<DisplayNodeData, DisplayEdgeData>.Node neighbor : nodeUnderMouse.getNeighbors()) {
-        					Graph<DisplayNodeData, DisplayEdgeData>.Edge edgeRef = graphCanvas.getEdgeRef(nodeUnderMouse, neighbor);
-        					edgeRef.getData().setP1(e.getPoint());
-        					edgeRef.getData().setP2(neighbor.getData().getPoint());
-        				}
+        			// Costs do not depend on points, so cached paths stay right but the heuristic may not
+        			heuristicVersion = -1;
+        			for (int i = 0; i < nodeUnderMouse.degree(); i++) {
+        				Graph<DisplayNodeData, DisplayEdgeData>.Edge edgeRef = nodeUnderMouse.edgeAt(i);
+        				edgeRef.getData().setP1(e.getPoint());
+        				edgeRef.getData().setP2(edgeRef.oppositeTo(nodeUnderMouse).getData().getPoint());
         			}
             	}
         		break;
@@ -0,0 +1,53 @@
+/**
+ * Callbacks for changes to a Graph, registered with Graph.addListener
+ * Every callback runs after the change is complete, and the default callbacks do nothing.
+ * Removals move the last node or edge into the freed index, so listeners that keep
+ * arrays by index are told which index was freed.
+ * On a ConcurrentGraph the callbacks run from the changing thread, which holds the locks of the
+ * changed edge's endpoints only, so they must not read other nodes' edge lists
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public interface GraphListener<N, E> {
+
+	/**
+	 * Called after a node is added, at the end of the node list
+	 * @param node The new node
+	 */
+	default void nodeAdded(Graph<N, E>.Node node) {
+	}
+
+	/**
+	 * Called after a node with no edges left is removed
+	 * The node that was last in the node list, if it was not the removed node, now has the freed index
+	 * @param node The removed node
+	 * @param index The index the node had
+	 */
+	default void nodeRemoved(Graph<N, E>.Node node, int index) {
+	}
+
+	/**
+	 * Called after an edge is added, with its weight already set
+	 * @param edge The new edge
+	 */
+	default void edgeAdded(Graph<N, E>.Edge edge) {
+	}
+
+	/**
+	 * Called after an edge is removed; its head and tail are still set
+	 * The edge that was last in the edge list, if it was not the removed edge, now has the freed index
+	 * @param edge The removed edge
+	 * @param index The index the edge had
+	 */
+	default void edgeRemoved(Graph<N, E>.Edge edge, int index) {
+	}
+
+	/**
+	 * Called after an edge's weight changes, through new data, a new weight or refreshWeights
+	 * @param edge The edge
+	 * @param oldWeight The weight before the change
+	 */
+	default void weightChanged(Graph<N, E>.Edge edge, double oldWeight) {
+	}
+}
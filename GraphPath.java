@@ -0,0 +1,83 @@
+import java.util.*;
+
+/**
+ * A path through a graph, stored as its nodes in order and the edges between them
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class GraphPath<N, E> {
+	/** Nodes along the path, from the first node to the last */
+	private ArrayList<Graph<N, E>.Node> nodes;
+	/** Edges along the path, edge i joins node i and node i+1 */
+	private ArrayList<Graph<N, E>.Edge> edges;
+	/** Total cost of the edges along the path */
+	private double cost;
+
+	/**
+	 * Constructor
+	 * @param nodes The nodes along the path
+	 * @param edges The edges joining consecutive nodes
+	 * @param cost The total cost of the path
+	 */
+	GraphPath(ArrayList<Graph<N, E>.Node> nodes, ArrayList<Graph<N, E>.Edge> edges, double cost) {
+		this.nodes = nodes;
+		this.edges = edges;
+		this.cost = cost;
+	}
+
+	/**
+	 * Accessor for the nodes along the path
+	 * @return nodes
+	 */
+	public ArrayList<Graph<N, E>.Node> getNodes() {
+		return this.nodes;
+	}
+
+	/**
+	 * Accessor for the edges along the path
+	 * @return edges
+	 */
+	public ArrayList<Graph<N, E>.Edge> getEdges() {
+		return this.edges;
+	}
+
+	/**
+	 * Accessor for the total cost of the path
+	 * @return cost
+	 */
+	public double getCost() {
+		return this.cost;
+	}
+
+	/**
+	 * Gets the first node of the path
+	 * @return node
+	 */
+	public Graph<N, E>.Node getStart() {
+		return this.nodes.get(0);
+	}
+
+	/**
+	 * Gets the last node of the path
+	 * @return node
+	 */
+	public Graph<N, E>.Node getEnd() {
+		return this.nodes.get(this.nodes.size()-1);
+	}
+
+	/**
+	 * Returns the path as a list of node data separated by arrows
+	 * @return path
+	 */
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < this.nodes.size(); i++) {
+			if (i > 0) {
+				builder.append(" -> ");
+			}
+			builder.append(this.nodes.get(i).getData());
+		}
+		return builder.append(" (").append(this.cost).append(")").toString();
+	}
+}
@@ -0,0 +1,462 @@
+import java.util.*;
+
+/**
+ * An immutable compressed sparse row (CSR) copy of a graph
+ * Node and edge ids are their indexes in the graph's master lists, and the neighbors of node i are
+ * targets[offsets[i]] up to targets[offsets[i+1]-1], in the same order as the node's edge list.
+ * Each entry also records the weight and the id of the edge it came from,
+ * so results can be mapped back to Graph nodes and edges
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class GraphSnapshot<N, E> {
+	/** The graph the snapshot was taken from, null if it was built without one */
+	private Graph<N, E> graph;
+	/** Nodes of the graph, indexed by dense id, null without a graph */
+	private ArrayList<Graph<N, E>.Node> nodes;
+	/** Edges of the graph, indexed by edge id, null without a graph */
+	private ArrayList<Graph<N, E>.Edge> edges;
+	/** Number of edges */
+	private int numEdges;
+	/** Dense id of every node, built only if a node has moved, and volatile so no sharing thread sees it half built */
+	private volatile HashMap<Graph<N, E>.Node, Integer> ids;
+	/** Start of each node's neighbors in targets, with one extra entry marking the end */
+	private int[] offsets;
+	/** Neighbor id of every adjacency entry */
+	private int[] targets;
+	/** Edge id of every adjacency entry */
+	private int[] edgeIds;
+	/** Weight of every adjacency entry */
+	private double[] weights;
+
+	/** Default bottom-up switching threshold for bfsTree */
+	static final int BFS_ALPHA = 14;
+	/** Default top-down switching threshold for bfsTree */
+	static final int BFS_BETA = 24;
+
+	/**
+	 * Constructor
+	 * Copies the topology and primitive edge weights of a graph
+	 * @param graph The graph to copy
+	 */
+	GraphSnapshot(Graph<N, E> graph) {
+		int numNodes = graph.numNodes();
+		this.graph = graph;
+		this.nodes = new ArrayList<Graph<N, E>.Node>(graph.getNodesList());
+		this.edges = new ArrayList<Graph<N, E>.Edge>(graph.getEdgesList());
+		this.numEdges = this.edges.size();
+		this.offsets = new int[numNodes+1];
+		for (int i = 0; i < numNodes; i++) {
+			this.offsets[i+1] = this.offsets[i]+this.nodes.get(i).getEdgeList().size();
+		}
+		int numEntries = this.offsets[numNodes];
+		this.targets = new int[numEntries];
+		this.edgeIds = new int[numEntries];
+		this.weights = new double[numEntries];
+		int entry = 0;
+		for (Graph<N, E>.Node node : this.nodes) {
+			for (Graph<N, E>.Edge edge : node.getEdgeList()) {
+				Graph<N, E>.Node neighbor = edge.getHead() == node ? edge.getTail() : edge.getHead();
+				this.targets[entry] = neighbor.getIndex();
+				this.edgeIds[entry] = edge.getIndex();
+				this.weights[entry] = edge.getWeight();
+				entry++;
+			}
+		}
+	}
+
+	/**
+	 * Constructor
+	 * Wraps CSR arrays built without a graph, so the snapshot has no Node or Edge objects
+	 * @param offsets The start of each node's entries, with one extra entry marking the end
+	 * @param targets The neighbor id of every entry
+	 * @param edgeIds The edge id of every entry
+	 * @param weights The weight of every entry
+	 * @param numEdges The number of edges
+	 */
+	GraphSnapshot(int[] offsets, int[] targets, int[] edgeIds, double[] weights, int numEdges) {
+		this.offsets = offsets;
+		this.targets = targets;
+		this.edgeIds = edgeIds;
+		this.weights = weights;
+		this.numEdges = numEdges;
+	}
+
+	/**
+	 * Accessor for the graph the snapshot was taken from
+	 * @return graph The graph, or null if the snapshot was built without one
+	 */
+	public Graph<N, E> getGraph() {
+		return this.graph;
+	}
+
+	/**
+	 * Gets the number of nodes
+	 * @return num
+	 */
+	public int numNodes() {
+		return this.offsets.length-1;
+	}
+
+	/**
+	 * Gets the number of edges
+	 * @return num
+	 */
+	public int numEdges() {
+		return this.numEdges;
+	}
+
+	/**
+	 * Gets the dense id of a node
+	 * @param node The node
+	 * @return id The node's id, or -1 if it was not in the graph when the snapshot was taken
+	 */
+	public int idOf(Graph<N, E>.Node node) {
+		if (this.nodes == null) {
+			return -1;
+		}
+		int index = node.getIndex();
+		if (index >= 0 && index < this.nodes.size() && this.nodes.get(index) == node) {
+			return index;
+		}
+		// The node was removed or moved by a removal after the snapshot was taken
+		HashMap<Graph<N, E>.Node, Integer> ids = this.ids;
+		if (ids == null) {
+			// Threads racing here each build an identical map, and whichever is published last is kept
+			ids = new HashMap<Graph<N, E>.Node, Integer>(this.nodes.size()*2);
+			for (int i = 0; i < this.nodes.size(); i++) {
+				ids.put(this.nodes.get(i), i);
+			}
+			this.ids = ids;
+		}
+		Integer id = ids.get(node);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Gets the node with a dense id
+	 * @param id The dense id
+	 * @return node
+	 */
+	public Graph<N, E>.Node getNode(int id) {
+		if (this.nodes == null) {
+			throw new IllegalStateException("Snapshot was built without a graph");
+		}
+		return this.nodes.get(id);
+	}
+
+	/**
+	 * Gets the edge with an edge id
+	 * @param edgeId The edge id
+	 * @return edge
+	 */
+	public Graph<N, E>.Edge getEdge(int edgeId) {
+		if (this.edges == null) {
+			throw new IllegalStateException("Snapshot was built without a graph");
+		}
+		return this.edges.get(edgeId);
+	}
+
+	/**
+	 * Gets the number of adjacency entries of a node
+	 * @param id The node's dense id
+	 * @return degree
+	 */
+	public int degree(int id) {
+		return this.offsets[id+1]-this.offsets[id];
+	}
+
+	/**
+	 * Accessor for the offsets array, which must not be modified
+	 * @return offsets
+	 */
+	public int[] getOffsets() {
+		return this.offsets;
+	}
+
+	/**
+	 * Accessor for the targets array, which must not be modified
+	 * @return targets
+	 */
+	public int[] getTargets() {
+		return this.targets;
+	}
+
+	/**
+	 * Accessor for the edge id array, which must not be modified
+	 * @return edgeIds
+	 */
+	public int[] getEdgeIds() {
+		return this.edgeIds;
+	}
+
+	/**
+	 * Accessor for the weights array, which must not be modified
+	 * @return weights
+	 */
+	public double[] getWeights() {
+		return this.weights;
+	}
+
+	/**
+	 * Performs breadth-first traversal from a node
+	 * @param source The starting node's id
+	 * @return levels The number of edges from the source to each node, -1 if unreachable
+	 */
+	public int[] bfs(int source) {
+		int[] levels = new int[numNodes()];
+		Arrays.fill(levels, -1);
+		int[] queue = new int[numNodes()];
+		int head = 0;
+		int tail = 0;
+		levels[source] = 0;
+		queue[tail++] = source;
+		while (head < tail) {
+			int current = queue[head++];
+			int nextLevel = levels[current]+1;
+			for (int i = this.offsets[current]; i < this.offsets[current+1]; i++) {
+				int neighbor = this.targets[i];
+				if (levels[neighbor] < 0) {
+					levels[neighbor] = nextLevel;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+		return levels;
+	}
+
+	/**
+	 * Labels every node with its connected component by breadth-first traversal from each unlabelled node in turn
+	 * @return labels The component of every node, numbered in order of each component's smallest id
+	 */
+	public ComponentLabels<N, E> components() {
+		int numNodes = numNodes();
+		int[] labels = new int[numNodes];
+		Arrays.fill(labels, -1);
+		int[] queue = new int[numNodes];
+		int[] sizes = new int[16];
+		int components = 0;
+		for (int start = 0; start < numNodes; start++) {
+			if (labels[start] >= 0) {
+				continue;
+			}
+			int head = 0;
+			int tail = 0;
+			labels[start] = components;
+			queue[tail++] = start;
+			while (head < tail) {
+				int current = queue[head++];
+				for (int i = this.offsets[current]; i < this.offsets[current+1]; i++) {
+					int neighbor = this.targets[i];
+					if (labels[neighbor] < 0) {
+						labels[neighbor] = components;
+						queue[tail++] = neighbor;
+					}
+				}
+			}
+			if (components == sizes.length) {
+				sizes = Arrays.copyOf(sizes, components*2);
+			}
+			sizes[components++] = tail;
+		}
+		return new ComponentLabels<N, E>(this, labels, Arrays.copyOf(sizes, components));
+	}
+
+	/**
+	 * Performs a direction-optimizing breadth-first search from a node with the default switching thresholds
+	 * @param source The starting node's id
+	 * @return tree The levels, parents and parent edges of every node
+	 */
+	public BFSTree<N, E> bfsTree(int source) {
+		return bfsTree(source, BFS_ALPHA, BFS_BETA);
+	}
+
+	/**
+	 * Performs a direction-optimizing breadth-first search from a node
+	 * Levels are expanded top-down from the frontier while it is small, and bottom-up
+	 * (every unvisited node looking for a parent in the frontier) once the frontier's edges
+	 * outnumber the unexplored edges divided by alpha. The search goes back to top-down
+	 * once the frontier holds fewer than numNodes/beta nodes.
+	 * @param source The starting node's id
+	 * @param alpha Switch to bottom-up when frontier edges exceed unexplored edges divided by alpha
+	 * @param beta Switch back to top-down when the frontier has fewer than numNodes/beta nodes
+	 * @return tree The levels, parents and parent edges of every node
+	 */
+	public BFSTree<N, E> bfsTree(int source, int alpha, int beta) {
+		int numNodes = numNodes();
+		int[] levels = new int[numNodes];
+		int[] parents = new int[numNodes];
+		int[] parentEdges = new int[numNodes];
+		Arrays.fill(levels, -1);
+		Arrays.fill(parents, -1);
+		Arrays.fill(parentEdges, -1);
+		BitSet visited = new BitSet(numNodes);
+		BitSet frontierBits = new BitSet(numNodes);
+		int[] frontier = new int[numNodes];
+		int[] next = new int[numNodes];
+		levels[source] = 0;
+		parents[source] = source;
+		visited.set(source);
+		frontier[0] = source;
+		int frontierSize = 1;
+		long frontierEdges = degree(source);
+		long unexploredEdges = this.targets.length-frontierEdges;
+		int reached = 1;
+		int level = 0;
+		int topDownSteps = 0;
+		int bottomUpSteps = 0;
+		boolean bottomUp = false;
+		while (frontierSize > 0) {
+			if (!bottomUp && frontierEdges > unexploredEdges/alpha) {
+				bottomUp = true;
+			} else if (bottomUp && frontierSize < numNodes/beta) {
+				bottomUp = false;
+			}
+			level++;
+			int nextSize = 0;
+			long nextEdges = 0;
+			if (bottomUp) {
+				bottomUpSteps++;
+				frontierBits.clear();
+				for (int i = 0; i < frontierSize; i++) {
+					frontierBits.set(frontier[i]);
+				}
+				for (int node = visited.nextClearBit(0); node < numNodes; node = visited.nextClearBit(node+1)) {
+					for (int i = this.offsets[node]; i < this.offsets[node+1]; i++) {
+						if (frontierBits.get(this.targets[i])) {
+							levels[node] = level;
+							parents[node] = this.targets[i];
+							parentEdges[node] = this.edgeIds[i];
+							next[nextSize++] = node;
+							nextEdges += degree(node);
+							break;
+						}
+					}
+				}
+				for (int i = 0; i < nextSize; i++) {
+					visited.set(next[i]);
+				}
+			} else {
+				topDownSteps++;
+				for (int f = 0; f < frontierSize; f++) {
+					int node = frontier[f];
+					for (int i = this.offsets[node]; i < this.offsets[node+1]; i++) {
+						int neighbor = this.targets[i];
+						if (!visited.get(neighbor)) {
+							visited.set(neighbor);
+							levels[neighbor] = level;
+							parents[neighbor] = node;
+							parentEdges[neighbor] = this.edgeIds[i];
+							next[nextSize++] = neighbor;
+							nextEdges += degree(neighbor);
+						}
+					}
+				}
+			}
+			reached += nextSize;
+			unexploredEdges -= nextEdges;
+			frontierEdges = nextEdges;
+			int[] swap = frontier;
+			frontier = next;
+			next = swap;
+			frontierSize = nextSize;
+		}
+		return new BFSTree<N, E>(this, source, levels, parents, parentEdges, reached, topDownSteps, bottomUpSteps);
+	}
+
+	/**
+	 * Performs depth-first traversal from a node using an explicit stack
+	 * Visits neighbors in the same order as Graph.DFT, which also uses an explicit stack
+	 * @param source The starting node's id
+	 * @return order The ids of every reachable node in the order they were discovered
+	 */
+	public int[] dfs(int source) {
+		int numNodes = numNodes();
+		int[] order = new int[numNodes];
+		int count = 0;
+		boolean[] visited = new boolean[numNodes];
+		int[] cursor = new int[numNodes];
+		int[] stack = new int[numNodes];
+		int top = 0;
+		visited[source] = true;
+		order[count++] = source;
+		cursor[source] = this.offsets[source];
+		stack[top++] = source;
+		while (top > 0) {
+			int current = stack[top-1];
+			if (cursor[current] < this.offsets[current+1]) {
+				int neighbor = this.targets[cursor[current]++];
+				if (!visited[neighbor]) {
+					visited[neighbor] = true;
+					order[count++] = neighbor;
+					cursor[neighbor] = this.offsets[neighbor];
+					stack[top++] = neighbor;
+				}
+			} else {
+				top--;
+			}
+		}
+		return Arrays.copyOf(order, count);
+	}
+
+	/**
+	 * Performs Dijkstra's shortest-path algorithm from a node to every reachable node
+	 * @param source The starting node's id
+	 * @return distances The shortest distance to each node, positive infinity if unreachable
+	 */
+	public double[] dijkstra(int source) {
+		return dijkstra(source, -1, null, null);
+	}
+
+	/**
+	 * Performs Dijkstra's shortest-path algorithm from a node
+	 * @param source The starting node's id
+	 * @param target The id to stop at once settled, or -1 to settle every reachable node
+	 * @param parentEntries Filled with the adjacency entry each node was reached through, -1 for none; may be null
+	 * @param stats Counters to add the search's work to, may be null
+	 * @return distances The shortest distance to each settled node, positive infinity if unreachable
+	 */
+	public double[] dijkstra(int source, int target, int[] parentEntries, SearchStats stats) {
+		int numNodes = numNodes();
+		double[] distances = new double[numNodes];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		boolean[] settled = new boolean[numNodes];
+		if (parentEntries != null) {
+			Arrays.fill(parentEntries, -1);
+		}
+		IndexedMinHeap heap = new IndexedMinHeap(numNodes);
+		distances[source] = 0;
+		heap.offer(source, 0);
+		long settledCount = 0;
+		long relaxations = 0;
+		while (!heap.isEmpty()) {
+			int current = heap.poll();
+			settled[current] = true;
+			settledCount++;
+			if (current == target) {
+				break;
+			}
+			double currentCost = distances[current];
+			for (int i = this.offsets[current]; i < this.offsets[current+1]; i++) {
+				int neighbor = this.targets[i];
+				if (!settled[neighbor]) {
+					relaxations++;
+					double combinedCost = currentCost+this.weights[i];
+					if (combinedCost < distances[neighbor]) {
+						distances[neighbor] = combinedCost;
+						if (parentEntries != null) {
+							parentEntries[neighbor] = i;
+						}
+						heap.offer(neighbor, combinedCost);
+					}
+				}
+			}
+		}
+		if (stats != null) {
+			stats.addSettled(settledCount);
+			stats.addRelaxations(relaxations);
+		}
+		return distances;
+	}
+}
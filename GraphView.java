@@ -87,21 +87,11 @@ public class GraphView extends JComponent {
 	 */
 	public HashSet<Graph<DisplayNodeData, DisplayEdgeData>.Edge> DFT(Graph<DisplayNodeData, DisplayEdgeData>.Node node, 
 			HashSet<Graph<DisplayNodeData, DisplayEdgeData>.Node> visited, HashSet<Graph<DisplayNodeData, DisplayEdgeData>.Edge> traversedEdges) {
-		if (visited.contains(node)) {
-			return traversedEdges;
-		} else {
-			visited.add(node);
-			node.getData().setColor(Color.BLACK);
-			if (node.getNeighbors() != null) {
-				for (Graph<DisplayNodeData, DisplayEdgeData>.Node neighbor : node.getNeighbors()) {
-					if (!traversedEdges.contains(node.edgeTo(neighbor))) {
-						traversedEdges.add(node.edgeTo(neighbor));
-						traversedEdges = DFT(neighbor, visited, traversedEdges);
-					}
-				}
-			}			
-			return traversedEdges;
+		traversedEdges = graphCanvas.DFT(node, visited, traversedEdges, false);
+		for (Graph<DisplayNodeData, DisplayEdgeData>.Node reached : visited) {
+			reached.getData().setColor(Color.BLACK);
 		}
+		return traversedEdges;
 	}
 	
 	/**
@@ -110,23 +100,11 @@ public class GraphView extends JComponent {
 	 * @return traversedEdges hashset of edges traversed 
 	 */
 	public HashSet<Graph<DisplayNodeData, DisplayEdgeData>.Edge> BFT(Graph<DisplayNodeData, DisplayEdgeData>.Node start) {
-		HashSet<Graph<DisplayNodeData, DisplayEdgeData>.Edge> traversedEdges = new HashSet<Graph<DisplayNodeData, DisplayEdgeData>.Edge>();
-		HashSet<Graph<DisplayNodeData, DisplayEdgeData>.Node> visited = new HashSet<Graph<DisplayNodeData, DisplayEdgeData>.Node>();
-		Queue<Graph<DisplayNodeData, DisplayEdgeData>.Node> queueNodes = new LinkedList<Graph<DisplayNodeData, DisplayEdgeData>.Node>();
-		queueNodes.add(start);
-		while (!queueNodes.isEmpty()) {
-			Graph<DisplayNodeData, DisplayEdgeData>.Node currentNode = queueNodes.remove();
-			visited.add(currentNode); // Marking as visited
-			currentNode.getData().setColor(Color.BLACK);
-			if (currentNode.getNeighbors() != null) {
-				for (Graph<DisplayNodeData, DisplayEdgeData>.Node neighbor : currentNode.getNeighbors()) {
-					if (!visited.contains(neighbor)) {
-						queueNodes.add(neighbor);
-						traversedEdges.add(currentNode.edgeTo(neighbor));
-					}
-				}
-			}
-			
+		HashSet<Graph<DisplayNodeData, DisplayEdgeData>.Edge> traversedEdges = graphCanvas.BFT(start, false);
+		start.getData().setColor(Color.BLACK);
+		for (Graph<DisplayNodeData, DisplayEdgeData>.Edge edge : traversedEdges) {
+			edge.getHead().getData().setColor(Color.BLACK);
+			edge.getTail().getData().setColor(Color.BLACK);
 		}
 		return traversedEdges;
 	}
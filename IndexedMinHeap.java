@@ -0,0 +1,189 @@
+import java.util.*;
+
+/**
+ * An indexed binary min-heap of integer ids keyed by double priorities
+ * Ids must lie in [0, capacity) and each id is in the heap at most once,
+ * which allows decrease-key in O(log n)
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class IndexedMinHeap {
+	/** Heap-ordered array of ids */
+	private int[] heap;
+	/** Position of each id in the heap, -1 if absent */
+	private int[] position;
+	/** Priority of each id */
+	private double[] keys;
+	/** Number of ids currently in the heap */
+	private int size;
+
+	/**
+	 * Constructor
+	 * @param capacity One more than the largest id that will be inserted
+	 */
+	IndexedMinHeap(int capacity) {
+		this.heap = new int[capacity];
+		this.position = new int[capacity];
+		this.keys = new double[capacity];
+		Arrays.fill(this.position, -1);
+	}
+
+	/**
+	 * Gets the number of ids in the heap
+	 * @return size
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns true if the heap holds no ids
+	 * @return true if empty
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Returns true if the id is currently in the heap
+	 * @param id The id in question
+	 * @return true if the id is queued
+	 */
+	public boolean contains(int id) {
+		return this.position[id] >= 0;
+	}
+
+	/**
+	 * Gets the priority an id was last queued with
+	 * @param id The id
+	 * @return key The id's priority
+	 */
+	public double keyOf(int id) {
+		return this.keys[id];
+	}
+
+	/**
+	 * Gets the smallest priority in the heap without removing it
+	 * @return key The smallest priority, or positive infinity if empty
+	 */
+	public double peekKey() {
+		return this.size == 0 ? Double.POSITIVE_INFINITY : this.keys[this.heap[0]];
+	}
+
+	/**
+	 * Inserts an id, or lowers its priority if it is already queued with a larger one
+	 * @param id The id to queue
+	 * @param key The priority of the id
+	 * @return true if the id was inserted or its priority was lowered
+	 */
+	public boolean offer(int id, double key) {
+		int pos = this.position[id];
+		if (pos < 0) {
+			this.keys[id] = key;
+			this.heap[this.size] = id;
+			this.position[id] = this.size;
+			siftUp(this.size++);
+			return true;
+		}
+		if (key < this.keys[id]) {
+			this.keys[id] = key;
+			siftUp(pos);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Changes the priority of a queued id in either direction, or inserts it if not queued
+	 * @param id The id to queue
+	 * @param key The new priority of the id
+	 */
+	public void update(int id, double key) {
+		int pos = this.position[id];
+		if (pos < 0 || key < this.keys[id]) {
+			offer(id, key);
+		} else if (key > this.keys[id]) {
+			this.keys[id] = key;
+			siftDown(pos);
+		}
+	}
+
+	/**
+	 * Removes and returns the id with the smallest priority
+	 * @return id The id with the smallest priority
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public int poll() {
+		if (this.size == 0) {
+			throw new NoSuchElementException("Heap is empty");
+		}
+		int top = this.heap[0];
+		this.position[top] = -1;
+		int last = this.heap[--this.size];
+		if (this.size > 0) {
+			this.heap[0] = last;
+			this.position[last] = 0;
+			siftDown(0);
+		}
+		return top;
+	}
+
+	/**
+	 * Removes every id from the heap in O(size), so the heap can be reused
+	 */
+	public void clear() {
+		for (int i = 0; i < this.size; i++) {
+			this.position[this.heap[i]] = -1;
+		}
+		this.size = 0;
+	}
+
+	/**
+	 * Moves the id at a heap position up until its parent is no larger
+	 * @param pos The heap position
+	 */
+	private void siftUp(int pos) {
+		int id = this.heap[pos];
+		double key = this.keys[id];
+		while (pos > 0) {
+			int parentPos = (pos - 1) >>> 1;
+			int parent = this.heap[parentPos];
+			if (this.keys[parent] <= key) {
+				break;
+			}
+			this.heap[pos] = parent;
+			this.position[parent] = pos;
+			pos = parentPos;
+		}
+		this.heap[pos] = id;
+		this.position[id] = pos;
+	}
+
+	/**
+	 * Moves the id at a heap position down until its children are no smaller
+	 * @param pos The heap position
+	 */
+	private void siftDown(int pos) {
+		int id = this.heap[pos];
+		double key = this.keys[id];
+		int half = this.size >>> 1;
+		while (pos < half) {
+			int childPos = 2 * pos + 1;
+			int child = this.heap[childPos];
+			int rightPos = childPos + 1;
+			if (rightPos < this.size && this.keys[this.heap[rightPos]] < this.keys[child]) {
+				childPos = rightPos;
+				child = this.heap[childPos];
+			}
+			if (key <= this.keys[child]) {
+				break;
+			}
+			this.heap[pos] = child;
+			this.position[child] = pos;
+			pos = childPos;
+		}
+		this.heap[pos] = id;
+		this.position[id] = pos;
+	}
+}
@@ -0,0 +1,693 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A graph file opened by memory mapping, whose CSR arrays are read in place instead of being loaded
+ * The file holds a header, then sections for the offsets, targets, edge ids and weights of a snapshot, the head
+ * and tail of every edge, and optional side tables of node and edge payloads, each a list of end positions
+ * followed by the encoded bytes. Every value is little-endian and every section starts on an 8-byte boundary,
+ * so the mapped sections are read as arrays without any decoding. Opening only checks the header and section
+ * bounds, and the operating system pages the sections in as they are first read.
+ * Sections are mapped in windows of at most 1 GB, so files may be larger than a single mapping allows.
+ * A mapped graph is never changed, so any number of threads can read it at once
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class MappedGraph {
+	/** Marks a mapped graph file, "GRMF" */
+	static final int MAGIC = 0x47524d46;
+	/** Version of the file layout */
+	static final int VERSION = 1;
+	/** Byte order of every value in the file */
+	static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+	/** Size of the header, before the first section */
+	static final int HEADER_SIZE = 192;
+	/** Flag set when the file has node payloads */
+	static final int NODE_PAYLOADS = 1;
+	/** Flag set when the file has edge payloads */
+	static final int EDGE_PAYLOADS = 2;
+	/** Size of each mapping as a power of two bytes */
+	static final int WINDOW_SHIFT = 30;
+
+	/** Section holding the start of each node's entries, with one extra entry marking the end */
+	private static final int OFFSETS = 0;
+	/** Section holding the neighbor id of every entry */
+	private static final int TARGETS = 1;
+	/** Section holding the edge id of every entry */
+	private static final int EDGE_IDS = 2;
+	/** Section holding the weight of every entry */
+	private static final int WEIGHTS = 3;
+	/** Section holding the head node id of every edge */
+	private static final int HEADS = 4;
+	/** Section holding the tail node id of every edge */
+	private static final int TAILS = 5;
+	/** Section holding the end of each node's payload, after a leading 0 */
+	private static final int NODE_ENDS = 6;
+	/** Section holding the node payload bytes */
+	private static final int NODE_BYTES = 7;
+	/** Section holding the end of each edge's payload, after a leading 0 */
+	private static final int EDGE_ENDS = 8;
+	/** Section holding the edge payload bytes */
+	private static final int EDGE_BYTES = 9;
+	/** Number of sections */
+	private static final int SECTIONS = 10;
+	/** Size of the buffer payloads are gathered in before writing */
+	private static final int PAYLOAD_BUFFER = 1 << 16;
+
+	/** Number of nodes */
+	private int numNodes;
+	/** Number of edges */
+	private int numEdges;
+	/** Number of adjacency entries */
+	private int numEntries;
+	/** Flags of the optional sections present */
+	private int flags;
+	/** The mapped sections */
+	private Section[] sections;
+
+	/**
+	 * Constructor
+	 * @param numNodes The number of nodes
+	 * @param numEdges The number of edges
+	 * @param numEntries The number of adjacency entries
+	 * @param flags The flags of the optional sections present
+	 * @param sections The mapped sections
+	 */
+	private MappedGraph(int numNodes, int numEdges, int numEntries, int flags, Section[] sections) {
+		this.numNodes = numNodes;
+		this.numEdges = numEdges;
+		this.numEntries = numEntries;
+		this.flags = flags;
+		this.sections = sections;
+	}
+
+	/**
+	 * Writes a snapshot to a file that open can map
+	 * A snapshot built without a graph has no payloads and records the end of each edge listed first as its head
+	 * @param snapshot The snapshot to write
+	 * @param path The file to write, replaced if it exists
+	 * @param nodeEncoder Gives the payload of each node's data, or null to write no node payloads; not called for null data
+	 * @param edgeEncoder Gives the payload of each edge's data, or null to write no edge payloads; not called for null data
+	 * @throws IOException If the file cannot be written
+	 */
+	public static <N, E> void write(GraphSnapshot<N, E> snapshot, Path path, Function<? super N, byte[]> nodeEncoder,
+			Function<? super E, byte[]> edgeEncoder) throws IOException {
+		if (snapshot.getGraph() == null && (nodeEncoder != null || edgeEncoder != null)) {
+			throw new IllegalArgumentException("Snapshot was built without a graph, so it has no data to encode");
+		}
+		int numNodes = snapshot.numNodes();
+		int numEdges = snapshot.numEdges();
+		int[] offsets = snapshot.getOffsets();
+		int[] edgeIds = snapshot.getEdgeIds();
+		int numEntries = offsets[numNodes];
+		int[] heads = new int[numEdges];
+		int[] tails = new int[numEdges];
+		if (snapshot.getGraph() != null) {
+			for (int e = 0; e < numEdges; e++) {
+				Graph<N, E>.Edge edge = snapshot.getEdge(e);
+				heads[e] = snapshot.idOf(edge.getHead());
+				tails[e] = snapshot.idOf(edge.getTail());
+			}
+		} else {
+			Arrays.fill(heads, -1);
+			int[] targets = snapshot.getTargets();
+			for (int i = 0; i < numNodes; i++) {
+				for (int entry = offsets[i]; entry < offsets[i+1]; entry++) {
+					if (heads[edgeIds[entry]] < 0) {
+						heads[edgeIds[entry]] = i;
+						tails[edgeIds[entry]] = targets[entry];
+					}
+				}
+			}
+		}
+
+		long[] positions = new long[SECTIONS];
+		long[] lengths = new long[SECTIONS];
+		lengths[OFFSETS] = 4L*(numNodes+1);
+		lengths[TARGETS] = 4L*numEntries;
+		lengths[EDGE_IDS] = 4L*numEntries;
+		lengths[WEIGHTS] = 8L*numEntries;
+		lengths[HEADS] = 4L*numEdges;
+		lengths[TAILS] = 4L*numEdges;
+		long position = HEADER_SIZE;
+		for (int s = OFFSETS; s <= TAILS; s++) {
+			positions[s] = position;
+			position = align(position+lengths[s]);
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			putInts(channel, positions[OFFSETS], offsets, numNodes+1);
+			putInts(channel, positions[TARGETS], snapshot.getTargets(), numEntries);
+			putInts(channel, positions[EDGE_IDS], edgeIds, numEntries);
+			putDoubles(channel, positions[WEIGHTS], snapshot.getWeights(), numEntries);
+			putInts(channel, positions[HEADS], heads, numEdges);
+			putInts(channel, positions[TAILS], tails, numEdges);
+			int flags = 0;
+			if (nodeEncoder != null) {
+				flags |= NODE_PAYLOADS;
+				position = putPayloads(channel, position, numNodes, id -> snapshot.getNode(id).getData(), nodeEncoder,
+						positions, lengths, NODE_ENDS, NODE_BYTES);
+			}
+			if (edgeEncoder != null) {
+				flags |= EDGE_PAYLOADS;
+				position = putPayloads(channel, position, numEdges, id -> snapshot.getEdge(id).getData(), edgeEncoder,
+						positions, lengths, EDGE_ENDS, EDGE_BYTES);
+			}
+			for (int s = 0; s < SECTIONS; s++) {
+				if (lengths[s] == 0) {
+					positions[s] = position;
+				}
+			}
+			// The header goes last, so a file cut short by a failed write is never taken for a whole one
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ORDER);
+			header.putInt(MAGIC);
+			header.putInt(VERSION);
+			header.putInt(numNodes);
+			header.putInt(numEdges);
+			header.putInt(numEntries);
+			header.putInt(flags);
+			for (int s = 0; s < SECTIONS; s++) {
+				header.putLong(positions[s]);
+				header.putLong(lengths[s]);
+			}
+			header.clear();
+			writeFully(channel, header, 0);
+			if (channel.size() < position) {
+				writeFully(channel, ByteBuffer.allocate((int) (position-channel.size())), channel.size());
+			}
+		}
+	}
+
+	/**
+	 * Maps a file written by write
+	 * @param path The file to map
+	 * @return graph
+	 * @throws IOException If the file cannot be read or does not hold a mapped graph
+	 */
+	public static MappedGraph open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < HEADER_SIZE) {
+				throw new IOException("Not a mapped graph file");
+			}
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ORDER);
+			while (header.hasRemaining()) {
+				if (channel.read(header, header.position()) < 0) {
+					throw new IOException("Not a mapped graph file");
+				}
+			}
+			header.flip();
+			if (header.getInt() != MAGIC) {
+				throw new IOException("Not a mapped graph file");
+			}
+			int version = header.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported mapped graph version "+version);
+			}
+			int numNodes = header.getInt();
+			int numEdges = header.getInt();
+			int numEntries = header.getInt();
+			int flags = header.getInt();
+			if (numNodes < 0 || numEdges < 0 || numEntries < 0) {
+				throw new IOException("Corrupt mapped graph header");
+			}
+			long[] expected = new long[SECTIONS];
+			expected[OFFSETS] = 4L*(numNodes+1);
+			expected[TARGETS] = 4L*numEntries;
+			expected[EDGE_IDS] = 4L*numEntries;
+			expected[WEIGHTS] = 8L*numEntries;
+			expected[HEADS] = 4L*numEdges;
+			expected[TAILS] = 4L*numEdges;
+			expected[NODE_ENDS] = (flags & NODE_PAYLOADS) != 0 ? 8L*(numNodes+1) : 0;
+			expected[EDGE_ENDS] = (flags & EDGE_PAYLOADS) != 0 ? 8L*(numEdges+1) : 0;
+			Section[] sections = new Section[SECTIONS];
+			for (int s = 0; s < SECTIONS; s++) {
+				long position = header.getLong();
+				long length = header.getLong();
+				boolean sized = s == NODE_BYTES || s == EDGE_BYTES ? length >= 0 : length == expected[s];
+				if (!sized || position < HEADER_SIZE || position % 8 != 0 || position > size-length) {
+					throw new IOException("Corrupt mapped graph section "+s);
+				}
+				sections[s] = new Section(channel, position, length);
+			}
+			MappedGraph graph = new MappedGraph(numNodes, numEdges, numEntries, flags, sections);
+			if (graph.offset(0) != 0 || graph.offset(numNodes) != numEntries) {
+				throw new IOException("Corrupt mapped graph offsets");
+			}
+			return graph;
+		}
+	}
+
+	/**
+	 * Gets the number of nodes
+	 * @return num
+	 */
+	public int numNodes() {
+		return this.numNodes;
+	}
+
+	/**
+	 * Gets the number of edges
+	 * @return num
+	 */
+	public int numEdges() {
+		return this.numEdges;
+	}
+
+	/**
+	 * Gets the number of adjacency entries, two for every edge
+	 * @return num
+	 */
+	public int numEntries() {
+		return this.numEntries;
+	}
+
+	/**
+	 * Gets the start of a node's entries, which end at the start of the next node's
+	 * @param id The node's id, or numNodes for the end of the last node's entries
+	 * @return offset
+	 */
+	public int offset(int id) {
+		return this.sections[OFFSETS].getInt(id);
+	}
+
+	/**
+	 * Gets the number of adjacency entries of a node
+	 * @param id The node's id
+	 * @return degree
+	 */
+	public int degree(int id) {
+		return offset(id+1)-offset(id);
+	}
+
+	/**
+	 * Gets the neighbor id of an entry
+	 * @param entry The entry
+	 * @return target
+	 */
+	public int targetAt(int entry) {
+		return this.sections[TARGETS].getInt(entry);
+	}
+
+	/**
+	 * Gets the edge id of an entry
+	 * @param entry The entry
+	 * @return edgeId
+	 */
+	public int edgeIdAt(int entry) {
+		return this.sections[EDGE_IDS].getInt(entry);
+	}
+
+	/**
+	 * Gets the weight of an entry
+	 * @param entry The entry
+	 * @return weight
+	 */
+	public double weightAt(int entry) {
+		return this.sections[WEIGHTS].getDouble(entry);
+	}
+
+	/**
+	 * Gets the head of an edge
+	 * @param edgeId The edge id
+	 * @return head The head node's id
+	 */
+	public int headOf(int edgeId) {
+		return this.sections[HEADS].getInt(edgeId);
+	}
+
+	/**
+	 * Gets the tail of an edge
+	 * @param edgeId The edge id
+	 * @return tail The tail node's id
+	 */
+	public int tailOf(int edgeId) {
+		return this.sections[TAILS].getInt(edgeId);
+	}
+
+	/**
+	 * Checks whether the file has node payloads
+	 * @return true if it does
+	 */
+	public boolean hasNodePayloads() {
+		return (this.flags & NODE_PAYLOADS) != 0;
+	}
+
+	/**
+	 * Checks whether the file has edge payloads
+	 * @return true if it does
+	 */
+	public boolean hasEdgePayloads() {
+		return (this.flags & EDGE_PAYLOADS) != 0;
+	}
+
+	/**
+	 * Decodes the data of a node from its payload
+	 * @param id The node's id
+	 * @param decoder Reads the data from a buffer holding just the payload, usually a view of the mapped file
+	 * @return data The data, or null if the node's payload is empty or the file has no node payloads
+	 */
+	public <N> N nodeData(int id, Function<? super ByteBuffer, ? extends N> decoder) {
+		return hasNodePayloads() ? payload(id, decoder, NODE_ENDS, NODE_BYTES) : null;
+	}
+
+	/**
+	 * Decodes the data of an edge from its payload
+	 * @param edgeId The edge id
+	 * @param decoder Reads the data from a buffer holding just the payload, usually a view of the mapped file
+	 * @return data The data, or null if the edge's payload is empty or the file has no edge payloads
+	 */
+	public <E> E edgeData(int edgeId, Function<? super ByteBuffer, ? extends E> decoder) {
+		return hasEdgePayloads() ? payload(edgeId, decoder, EDGE_ENDS, EDGE_BYTES) : null;
+	}
+
+	/**
+	 * Performs breadth-first traversal from a node on the mapped arrays
+	 * @param source The starting node's id
+	 * @return levels The number of edges from the source to each node, -1 if unreachable
+	 */
+	public int[] bfs(int source) {
+		Section offsets = this.sections[OFFSETS];
+		Section targets = this.sections[TARGETS];
+		int[] levels = new int[this.numNodes];
+		Arrays.fill(levels, -1);
+		int[] queue = new int[this.numNodes];
+		int head = 0;
+		int tail = 0;
+		levels[source] = 0;
+		queue[tail++] = source;
+		while (head < tail) {
+			int current = queue[head++];
+			int nextLevel = levels[current]+1;
+			int end = offsets.getInt(current+1);
+			for (int i = offsets.getInt(current); i < end; i++) {
+				int neighbor = targets.getInt(i);
+				if (levels[neighbor] < 0) {
+					levels[neighbor] = nextLevel;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+		return levels;
+	}
+
+	/**
+	 * Performs Dijkstra's shortest-path algorithm from a node on the mapped arrays
+	 * @param source The starting node's id
+	 * @param target The id to stop at once settled, or -1 to settle every reachable node
+	 * @return distances The shortest distance to each settled node, positive infinity if unreachable
+	 */
+	public double[] dijkstra(int source, int target) {
+		Section offsets = this.sections[OFFSETS];
+		Section targets = this.sections[TARGETS];
+		Section weights = this.sections[WEIGHTS];
+		double[] distances = new double[this.numNodes];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		boolean[] settled = new boolean[this.numNodes];
+		IndexedMinHeap heap = new IndexedMinHeap(this.numNodes);
+		distances[source] = 0;
+		heap.offer(source, 0);
+		while (!heap.isEmpty()) {
+			int current = heap.poll();
+			settled[current] = true;
+			if (current == target) {
+				break;
+			}
+			double currentCost = distances[current];
+			int end = offsets.getInt(current+1);
+			for (int i = offsets.getInt(current); i < end; i++) {
+				int neighbor = targets.getInt(i);
+				if (!settled[neighbor]) {
+					double combinedCost = currentCost+weights.getDouble(i);
+					if (combinedCost < distances[neighbor]) {
+						distances[neighbor] = combinedCost;
+						heap.offer(neighbor, combinedCost);
+					}
+				}
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * Copies the arrays onto the heap as a snapshot, for the algorithms that need one
+	 * @return snapshot The snapshot, whose getNode and getEdge are unavailable
+	 */
+	public <N, E> GraphSnapshot<N, E> toSnapshot() {
+		return new GraphSnapshot<N, E>(this.sections[OFFSETS].toInts(this.numNodes+1), this.sections[TARGETS].toInts(this.numEntries),
+				this.sections[EDGE_IDS].toInts(this.numEntries), this.sections[WEIGHTS].toDoubles(this.numEntries), this.numEdges);
+	}
+
+	/**
+	 * Loads the whole file into a new graph, with the same node and edge indexes and edge order at every node
+	 * @param nodeDecoder Reads each node's data from its payload, or null to leave node data null
+	 * @param edgeDecoder Reads each edge's data from its payload, or null to leave edge data null
+	 * @return graph The graph, whose edges keep their stored weights
+	 */
+	public <N, E> Graph<N, E> toGraph(Function<? super ByteBuffer, ? extends N> nodeDecoder,
+			Function<? super ByteBuffer, ? extends E> edgeDecoder) {
+		return toGraph(nodeDecoder, edgeDecoder, Graph.NUMBER_WEIGHT);
+	}
+
+	/**
+	 * Loads the whole file into a new graph, with the same node and edge indexes and edge order at every node
+	 * @param nodeDecoder Reads each node's data from its payload, or null to leave node data null
+	 * @param edgeDecoder Reads each edge's data from its payload, or null to leave edge data null
+	 * @param weightFunction The graph's weight function, which should give the stored weights from the decoded
+	 * data, since refreshWeights and setData weigh edges by it
+	 * @return graph The graph, whose edges keep their stored weights
+	 */
+	public <N, E> Graph<N, E> toGraph(Function<? super ByteBuffer, ? extends N> nodeDecoder,
+			Function<? super ByteBuffer, ? extends E> edgeDecoder, ToDoubleFunction<? super E> weightFunction) {
+		int[] offsets = this.sections[OFFSETS].toInts(this.numNodes+1);
+		int[] edgeIds = this.sections[EDGE_IDS].toInts(this.numEntries);
+		Section entryWeights = this.sections[WEIGHTS];
+		double[] weights = new double[this.numEdges];
+		for (int i = 0; i < this.numEntries; i++) {
+			weights[edgeIds[i]] = entryWeights.getDouble(i);
+		}
+		Graph<N, E> graph = new Graph<N, E>(weightFunction);
+		graph.load(nodeDecoder == null ? null : id -> nodeData(id, nodeDecoder), edgeDecoder == null ? null : id -> edgeData(id, edgeDecoder),
+				this.sections[HEADS].toInts(this.numEdges), this.sections[TAILS].toInts(this.numEdges), weights, this.numEdges, offsets, edgeIds);
+		return graph;
+	}
+
+	/**
+	 * Decodes a payload from a side table, null if it is empty
+	 */
+	private <T> T payload(int id, Function<? super ByteBuffer, ? extends T> decoder, int ends, int bytes) {
+		long start = this.sections[ends].getLong(id);
+		long end = this.sections[ends].getLong(id+1);
+		return end == start ? null : decoder.apply(this.sections[bytes].slice(start, (int) (end-start)));
+	}
+
+	/**
+	 * Writes a side table of payloads at a position, streaming the bytes before their end positions
+	 * @return position The aligned position after the table
+	 */
+	private static <T> long putPayloads(FileChannel channel, long position, int count, Function<Integer, T> data,
+			Function<? super T, byte[]> encoder, long[] positions, long[] lengths, int ends, int bytes) throws IOException {
+		positions[ends] = position;
+		lengths[ends] = 8L*(count+1);
+		positions[bytes] = align(position+lengths[ends]);
+		long[] payloadEnds = new long[count+1];
+		ByteBuffer buffer = ByteBuffer.allocate(PAYLOAD_BUFFER);
+		long written = 0;
+		for (int id = 0; id < count; id++) {
+			T value = data.apply(id);
+			byte[] payload = value == null ? null : encoder.apply(value);
+			int length = payload == null ? 0 : payload.length;
+			if (length > buffer.remaining()) {
+				buffer.flip();
+				written += writeFully(channel, buffer, positions[bytes]+written);
+				buffer.clear();
+			}
+			if (length > buffer.capacity()) {
+				written += writeFully(channel, ByteBuffer.wrap(payload), positions[bytes]+written);
+			} else if (length > 0) {
+				buffer.put(payload);
+			}
+			payloadEnds[id+1] = written+buffer.position();
+		}
+		buffer.flip();
+		written += writeFully(channel, buffer, positions[bytes]+written);
+		lengths[bytes] = written;
+		putLongs(channel, positions[ends], payloadEnds);
+		return align(positions[bytes]+written);
+	}
+
+	/**
+	 * Writes the start of an int array through mappings of at most one window each
+	 */
+	private static void putInts(FileChannel channel, long position, int[] values, int count) throws IOException {
+		int perWindow = 1 << (WINDOW_SHIFT-2);
+		for (int w = 0; (long) w*perWindow < count; w++) {
+			int from = w*perWindow;
+			int length = Math.min(perWindow, count-from);
+			channel.map(FileChannel.MapMode.READ_WRITE, position+4L*from, 4L*length).order(ORDER).asIntBuffer().put(values, from, length);
+		}
+	}
+
+	/**
+	 * Writes the start of a double array through mappings of at most one window each
+	 */
+	private static void putDoubles(FileChannel channel, long position, double[] values, int count) throws IOException {
+		int perWindow = 1 << (WINDOW_SHIFT-3);
+		for (int w = 0; (long) w*perWindow < count; w++) {
+			int from = w*perWindow;
+			int length = Math.min(perWindow, count-from);
+			channel.map(FileChannel.MapMode.READ_WRITE, position+8L*from, 8L*length).order(ORDER).asDoubleBuffer().put(values, from, length);
+		}
+	}
+
+	/**
+	 * Writes a long array through mappings of at most one window each
+	 */
+	private static void putLongs(FileChannel channel, long position, long[] values) throws IOException {
+		int perWindow = 1 << (WINDOW_SHIFT-3);
+		for (int w = 0; (long) w*perWindow < values.length; w++) {
+			int from = w*perWindow;
+			int length = Math.min(perWindow, values.length-from);
+			channel.map(FileChannel.MapMode.READ_WRITE, position+8L*from, 8L*length).order(ORDER).asLongBuffer().put(values, from, length);
+		}
+	}
+
+	/**
+	 * Writes the rest of a buffer at a position
+	 * @return count The number of bytes written
+	 */
+	private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		int count = buffer.remaining();
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+		return count;
+	}
+
+	/**
+	 * Rounds a position up to the next 8-byte boundary
+	 */
+	private static long align(long position) {
+		return (position+7) & ~7L;
+	}
+
+	/**
+	 * A section of the file, mapped read-only in windows of 1 GB
+	 * Values never straddle two windows, since sections and windows start on 8-byte boundaries
+	 */
+	private static class Section {
+		/** Ints per window, as a power of two */
+		private static final int INT_SHIFT = WINDOW_SHIFT-2;
+		/** Doubles or longs per window, as a power of two */
+		private static final int LONG_SHIFT = WINDOW_SHIFT-3;
+
+		/** The mapped windows in order */
+		private final ByteBuffer[] windows;
+
+		/**
+		 * Constructor
+		 * @param channel The file
+		 * @param position The start of the section
+		 * @param length The length of the section in bytes
+		 * @throws IOException If the file cannot be mapped
+		 */
+		Section(FileChannel channel, long position, long length) throws IOException {
+			this.windows = new ByteBuffer[(int) ((length+(1L << WINDOW_SHIFT)-1) >>> WINDOW_SHIFT)];
+			for (int w = 0; w < this.windows.length; w++) {
+				long start = (long) w << WINDOW_SHIFT;
+				this.windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, position+start,
+						Math.min(1L << WINDOW_SHIFT, length-start)).order(ORDER);
+			}
+		}
+
+		/**
+		 * Gets an int
+		 * @param i The int's position in the section
+		 * @return value
+		 */
+		int getInt(int i) {
+			return this.windows[i >>> INT_SHIFT].getInt((i & ((1 << INT_SHIFT)-1)) << 2);
+		}
+
+		/**
+		 * Gets a double
+		 * @param i The double's position in the section
+		 * @return value
+		 */
+		double getDouble(int i) {
+			return this.windows[i >>> LONG_SHIFT].getDouble((i & ((1 << LONG_SHIFT)-1)) << 3);
+		}
+
+		/**
+		 * Gets a long
+		 * @param i The long's position in the section
+		 * @return value
+		 */
+		long getLong(int i) {
+			return this.windows[i >>> LONG_SHIFT].getLong((i & ((1 << LONG_SHIFT)-1)) << 3);
+		}
+
+		/**
+		 * Gets a range of bytes, as a view of the mapping unless it crosses into the next window
+		 * @param start The first byte's position in the section
+		 * @param length The number of bytes
+		 * @return bytes A read-only buffer from position 0 to the length
+		 */
+		ByteBuffer slice(long start, int length) {
+			int w = (int) (start >>> WINDOW_SHIFT);
+			int from = (int) (start & ((1L << WINDOW_SHIFT)-1));
+			ByteBuffer window = this.windows[w].duplicate();
+			if (from+length <= window.limit()) {
+				window.position(from).limit(from+length);
+				return window.slice();
+			}
+			ByteBuffer copy = ByteBuffer.allocate(length);
+			while (copy.hasRemaining()) {
+				window.position(from).limit(Math.min(window.capacity(), from+copy.remaining()));
+				copy.put(window);
+				if (copy.hasRemaining()) {
+					window = this.windows[++w].duplicate();
+					from = 0;
+				}
+			}
+			copy.flip();
+			return copy.asReadOnlyBuffer();
+		}
+
+		/**
+		 * Copies the ints at the start of the section
+		 * @param count The number of ints
+		 * @return values
+		 */
+		int[] toInts(int count) {
+			int[] values = new int[count];
+			for (int w = 0; (long) w << INT_SHIFT < count; w++) {
+				int from = w << INT_SHIFT;
+				this.windows[w].duplicate().order(ORDER).asIntBuffer().get(values, from, Math.min(1 << INT_SHIFT, count-from));
+			}
+			return values;
+		}
+
+		/**
+		 * Copies the doubles at the start of the section
+		 * @param count The number of doubles
+		 * @return values
+		 */
+		double[] toDoubles(int count) {
+			double[] values = new double[count];
+			for (int w = 0; (long) w << LONG_SHIFT < count; w++) {
+				int from = w << LONG_SHIFT;
+				this.windows[w].duplicate().order(ORDER).asDoubleBuffer().get(values, from, Math.min(1 << LONG_SHIFT, count-from));
+			}
+			return values;
+		}
+	}
+}
@@ -0,0 +1,414 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Minimum spanning forests of a graph snapshot, by Kruskal's algorithm or by Boruvka's split across a ForkJoinPool
+ * Edges of equal weight are ordered by edge id, which makes the minimum spanning forest unique, so
+ * both algorithms choose exactly the same edges. Self-loops are never chosen
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class MinimumSpanningForest {
+	/** Rounds with fewer edges than this are scanned on the calling thread */
+	static final int SEQUENTIAL_THRESHOLD = 4096;
+	/** Number of chunks each worker gets per round */
+	static final int CHUNKS_PER_WORKER = 4;
+	/** Ranges shorter than this are sorted by insertion */
+	private static final int INSERTION_SORT_THRESHOLD = 16;
+
+	/** Pool the Boruvka rounds are split across */
+	private ForkJoinPool pool;
+	/** Whether this object created the pool and so must shut it down */
+	private boolean ownsPool;
+
+	/**
+	 * Constructor
+	 * @param parallelism The number of worker threads to use
+	 */
+	MinimumSpanningForest(int parallelism) {
+		this.pool = new ForkJoinPool(parallelism);
+		this.ownsPool = true;
+	}
+
+	/**
+	 * Constructor
+	 * @param pool An existing pool to run on, which is left running by shutdown
+	 */
+	MinimumSpanningForest(ForkJoinPool pool) {
+		this.pool = pool;
+		this.ownsPool = false;
+	}
+
+	/**
+	 * Accessor for the number of worker threads
+	 * @return parallelism
+	 */
+	public int getParallelism() {
+		return this.pool.getParallelism();
+	}
+
+	/**
+	 * Shuts down the pool if this object created it
+	 */
+	public void shutdown() {
+		if (this.ownsPool) {
+			this.pool.shutdown();
+		}
+	}
+
+	/**
+	 * Finds the minimum spanning forest with Kruskal's algorithm, taking edges in order of weight
+	 * and keeping those that join two different trees of a union-find
+	 * @param snapshot The graph
+	 * @return forest
+	 */
+	public static <N, E> SpanningForest<N, E> kruskal(GraphSnapshot<N, E> snapshot) {
+		EdgeArrays arrays = new EdgeArrays(snapshot);
+		int numEdges = snapshot.numEdges();
+		int[] order = new int[numEdges];
+		for (int e = 0; e < numEdges; e++) {
+			order[e] = e;
+		}
+		sort(arrays.weights.clone(), order, 0, numEdges-1);
+		int numNodes = snapshot.numNodes();
+		int[] parents = new int[numNodes];
+		for (int i = 0; i < numNodes; i++) {
+			parents[i] = i;
+		}
+		int[] chosen = new int[Math.max(numNodes-1, 0)];
+		int count = 0;
+		for (int k = 0; k < numEdges && count < chosen.length; k++) {
+			int e = order[k];
+			int rootA = find(parents, arrays.heads[e]);
+			int rootB = find(parents, arrays.tails[e]);
+			if (rootA != rootB) {
+				parents[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+				chosen[count++] = e;
+			}
+		}
+		return forest(snapshot, arrays, chosen, count);
+	}
+
+	/**
+	 * Finds the minimum spanning forest with Boruvka's algorithm
+	 * Each round every component picks its lightest edge to another component, in parallel over the
+	 * remaining edges, then the picked edges merge the components and edges inside one are dropped.
+	 * The number of components at least halves every round. Resetting the picks and merging along them
+	 * touch only the components left, on the calling thread, so they cost O(V) over all rounds; relabeling
+	 * the nodes and dropping the edges inside components run in parallel, each chunk compacting its own
+	 * edges before they are moved into place
+	 * @param snapshot The graph
+	 * @return forest
+	 */
+	public <N, E> SpanningForest<N, E> boruvka(GraphSnapshot<N, E> snapshot) {
+		EdgeArrays arrays = new EdgeArrays(snapshot);
+		int numNodes = snapshot.numNodes();
+		int[] components = new int[numNodes];
+		for (int i = 0; i < numNodes; i++) {
+			components[i] = i;
+		}
+		int[] active = new int[snapshot.numEdges()];
+		// Each round's kept edges, at the positions they were read from until they are moved into place
+		int[] spare = new int[active.length];
+		int activeCount = 0;
+		for (int e = 0; e < active.length; e++) {
+			if (arrays.heads[e] != arrays.tails[e]) {
+				active[activeCount++] = e;
+			}
+		}
+		AtomicIntegerArray lightest = new AtomicIntegerArray(numNodes);
+		// The root of every component left, the only entries of lightest in use
+		int[] roots = new int[numNodes];
+		for (int i = 0; i < numNodes; i++) {
+			roots[i] = i;
+		}
+		int rootCount = numNodes;
+		int[] chosen = new int[Math.max(numNodes-1, 0)];
+		int count = 0;
+		while (activeCount > 0) {
+			for (int k = 0; k < rootCount; k++) {
+				lightest.set(roots[k], -1);
+			}
+			int[] edges = active;
+			forEachChunk(activeCount, (chunk, from, to) -> {
+				for (int k = from; k < to; k++) {
+					int e = edges[k];
+					offer(lightest, components[arrays.heads[e]], e, arrays.weights);
+					offer(lightest, components[arrays.tails[e]], e, arrays.weights);
+				}
+			});
+			// Merge along the picked edges; two components that pick each other share one edge
+			for (int k = 0; k < rootCount; k++) {
+				int e = lightest.get(roots[k]);
+				if (e < 0) {
+					continue;
+				}
+				int rootA = find(components, arrays.heads[e]);
+				int rootB = find(components, arrays.tails[e]);
+				if (rootA != rootB) {
+					components[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+					chosen[count++] = e;
+				}
+			}
+			forEachChunk(numNodes, (chunk, from, to) -> {
+				for (int i = from; i < to; i++) {
+					int root = components[i];
+					while (components[root] != root) {
+						root = components[root];
+					}
+					components[i] = root;
+				}
+			});
+			int keptRoots = 0;
+			for (int k = 0; k < rootCount; k++) {
+				if (components[roots[k]] == roots[k]) {
+					roots[keptRoots++] = roots[k];
+				}
+			}
+			rootCount = keptRoots;
+			// Only edges still joining two components matter in later rounds
+			int[] starts = new int[chunks(activeCount)+1];
+			forEachChunk(activeCount, (chunk, from, to) -> {
+				int kept = from;
+				for (int k = from; k < to; k++) {
+					int e = edges[k];
+					if (components[arrays.heads[e]] != components[arrays.tails[e]]) {
+						spare[kept++] = e;
+					}
+				}
+				starts[chunk+1] = kept-from;
+			});
+			for (int c = 0; c+1 < starts.length; c++) {
+				starts[c+1] += starts[c];
+			}
+			forEachChunk(activeCount, (chunk, from, to) -> {
+				System.arraycopy(spare, from, edges, starts[chunk], starts[chunk+1]-starts[chunk]);
+			});
+			activeCount = starts[starts.length-1];
+		}
+		return forest(snapshot, arrays, chosen, count);
+	}
+
+	/**
+	 * Makes an edge a component's lightest if it is lighter than the current one
+	 */
+	private static void offer(AtomicIntegerArray lightest, int component, int edge, double[] weights) {
+		int current = lightest.get(component);
+		while (current < 0 || lighter(edge, current, weights)) {
+			if (lightest.compareAndSet(component, current, edge)) {
+				return;
+			}
+			current = lightest.get(component);
+		}
+	}
+
+	/**
+	 * Returns true if one edge comes before another in order of weight, then id
+	 */
+	private static boolean lighter(int a, int b, double[] weights) {
+		return weights[a] < weights[b] || (weights[a] == weights[b] && a < b);
+	}
+
+	/**
+	 * Finds the root of a node in a union-find whose roots are their trees' smallest ids, halving the path
+	 */
+	private static int find(int[] parents, int node) {
+		while (parents[node] != node) {
+			parents[node] = parents[parents[node]];
+			node = parents[node];
+		}
+		return node;
+	}
+
+	/**
+	 * Builds the result from the chosen edge ids, with the edges themselves if the snapshot has a graph
+	 */
+	private static <N, E> SpanningForest<N, E> forest(GraphSnapshot<N, E> snapshot, EdgeArrays arrays, int[] chosen, int count) {
+		int[] edgeIds = Arrays.copyOf(chosen, count);
+		Arrays.sort(edgeIds);
+		ArrayList<Graph<N, E>.Edge> edges = null;
+		if (snapshot.getGraph() != null) {
+			edges = new ArrayList<Graph<N, E>.Edge>(count);
+			for (int e : edgeIds) {
+				edges.add(snapshot.getEdge(e));
+			}
+		}
+		double totalWeight = 0;
+		for (int e : edgeIds) {
+			totalWeight += arrays.weights[e];
+		}
+		return new SpanningForest<N, E>(edgeIds, edges, totalWeight, snapshot.numNodes()-count);
+	}
+
+	/**
+	 * Sorts edge ids in order of weight, then id, with quicksort
+	 * The weights are moved along with the ids, so comparisons read them in order rather than through the ids
+	 * @param keys The weight of each position, sorted along with the ids
+	 * @param ids The edge ids
+	 * @param low The first position to sort
+	 * @param high The last position to sort
+	 */
+	static void sort(double[] keys, int[] ids, int low, int high) {
+		while (high-low >= INSERTION_SORT_THRESHOLD) {
+			int middle = (low+high) >>> 1;
+			// Median of three as the pivot guards against sorted input
+			if (before(keys, ids, middle, low)) {
+				swap(keys, ids, middle, low);
+			}
+			if (before(keys, ids, high, low)) {
+				swap(keys, ids, high, low);
+			}
+			if (before(keys, ids, high, middle)) {
+				swap(keys, ids, high, middle);
+			}
+			double pivotKey = keys[middle];
+			int pivotId = ids[middle];
+			int i = low;
+			int j = high;
+			while (i <= j) {
+				while (keys[i] < pivotKey || (keys[i] == pivotKey && ids[i] < pivotId)) {
+					i++;
+				}
+				while (keys[j] > pivotKey || (keys[j] == pivotKey && ids[j] > pivotId)) {
+					j--;
+				}
+				if (i <= j) {
+					swap(keys, ids, i++, j--);
+				}
+			}
+			// Recurse into the smaller side so the stack stays O(log n) deep
+			if (j-low < high-i) {
+				sort(keys, ids, low, j);
+				low = i;
+			} else {
+				sort(keys, ids, i, high);
+				high = j;
+			}
+		}
+		for (int i = low+1; i <= high; i++) {
+			double key = keys[i];
+			int id = ids[i];
+			int j = i-1;
+			while (j >= low && (keys[j] > key || (keys[j] == key && ids[j] > id))) {
+				keys[j+1] = keys[j];
+				ids[j+1] = ids[j];
+				j--;
+			}
+			keys[j+1] = key;
+			ids[j+1] = id;
+		}
+	}
+
+	/**
+	 * Returns true if one position comes before another in order of weight, then id
+	 */
+	private static boolean before(double[] keys, int[] ids, int a, int b) {
+		return keys[a] < keys[b] || (keys[a] == keys[b] && ids[a] < ids[b]);
+	}
+
+	/**
+	 * Swaps two positions of the parallel weight and id arrays
+	 */
+	private static void swap(double[] keys, int[] ids, int a, int b) {
+		double swapKey = keys[a];
+		keys[a] = keys[b];
+		keys[b] = swapKey;
+		int swapId = ids[a];
+		ids[a] = ids[b];
+		ids[b] = swapId;
+	}
+
+	/**
+	 * A pass over a range of positions
+	 */
+	private interface RangeTask {
+		/**
+		 * Runs the pass over a range
+		 * @param chunk The number of the range, counting from 0 in order of position
+		 * @param from The first position
+		 * @param to One past the last position
+		 */
+		void run(int chunk, int from, int to);
+	}
+
+	/**
+	 * Gets the number of chunks forEachChunk splits a pass into, the same for every pass of one size
+	 * @param size The number of positions
+	 * @return chunks
+	 */
+	private int chunks(int size) {
+		if (size < SEQUENTIAL_THRESHOLD || this.pool.getParallelism() == 1) {
+			return 1;
+		}
+		return Math.min(size, this.pool.getParallelism()*CHUNKS_PER_WORKER);
+	}
+
+	/**
+	 * Runs a pass over every position, in chunks across the pool if there is enough work
+	 */
+	private void forEachChunk(int size, RangeTask task) {
+		int chunks = chunks(size);
+		if (chunks == 1) {
+			task.run(0, 0, size);
+			return;
+		}
+		ArrayList<Callable<Void>> tasks = new ArrayList<Callable<Void>>(chunks);
+		for (int c = 0; c < chunks; c++) {
+			int chunk = c;
+			int from = (int) ((long) size*c/chunks);
+			int to = (int) ((long) size*(c+1)/chunks);
+			tasks.add(() -> {
+				task.run(chunk, from, to);
+				return null;
+			});
+		}
+		try {
+			for (Future<Void> part : this.pool.invokeAll(tasks)) {
+				part.get();
+			}
+		} catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Spanning forest was interrupted", exc);
+		} catch (ExecutionException exc) {
+			throw new IllegalStateException("Spanning forest failed", exc.getCause());
+		}
+	}
+
+	/**
+	 * The endpoints and weight of every edge of a snapshot, by edge id
+	 */
+	private static class EdgeArrays {
+		/** Node id of each edge's head */
+		private int[] heads;
+		/** Node id of each edge's tail */
+		private int[] tails;
+		/** Weight of each edge */
+		private double[] weights;
+
+		/**
+		 * Constructor
+		 * Reads each edge from the adjacency entries of its endpoints
+		 * @param snapshot The graph
+		 */
+		EdgeArrays(GraphSnapshot<?, ?> snapshot) {
+			int[] offsets = snapshot.getOffsets();
+			int[] targets = snapshot.getTargets();
+			int[] edgeIds = snapshot.getEdgeIds();
+			double[] entryWeights = snapshot.getWeights();
+			int numEdges = snapshot.numEdges();
+			this.heads = new int[numEdges];
+			this.tails = new int[numEdges];
+			this.weights = new double[numEdges];
+			for (int node = 0; node < snapshot.numNodes(); node++) {
+				for (int i = offsets[node]; i < offsets[node+1]; i++) {
+					int e = edgeIds[i];
+					this.heads[e] = node;
+					this.tails[e] = targets[i];
+					this.weights[e] = entryWeights[i];
+				}
+			}
+		}
+	}
+}
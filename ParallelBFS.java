@@ -0,0 +1,235 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Level-synchronous breadth-first search that splits each frontier across a ForkJoinPool
+ * Every level runs in two passes. First, each frontier node claims its unvisited neighbors by
+ * lowering their owner to its own frontier position with CAS. Then each frontier node gathers
+ * the neighbors it owns, in edge list order. So every node gets the parent and edge that a serial
+ * queue-based traversal would give it, the frontiers come out in serial queue order, and the tree
+ * is identical to Graph.BFT for any number of threads
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class ParallelBFS {
+	/** Frontiers with fewer adjacency entries than this are expanded on the calling thread */
+	static final int SEQUENTIAL_THRESHOLD = 4096;
+	/** Number of chunks each worker gets per level, to even out uneven degrees */
+	static final int CHUNKS_PER_WORKER = 4;
+
+	/** Pool the levels are split across */
+	private ForkJoinPool pool;
+	/** Whether this object created the pool and so must shut it down */
+	private boolean ownsPool;
+
+	/**
+	 * Constructor
+	 * @param parallelism The number of worker threads to use
+	 */
+	ParallelBFS(int parallelism) {
+		this.pool = new ForkJoinPool(parallelism);
+		this.ownsPool = true;
+	}
+
+	/**
+	 * Constructor
+	 * @param pool An existing pool to run on, which is left running by shutdown
+	 */
+	ParallelBFS(ForkJoinPool pool) {
+		this.pool = pool;
+		this.ownsPool = false;
+	}
+
+	/**
+	 * Accessor for the number of worker threads
+	 * @return parallelism
+	 */
+	public int getParallelism() {
+		return this.pool.getParallelism();
+	}
+
+	/**
+	 * Shuts down the pool if this object created it
+	 */
+	public void shutdown() {
+		if (this.ownsPool) {
+			this.pool.shutdown();
+		}
+	}
+
+	/**
+	 * Performs breadth-first search from a node, one level at a time across the pool
+	 * @param snapshot The graph to search
+	 * @param source The starting node's id
+	 * @return tree The levels, parents and parent edges of every node
+	 */
+	public <N, E> BFSTree<N, E> run(GraphSnapshot<N, E> snapshot, int source) {
+		int numNodes = snapshot.numNodes();
+		int[] offsets = snapshot.getOffsets();
+		int[] targets = snapshot.getTargets();
+		int[] edgeIds = snapshot.getEdgeIds();
+		int[] levels = new int[numNodes];
+		int[] parents = new int[numNodes];
+		int[] parentEdges = new int[numNodes];
+		Arrays.fill(levels, -1);
+		Arrays.fill(parents, -1);
+		Arrays.fill(parentEdges, -1);
+		AtomicIntegerArray owners = new AtomicIntegerArray(numNodes);
+		levels[source] = 0;
+		parents[source] = source;
+		int[] frontier = { source };
+		int reached = 1;
+		int level = 0;
+		while (frontier.length > 0) {
+			level++;
+			long work = 0;
+			for (int node : frontier) {
+				work += offsets[node+1]-offsets[node];
+			}
+			Level step = new Level(frontier, level, offsets, targets, edgeIds, levels, parents, parentEdges, owners);
+			if (work < SEQUENTIAL_THRESHOLD || this.pool.getParallelism() == 1) {
+				step.claim(0, frontier.length);
+				frontier = step.collect(0, frontier.length);
+			} else {
+				frontier = expand(step, frontier.length);
+			}
+			reached += frontier.length;
+		}
+		return new BFSTree<N, E>(snapshot, source, levels, parents, parentEdges, reached, level-1, 0);
+	}
+
+	/**
+	 * Expands one level across the pool
+	 * @param step The level being expanded
+	 * @param frontierSize The number of frontier nodes
+	 * @return next The next frontier, in serial queue order
+	 */
+	private int[] expand(Level step, int frontierSize) {
+		int chunks = Math.min(frontierSize, this.pool.getParallelism()*CHUNKS_PER_WORKER);
+		ArrayList<Callable<int[]>> claims = new ArrayList<Callable<int[]>>(chunks);
+		ArrayList<Callable<int[]>> collects = new ArrayList<Callable<int[]>>(chunks);
+		for (int c = 0; c < chunks; c++) {
+			int from = (int) ((long) frontierSize*c/chunks);
+			int to = (int) ((long) frontierSize*(c+1)/chunks);
+			claims.add(() -> {
+				step.claim(from, to);
+				return null;
+			});
+			collects.add(() -> step.collect(from, to));
+		}
+		this.pool.invokeAll(claims);
+		List<Future<int[]>> parts = this.pool.invokeAll(collects);
+		try {
+			int size = 0;
+			for (Future<int[]> part : parts) {
+				size += part.get().length;
+			}
+			int[] next = new int[size];
+			int position = 0;
+			for (Future<int[]> part : parts) {
+				int[] found = part.get();
+				System.arraycopy(found, 0, next, position, found.length);
+				position += found.length;
+			}
+			return next;
+		} catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Breadth-first search was interrupted", exc);
+		} catch (ExecutionException exc) {
+			throw new IllegalStateException("Breadth-first search failed", exc.getCause());
+		}
+	}
+
+	/**
+	 * The shared state of one level of the search
+	 */
+	private static class Level {
+		/** Nodes of the current level, in serial queue order */
+		private int[] frontier;
+		/** Level number being discovered */
+		private int level;
+		/** Snapshot offsets */
+		private int[] offsets;
+		/** Snapshot targets */
+		private int[] targets;
+		/** Snapshot edge ids */
+		private int[] edgeIds;
+		/** Level of every node, -1 until discovered */
+		private int[] levels;
+		/** Parent of every node */
+		private int[] parents;
+		/** Edge to every node's parent */
+		private int[] parentEdges;
+		/** Lowest frontier position that has claimed each node, as position+1 so 0 means unclaimed */
+		private AtomicIntegerArray owners;
+
+		/**
+		 * Constructor
+		 */
+		Level(int[] frontier, int level, int[] offsets, int[] targets, int[] edgeIds, int[] levels, int[] parents,
+				int[] parentEdges, AtomicIntegerArray owners) {
+			this.frontier = frontier;
+			this.level = level;
+			this.offsets = offsets;
+			this.targets = targets;
+			this.edgeIds = edgeIds;
+			this.levels = levels;
+			this.parents = parents;
+			this.parentEdges = parentEdges;
+			this.owners = owners;
+		}
+
+		/**
+		 * Claims the unvisited neighbors of a range of frontier positions
+		 * A node keeps the lowest claiming position, which is the one a serial queue reaches first
+		 * @param from The first frontier position
+		 * @param to One past the last frontier position
+		 */
+		void claim(int from, int to) {
+			for (int p = from; p < to; p++) {
+				int node = this.frontier[p];
+				int claim = p+1;
+				for (int i = this.offsets[node]; i < this.offsets[node+1]; i++) {
+					int neighbor = this.targets[i];
+					if (this.levels[neighbor] < 0) {
+						int owner = this.owners.get(neighbor);
+						while ((owner == 0 || claim < owner) && !this.owners.compareAndSet(neighbor, owner, claim)) {
+							owner = this.owners.get(neighbor);
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Gathers the neighbors owned by a range of frontier positions, through the first edge to each
+		 * @param from The first frontier position
+		 * @param to One past the last frontier position
+		 * @return found The newly discovered nodes, in serial queue order
+		 */
+		int[] collect(int from, int to) {
+			int[] found = new int[16];
+			int count = 0;
+			for (int p = from; p < to; p++) {
+				int node = this.frontier[p];
+				int claim = p+1;
+				for (int i = this.offsets[node]; i < this.offsets[node+1]; i++) {
+					int neighbor = this.targets[i];
+					// Only this position owns the neighbor, so no other thread writes its entries
+					if (this.levels[neighbor] < 0 && this.owners.get(neighbor) == claim) {
+						this.levels[neighbor] = this.level;
+						this.parents[neighbor] = node;
+						this.parentEdges[neighbor] = this.edgeIds[i];
+						if (count == found.length) {
+							found = Arrays.copyOf(found, count*2);
+						}
+						found[count++] = neighbor;
+					}
+				}
+			}
+			return Arrays.copyOf(found, count);
+		}
+	}
+}
@@ -0,0 +1,320 @@
+import java.util.*;
+
+/**
+ * A point-in-time version of a graph's nodes, edges and weights, which later changes to the graph never affect
+ * Nodes are identified by slot, which stays fixed while the node is in the graph, unlike its index.
+ * Slots of removed nodes are empty and may be reused by later versions. A view is never changed after it
+ * is published, so any number of threads can read it without locks while the graph keeps changing
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class ReadView<N, E> {
+	/** Number of slots per chunk, as a power of two */
+	static final int CHUNK_SHIFT = 6;
+	/** Number of slots per chunk */
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+	/** The graph's change count when this version was published */
+	private long version;
+	/** Records of every slot in chunks, shared with other versions wherever they have not changed */
+	private Record<N, E>[][] chunks;
+	/** One past the highest slot ever used */
+	private int numSlots;
+	/** Number of nodes */
+	private int numNodes;
+	/** Number of edges */
+	private int numEdges;
+
+	/**
+	 * Constructor
+	 * @param version The graph's change count
+	 * @param chunks The slot records in chunks, which must never be changed afterwards
+	 * @param numSlots One past the highest slot ever used
+	 * @param numNodes The number of nodes
+	 * @param numEdges The number of edges
+	 */
+	ReadView(long version, Record<N, E>[][] chunks, int numSlots, int numNodes, int numEdges) {
+		this.version = version;
+		this.chunks = chunks;
+		this.numSlots = numSlots;
+		this.numNodes = numNodes;
+		this.numEdges = numEdges;
+	}
+
+	/**
+	 * Accessor for the graph's change count when this version was published
+	 * @return version
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Gets the number of nodes
+	 * @return num
+	 */
+	public int numNodes() {
+		return this.numNodes;
+	}
+
+	/**
+	 * Gets the number of edges
+	 * @return num
+	 */
+	public int numEdges() {
+		return this.numEdges;
+	}
+
+	/**
+	 * Gets one past the highest slot, the size of any array indexed by slot
+	 * @return numSlots
+	 */
+	public int numSlots() {
+		return this.numSlots;
+	}
+
+	/**
+	 * Gets the node in a slot
+	 * @param slot The slot
+	 * @return node The node, or null if the slot was empty in this version
+	 */
+	public Graph<N, E>.Node getNode(int slot) {
+		Record<N, E> record = record(slot);
+		return record == null ? null : record.node;
+	}
+
+	/**
+	 * Gets the slot of a node
+	 * @param node The node
+	 * @return slot The node's slot, or -1 if the node was not in the graph in this version
+	 */
+	public int slotOf(Graph<N, E>.Node node) {
+		int slot = node.slot;
+		return slot >= 0 && slot < this.numSlots && getNode(slot) == node ? slot : -1;
+	}
+
+	/**
+	 * Gets the number of edges of a node, counting a self-loop twice
+	 * @param slot The node's slot
+	 * @return degree The degree, or -1 if the slot was empty in this version
+	 */
+	public int degree(int slot) {
+		Record<N, E> record = record(slot);
+		return record == null ? -1 : record.degree;
+	}
+
+	/**
+	 * Gets the slot of the neighbor across an edge of a node
+	 * @param slot The node's slot
+	 * @param i The position in the node's edges, from 0 to degree-1
+	 * @return neighbor
+	 * @throws IllegalArgumentException If the slot was empty in this version
+	 */
+	public int neighborAt(int slot, int i) {
+		return occupied(slot).targets[i];
+	}
+
+	/**
+	 * Gets an edge of a node by position
+	 * @param slot The node's slot
+	 * @param i The position in the node's edges, from 0 to degree-1
+	 * @return edge
+	 * @throws IllegalArgumentException If the slot was empty in this version
+	 */
+	public Graph<N, E>.Edge edgeAt(int slot, int i) {
+		return occupied(slot).edges[i];
+	}
+
+	/**
+	 * Gets the weight an edge of a node had in this version
+	 * @param slot The node's slot
+	 * @param i The position in the node's edges, from 0 to degree-1
+	 * @return weight
+	 * @throws IllegalArgumentException If the slot was empty in this version
+	 */
+	public double weightAt(int slot, int i) {
+		return occupied(slot).weights[i];
+	}
+
+	/**
+	 * Performs breadth-first traversal from a node
+	 * @param source The starting node's slot
+	 * @return levels The number of edges from the source to each slot, -1 if unreachable or empty, all -1 if the source is empty
+	 */
+	public int[] bfs(int source) {
+		int[] levels = new int[this.numSlots];
+		Arrays.fill(levels, -1);
+		if (record(source) == null) {
+			return levels;
+		}
+		int[] queue = new int[this.numSlots];
+		int head = 0;
+		int tail = 0;
+		levels[source] = 0;
+		queue[tail++] = source;
+		while (head < tail) {
+			int current = queue[head++];
+			int nextLevel = levels[current]+1;
+			Record<N, E> record = record(current);
+			for (int i = 0; i < record.degree; i++) {
+				int neighbor = record.targets[i];
+				if (levels[neighbor] < 0) {
+					levels[neighbor] = nextLevel;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+		return levels;
+	}
+
+	/**
+	 * Performs breadth-first traversal from a node, collecting the edges it first reaches each node through
+	 * @param start The starting node
+	 * @return traversedEdges The tree edges, empty if the node was not in the graph in this version
+	 */
+	public HashSet<Graph<N, E>.Edge> BFT(Graph<N, E>.Node start) {
+		HashSet<Graph<N, E>.Edge> traversedEdges = new HashSet<Graph<N, E>.Edge>();
+		int source = slotOf(start);
+		if (source < 0) {
+			return traversedEdges;
+		}
+		boolean[] visited = new boolean[this.numSlots];
+		int[] queue = new int[this.numSlots];
+		int head = 0;
+		int tail = 0;
+		visited[source] = true;
+		queue[tail++] = source;
+		while (head < tail) {
+			Record<N, E> current = record(queue[head++]);
+			for (int i = 0; i < current.degree; i++) {
+				int neighbor = current.targets[i];
+				if (!visited[neighbor]) {
+					visited[neighbor] = true;
+					traversedEdges.add(current.edges[i]);
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+		return traversedEdges;
+	}
+
+	/**
+	 * Performs Dijkstra's shortest-path algorithm from a node
+	 * @param source The starting node's slot
+	 * @param target The slot to stop at once settled, or -1 to settle every reachable node
+	 * @return distances The shortest distance to each settled slot, positive infinity if unreachable or empty,
+	 * all positive infinity if the source is empty
+	 */
+	public double[] dijkstra(int source, int target) {
+		double[] distances = new double[this.numSlots];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		if (record(source) == null) {
+			return distances;
+		}
+		boolean[] settled = new boolean[this.numSlots];
+		IndexedMinHeap heap = new IndexedMinHeap(this.numSlots);
+		distances[source] = 0;
+		heap.offer(source, 0);
+		while (!heap.isEmpty()) {
+			int current = heap.poll();
+			settled[current] = true;
+			if (current == target) {
+				break;
+			}
+			Record<N, E> record = record(current);
+			double currentCost = distances[current];
+			for (int i = 0; i < record.degree; i++) {
+				int neighbor = record.targets[i];
+				if (!settled[neighbor]) {
+					double combinedCost = currentCost+record.weights[i];
+					if (combinedCost < distances[neighbor]) {
+						distances[neighbor] = combinedCost;
+						heap.offer(neighbor, combinedCost);
+					}
+				}
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * Computes the shortest distance between two nodes with the weights of this version
+	 * @param start The starting node
+	 * @param end The end node
+	 * @return distance The shortest distance, positive infinity if unreachable or either node was not in this version
+	 */
+	public double distances(Graph<N, E>.Node start, Graph<N, E>.Node end) {
+		int source = slotOf(start);
+		int target = slotOf(end);
+		if (source < 0 || target < 0) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return dijkstra(source, target)[target];
+	}
+
+	/**
+	 * Gets the record of a slot
+	 * @param slot The slot
+	 * @return record The record, or null if the slot was empty or out of range
+	 */
+	private Record<N, E> record(int slot) {
+		if (slot < 0 || slot >= this.numSlots) {
+			return null;
+		}
+		Record<N, E>[] chunk = this.chunks[slot >>> CHUNK_SHIFT];
+		return chunk == null ? null : chunk[slot & (CHUNK_SIZE-1)];
+	}
+
+	/**
+	 * Gets the record of a slot that must hold a node
+	 * @param slot The slot
+	 * @return record
+	 * @throws IllegalArgumentException If the slot was empty in this version
+	 */
+	private Record<N, E> occupied(int slot) {
+		Record<N, E> record = record(slot);
+		if (record == null) {
+			throw new IllegalArgumentException("Slot "+slot+" is empty in this version");
+		}
+		return record;
+	}
+
+	/**
+	 * A node with its edges, the neighbor slot and weight of each, and the edge objects
+	 * The writer changes a record in place only during the epoch it was created in, before any view can hold it,
+	 * and replaces it with a copy otherwise, so versions that hold the old one are unaffected
+	 */
+	static class Record<N, E> {
+		/** The node */
+		final Graph<N, E>.Node node;
+		/** Epoch in which the record was created, the only one in which it may be changed */
+		final int epoch;
+		/** Slot of the neighbor across each edge */
+		int[] targets;
+		/** Weight of each edge */
+		double[] weights;
+		/** Each edge */
+		Graph<N, E>.Edge[] edges;
+		/** Number of edges, the used length of the arrays */
+		int degree;
+
+		/**
+		 * Constructor
+		 * @param node The node
+		 * @param epoch The epoch it is created in
+		 * @param targets The neighbor slot across each edge
+		 * @param weights The weight of each edge
+		 * @param edges Each edge
+		 * @param degree The number of edges
+		 */
+		Record(Graph<N, E>.Node node, int epoch, int[] targets, double[] weights, Graph<N, E>.Edge[] edges, int degree) {
+			this.node = node;
+			this.epoch = epoch;
+			this.targets = targets;
+			this.weights = weights;
+			this.edges = edges;
+			this.degree = degree;
+		}
+	}
+}
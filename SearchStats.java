@@ -0,0 +1,87 @@
+/**
+ * Counters describing the work done by a shortest-path search
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class SearchStats {
+	/** Number of nodes removed from the queue with a final cost */
+	private long settled;
+	/** Number of edges examined towards unsettled nodes */
+	private long relaxations;
+	/** Number of distance buckets emptied, for bucketed searches */
+	private long buckets;
+
+	/**
+	 * Constructor
+	 * Starts with every counter at zero
+	 */
+	SearchStats() {
+	}
+
+	/**
+	 * Accessor for settled node count
+	 * @return settled
+	 */
+	public long getSettled() {
+		return this.settled;
+	}
+
+	/**
+	 * Accessor for relaxation count
+	 * @return relaxations
+	 */
+	public long getRelaxations() {
+		return this.relaxations;
+	}
+
+	/**
+	 * Accessor for bucket count
+	 * @return buckets
+	 */
+	public long getBuckets() {
+		return this.buckets;
+	}
+
+	/**
+	 * Adds to the settled node count
+	 * @param count The number of newly settled nodes
+	 */
+	public void addSettled(long count) {
+		this.settled += count;
+	}
+
+	/**
+	 * Adds to the relaxation count
+	 * @param count The number of newly examined edges
+	 */
+	public void addRelaxations(long count) {
+		this.relaxations += count;
+	}
+
+	/**
+	 * Adds to the bucket count
+	 * @param count The number of newly emptied buckets
+	 */
+	public void addBuckets(long count) {
+		this.buckets += count;
+	}
+
+	/**
+	 * Sets every counter back to zero
+	 */
+	public void reset() {
+		this.settled = 0;
+		this.relaxations = 0;
+		this.buckets = 0;
+	}
+
+	/**
+	 * Returns a one-line summary of the counters
+	 * @return summary
+	 */
+	public String toString() {
+		String summary = "settled="+this.settled+" relaxations="+this.relaxations;
+		return this.buckets > 0 ? summary+" buckets="+this.buckets : summary;
+	}
+}
@@ -0,0 +1,240 @@
+import java.util.*;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * A size-bounded cache of shortest-path trees, keyed by source node, and of A* paths, keyed by both ends
+ * The least recently used tree or path is evicted once its part of the cache is full. Every lookup compares
+ * the graph's modification count with the one the cached answers were computed at, and drops them all if
+ * the graph has changed since, so edits never need to clear the cache by hand
+ * A cache must only be used from one thread at a time
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class ShortestPathCache<N, E> {
+	/** Number of A* paths kept for each tree the cache can hold */
+	static final int PATHS_PER_TREE = 16;
+
+	/** The graph the trees are computed on */
+	private Graph<N, E> graph;
+	/** Most trees kept at once */
+	private int capacity;
+	/** Cached trees, least recently used first */
+	private LinkedHashMap<Graph<N, E>.Node, ShortestPathTree<N, E>> trees;
+	/** Cached A* paths by start and end node, null where there is no path, least recently used first */
+	private LinkedHashMap<List<Graph<N, E>.Node>, GraphPath<N, E>> paths;
+	/** The graph's modification count when the cached trees were computed */
+	private long version;
+	/** Number of lookups answered from the cache */
+	private long hits;
+	/** Number of lookups that had to run a search */
+	private long misses;
+	/** Number of trees dropped to make room */
+	private long evictions;
+	/** Number of A* paths dropped to make room */
+	private long pathEvictions;
+	/** Number of times the cache was emptied because the graph changed */
+	private long invalidations;
+
+	/**
+	 * Constructor
+	 * @param graph The graph to compute trees on
+	 * @param capacity The most trees to keep at once
+	 */
+	ShortestPathCache(Graph<N, E> graph, int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Cache capacity must be positive: "+capacity);
+		}
+		this.graph = graph;
+		this.capacity = capacity;
+		this.version = graph.getModCount();
+		this.trees = new LinkedHashMap<Graph<N, E>.Node, ShortestPathTree<N, E>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Graph<N, E>.Node, ShortestPathTree<N, E>> eldest) {
+				if (size() > ShortestPathCache.this.capacity) {
+					ShortestPathCache.this.evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+		this.paths = new LinkedHashMap<List<Graph<N, E>.Node>, GraphPath<N, E>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<List<Graph<N, E>.Node>, GraphPath<N, E>> eldest) {
+				if (size() > PATHS_PER_TREE*ShortestPathCache.this.capacity) {
+					ShortestPathCache.this.pathEvictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Gets the shortest-path tree of a source, running Dijkstra's algorithm only if it is not cached
+	 * @param source The starting node
+	 * @return tree The shortest-path tree rooted at the source
+	 */
+	public ShortestPathTree<N, E> shortestPaths(Graph<N, E>.Node source) {
+		checkVersion();
+		ShortestPathTree<N, E> tree = this.trees.get(source);
+		if (tree != null) {
+			this.hits++;
+			return tree;
+		}
+		this.misses++;
+		tree = Graph.shortestPaths(this.graph, source);
+		this.trees.put(source, tree);
+		return tree;
+	}
+
+	/**
+	 * Gets the shortest distance between two nodes
+	 * @param start The starting node
+	 * @param end The end node
+	 * @return distance The shortest distance, or positive infinity if there is no path
+	 */
+	public double distance(Graph<N, E>.Node start, Graph<N, E>.Node end) {
+		return shortestPaths(start).distanceTo(end);
+	}
+
+	/**
+	 * Gets the shortest path between two nodes
+	 * @param start The starting node
+	 * @param end The end node
+	 * @return path The shortest path, or null if there is none
+	 */
+	public GraphPath<N, E> shortestPath(Graph<N, E>.Node start, Graph<N, E>.Node end) {
+		return shortestPaths(start).pathTo(end);
+	}
+
+	/**
+	 * Gets the shortest path between two nodes, with A* search unless the start's tree is already cached
+	 * @param start The starting node
+	 * @param end The end node
+	 * @param heuristic Estimates the cost from a node's data to the end node's data, never overestimating
+	 * @return path The shortest path, or null if there is none
+	 */
+	public GraphPath<N, E> shortestPath(Graph<N, E>.Node start, Graph<N, E>.Node end,
+			ToDoubleBiFunction<? super N, ? super N> heuristic) {
+		checkVersion();
+		ShortestPathTree<N, E> tree = this.trees.get(start);
+		if (tree != null) {
+			this.hits++;
+			return tree.pathTo(end);
+		}
+		List<Graph<N, E>.Node> key = Arrays.asList(start, end);
+		if (this.paths.containsKey(key)) {
+			this.hits++;
+			return this.paths.get(key);
+		}
+		this.misses++;
+		GraphPath<N, E> path = Graph.aStarPath(this.graph, start, end, heuristic);
+		this.paths.put(key, path);
+		return path;
+	}
+
+	/**
+	 * Drops every cached tree and path if the graph has changed since they were computed
+	 */
+	private void checkVersion() {
+		if (this.graph.getModCount() != this.version) {
+			if (!this.trees.isEmpty() || !this.paths.isEmpty()) {
+				this.trees.clear();
+				this.paths.clear();
+				this.invalidations++;
+			}
+			this.version = this.graph.getModCount();
+		}
+	}
+
+	/**
+	 * Drops every cached tree and path, leaving the counters as they are
+	 */
+	public void clear() {
+		this.trees.clear();
+		this.paths.clear();
+	}
+
+	/**
+	 * Gets the number of cached trees
+	 * @return size
+	 */
+	public int size() {
+		return this.trees.size();
+	}
+
+	/**
+	 * Gets the number of cached A* paths
+	 * @return pathCount
+	 */
+	public int pathCount() {
+		return this.paths.size();
+	}
+
+	/**
+	 * Accessor for the most trees kept at once
+	 * @return capacity
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Accessor for the number of lookups answered from the cache
+	 * @return hits
+	 */
+	public long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Accessor for the number of lookups that ran a search
+	 * @return misses
+	 */
+	public long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Accessor for the number of trees dropped to make room
+	 * @return evictions
+	 */
+	public long getEvictions() {
+		return this.evictions;
+	}
+
+	/**
+	 * Accessor for the number of A* paths dropped to make room
+	 * @return pathEvictions
+	 */
+	public long getPathEvictions() {
+		return this.pathEvictions;
+	}
+
+	/**
+	 * Accessor for the number of times the cache was emptied by a change to the graph
+	 * @return invalidations
+	 */
+	public long getInvalidations() {
+		return this.invalidations;
+	}
+
+	/**
+	 * Gets the fraction of lookups answered from the cache
+	 * @return hitRate From 0 to 1, or 0 before any lookup
+	 */
+	public double getHitRate() {
+		long lookups = this.hits+this.misses;
+		return lookups == 0 ? 0 : (double) this.hits/lookups;
+	}
+
+	/**
+	 * Returns a one-line summary of the counters
+	 * @return summary
+	 */
+	public String toString() {
+		return "size="+this.trees.size()+"/"+this.capacity+" paths="+this.paths.size()+" hits="+this.hits+" misses="+this.misses
+				+" evictions="+this.evictions+" pathEvictions="+this.pathEvictions+" invalidations="+this.invalidations;
+	}
+}
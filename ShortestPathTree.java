@@ -0,0 +1,140 @@
+import java.util.*;
+
+/**
+ * The result of a single-source shortest-path search
+ * Keeps the cost and homeward edge of every node, so one search
+ * can answer the distance and path to any number of targets
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class ShortestPathTree<N, E> {
+	/** The node the search started from */
+	private Graph<N, E>.Node source;
+	/** Cost and homeward direction of every node, by node index at the time of the search */
+	private ArrayList<Graph<N, E>.DijkstraNode> costs;
+	/** Position of every node in costs, built only if a node has moved since the search */
+	private HashMap<Graph<N, E>.Node, Graph<N, E>.DijkstraNode> moved;
+	/** Work done by the search */
+	private SearchStats stats;
+
+	/**
+	 * Constructor
+	 * @param source The node the search started from
+	 * @param costs The settled cost and direction of every node, by node index
+	 * @param stats The work done by the search
+	 */
+	ShortestPathTree(Graph<N, E>.Node source, ArrayList<Graph<N, E>.DijkstraNode> costs, SearchStats stats) {
+		this.source = source;
+		this.costs = costs;
+		this.stats = stats;
+	}
+
+	/**
+	 * Builds a tree from the primitive results of a search over a snapshot
+	 * @param snapshot The snapshot that was searched
+	 * @param source The starting node's id
+	 * @param distances The shortest distance to every node
+	 * @param parentEntries The adjacency entry each node was reached through, -1 for none
+	 * @param stats The work done by the search
+	 * @return tree The shortest-path tree
+	 */
+	static <N, E> ShortestPathTree<N, E> fromArrays(GraphSnapshot<N, E> snapshot, int source, double[] distances,
+			int[] parentEntries, SearchStats stats) {
+		Graph<N, E> graph = snapshot.getGraph();
+		int[] edgeIds = snapshot.getEdgeIds();
+		ArrayList<Graph<N, E>.DijkstraNode> costs = new ArrayList<Graph<N, E>.DijkstraNode>(distances.length);
+		for (int id = 0; id < distances.length; id++) {
+			Graph<N, E>.Node node = snapshot.getNode(id);
+			boolean reached = distances[id] != Double.POSITIVE_INFINITY;
+			Graph<N, E>.DijkstraNode entry = graph.new DijkstraNode(node, distances[id], id == source ? node : null, reached);
+			if (parentEntries[id] >= 0) {
+				Graph<N, E>.Edge edge = snapshot.getEdge(edgeIds[parentEntries[id]]);
+				entry.setEdge(edge);
+				entry.setDirection(edge.getHead() == node ? edge.getTail() : edge.getHead());
+			}
+			costs.add(entry);
+		}
+		return new ShortestPathTree<N, E>(snapshot.getNode(source), costs, stats);
+	}
+
+	/**
+	 * Accessor for the source node
+	 * @return source
+	 */
+	public Graph<N, E>.Node getSource() {
+		return this.source;
+	}
+
+	/**
+	 * Accessor for the work done by the search
+	 * @return stats
+	 */
+	public SearchStats getStats() {
+		return this.stats;
+	}
+
+	/**
+	 * Finds the cost entry of a node
+	 * @param node The node
+	 * @return entry The node's entry, or null if the node was not in the graph during the search
+	 */
+	private Graph<N, E>.DijkstraNode entryOf(Graph<N, E>.Node node) {
+		int index = node.getIndex();
+		if (index >= 0 && index < this.costs.size() && this.costs.get(index).getNode() == node) {
+			return this.costs.get(index);
+		}
+		// The node was added, removed or moved by a removal after the search
+		if (this.moved == null) {
+			HashMap<Graph<N, E>.Node, Graph<N, E>.DijkstraNode> built = new HashMap<Graph<N, E>.Node, Graph<N, E>.DijkstraNode>(this.costs.size()*2);
+			for (Graph<N, E>.DijkstraNode entry : this.costs) {
+				built.put(entry.getNode(), entry);
+			}
+			this.moved = built;
+		}
+		return this.moved.get(node);
+	}
+
+	/**
+	 * Gets the shortest distance from the source to a node
+	 * @param node The target node
+	 * @return distance The shortest distance, or positive infinity if the node is unreachable
+	 */
+	public double distanceTo(Graph<N, E>.Node node) {
+		Graph<N, E>.DijkstraNode entry = entryOf(node);
+		return entry == null ? Double.POSITIVE_INFINITY : entry.getCost();
+	}
+
+	/**
+	 * Returns true if the node can be reached from the source
+	 * @param node The target node
+	 * @return true if there is a path to the node
+	 */
+	public boolean hasPathTo(Graph<N, E>.Node node) {
+		return distanceTo(node) != Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Reconstructs the shortest path from the source to a node in O(path length)
+	 * @param node The target node
+	 * @return path The shortest path, or null if the node is unreachable
+	 */
+	public GraphPath<N, E> pathTo(Graph<N, E>.Node node) {
+		if (!hasPathTo(node)) {
+			return null;
+		}
+		ArrayList<Graph<N, E>.Node> nodes = new ArrayList<Graph<N, E>.Node>();
+		ArrayList<Graph<N, E>.Edge> edges = new ArrayList<Graph<N, E>.Edge>();
+		Graph<N, E>.Node current = node;
+		nodes.add(current);
+		while (current != this.source) {
+			Graph<N, E>.DijkstraNode entry = entryOf(current);
+			edges.add(entry.getEdge());
+			current = entry.getDirection();
+			nodes.add(current);
+		}
+		Collections.reverse(nodes);
+		Collections.reverse(edges);
+		return new GraphPath<N, E>(nodes, edges, distanceTo(node));
+	}
+}
@@ -0,0 +1,76 @@
+import java.util.*;
+
+/**
+ * A minimum spanning forest, one minimum spanning tree for each connected component
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class SpanningForest<N, E> {
+	/** Snapshot ids of the chosen edges, in increasing order */
+	private int[] edgeIds;
+	/** The chosen edges, or null if the snapshot was built without a graph */
+	private ArrayList<Graph<N, E>.Edge> edges;
+	/** The sum of the chosen edges' weights */
+	private double totalWeight;
+	/** Number of trees, which is the number of connected components */
+	private int numTrees;
+
+	/**
+	 * Constructor
+	 * @param edgeIds The snapshot ids of the chosen edges, in increasing order
+	 * @param edges The chosen edges, or null if the snapshot has no graph
+	 * @param totalWeight The sum of their weights
+	 * @param numTrees The number of trees
+	 */
+	SpanningForest(int[] edgeIds, ArrayList<Graph<N, E>.Edge> edges, double totalWeight, int numTrees) {
+		this.edgeIds = edgeIds;
+		this.edges = edges;
+		this.totalWeight = totalWeight;
+		this.numTrees = numTrees;
+	}
+
+	/**
+	 * Accessor for the snapshot ids of the chosen edges, which must not be modified
+	 * @return edgeIds The ids in increasing order
+	 */
+	public int[] getEdgeIds() {
+		return this.edgeIds;
+	}
+
+	/**
+	 * Accessor for the chosen edges
+	 * @return edges
+	 * @throws IllegalStateException If the snapshot was built without a graph; use getEdgeIds instead
+	 */
+	public ArrayList<Graph<N, E>.Edge> getEdges() {
+		if (this.edges == null) {
+			throw new IllegalStateException("Snapshot was built without a graph, so the forest has only edge ids");
+		}
+		return this.edges;
+	}
+
+	/**
+	 * Accessor for the sum of the chosen edges' weights
+	 * @return totalWeight
+	 */
+	public double getTotalWeight() {
+		return this.totalWeight;
+	}
+
+	/**
+	 * Accessor for the number of trees
+	 * @return numTrees
+	 */
+	public int getNumTrees() {
+		return this.numTrees;
+	}
+
+	/**
+	 * Returns a one-line summary of the forest
+	 * @return summary
+	 */
+	public String toString() {
+		return this.edgeIds.length+" edges in "+this.numTrees+" trees, total weight "+this.totalWeight;
+	}
+}
@@ -0,0 +1,247 @@
+import java.util.*;
+
+/**
+ * The writer side of a graph's read views, following every change to the graph and publishing immutable versions
+ * Records are kept in chunks of slots under a spine array. Publishing a view starts a new epoch, and the first
+ * write to the spine, to a chunk or to a node's record in an epoch copies it, so a version shares everything
+ * that has not changed since. Within an epoch records are changed in place, and every edge keeps its position
+ * in the records of its ends, so a change costs O(1) amortized plus at most one spine, chunk and record copy
+ * per view published
+ * @author Jiamin Li
+ * @version 10/17/26
+ */
+
+public class VersionedAdjacency<N, E> implements GraphListener<N, E> {
+	/** Neighbor slots of a node without edges */
+	private static final int[] NO_TARGETS = new int[0];
+	/** Weights of a node without edges */
+	private static final double[] NO_WEIGHTS = new double[0];
+
+	/** The graph being followed */
+	private Graph<N, E> graph;
+	/** Record chunks of the version being written */
+	private ReadView.Record<N, E>[][] chunks;
+	/** Epoch in which each chunk was created or copied, which may be written in place only in that epoch */
+	private int[] chunkEpochs;
+	/** Epoch in which the spine was created or copied */
+	private int spineEpoch;
+	/** Current epoch, advanced whenever a view is published */
+	private int epoch = 1;
+	/** One past the highest slot ever used */
+	private int numSlots;
+	/** Number of nodes */
+	private int numNodes;
+	/** Number of edges */
+	private int numEdges;
+	/** Slots freed by removed nodes, reused last in first out */
+	private int[] freeSlots = new int[16];
+	/** Number of free slots */
+	private int numFree;
+	/** The graph's change count after the last change followed */
+	private long version;
+	/** The latest published view, handed out again until the graph changes */
+	private ReadView<N, E> published;
+	/** Edges of a node without edges */
+	private Graph<N, E>.Edge[] noEdges;
+
+	/**
+	 * Constructor
+	 * Gives every node the slot matching its index, records its edges and registers for the graph's changes
+	 * @param graph The graph to follow
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	VersionedAdjacency(Graph<N, E> graph) {
+		this.graph = graph;
+		this.noEdges = (Graph<N, E>.Edge[]) new Graph.Edge[0];
+		int count = graph.numNodes();
+		this.chunks = (ReadView.Record<N, E>[][]) new ReadView.Record[Math.max(1, (count+ReadView.CHUNK_SIZE-1) >>> ReadView.CHUNK_SHIFT)][];
+		this.chunkEpochs = new int[this.chunks.length];
+		this.spineEpoch = this.epoch;
+		for (int i = 0; i < count; i++) {
+			graph.getNode(i).slot = i;
+		}
+		for (int e = 0; e < graph.numEdges(); e++) {
+			graph.getEdge(e).headPosition = -1;
+		}
+		for (int i = 0; i < count; i++) {
+			Graph<N, E>.Node node = graph.getNode(i);
+			int degree = node.degree();
+			int[] targets = new int[degree];
+			double[] weights = new double[degree];
+			Graph<N, E>.Edge[] edges = Arrays.copyOf(this.noEdges, degree);
+			for (int j = 0; j < degree; j++) {
+				Graph<N, E>.Edge edge = node.edgeAt(j);
+				targets[j] = edge.oppositeTo(node).slot;
+				weights[j] = edge.getWeight();
+				edges[j] = edge;
+				// A self-loop's first listing is its head position and its second its tail position
+				if (edge.getHead() == node && edge.headPosition < 0) {
+					edge.headPosition = j;
+				} else {
+					edge.tailPosition = j;
+				}
+			}
+			set(i, new ReadView.Record<N, E>(node, this.epoch, targets, weights, edges, degree));
+		}
+		this.numSlots = count;
+		this.numNodes = count;
+		this.numEdges = graph.numEdges();
+		this.version = graph.getModCount();
+		graph.addListener(this);
+	}
+
+	/**
+	 * Publishes the current version, after which it is never changed
+	 * @return view
+	 */
+	public synchronized ReadView<N, E> publish() {
+		if (this.published == null) {
+			this.published = new ReadView<N, E>(this.version, this.chunks, this.numSlots, this.numNodes, this.numEdges);
+			this.epoch++;
+		}
+		return this.published;
+	}
+
+	@Override
+	public synchronized void nodeAdded(Graph<N, E>.Node node) {
+		int slot = this.numFree > 0 ? this.freeSlots[--this.numFree] : this.numSlots++;
+		node.slot = slot;
+		set(slot, new ReadView.Record<N, E>(node, this.epoch, NO_TARGETS, NO_WEIGHTS, this.noEdges, 0));
+		this.numNodes++;
+		changed();
+	}
+
+	@Override
+	public synchronized void nodeRemoved(Graph<N, E>.Node node, int index) {
+		set(node.slot, null);
+		if (this.numFree == this.freeSlots.length) {
+			this.freeSlots = Arrays.copyOf(this.freeSlots, this.numFree*2);
+		}
+		this.freeSlots[this.numFree++] = node.slot;
+		this.numNodes--;
+		changed();
+	}
+
+	@Override
+	public synchronized void edgeAdded(Graph<N, E>.Edge edge) {
+		int head = edge.getHead().slot;
+		int tail = edge.getTail().slot;
+		// A self-loop is listed twice at its node, as in the node's edge list
+		edge.headPosition = append(writable(head), tail, edge);
+		edge.tailPosition = append(writable(tail), head, edge);
+		this.numEdges++;
+		changed();
+	}
+
+	@Override
+	public synchronized void edgeRemoved(Graph<N, E>.Edge edge, int index) {
+		int head = edge.getHead().slot;
+		int tail = edge.getTail().slot;
+		if (tail == head) {
+			// Free the later position first so the earlier one is not moved
+			ReadView.Record<N, E> record = writable(head);
+			removeAt(record, Math.max(edge.headPosition, edge.tailPosition));
+			removeAt(record, Math.min(edge.headPosition, edge.tailPosition));
+		} else {
+			removeAt(writable(head), edge.headPosition);
+			removeAt(writable(tail), edge.tailPosition);
+		}
+		edge.headPosition = -1;
+		edge.tailPosition = -1;
+		this.numEdges--;
+		changed();
+	}
+
+	@Override
+	public synchronized void weightChanged(Graph<N, E>.Edge edge, double oldWeight) {
+		writable(edge.getHead().slot).weights[edge.headPosition] = edge.getWeight();
+		writable(edge.getTail().slot).weights[edge.tailPosition] = edge.getWeight();
+		changed();
+	}
+
+	/**
+	 * Records that the graph has changed, so the next view published is a new version
+	 */
+	private void changed() {
+		this.published = null;
+		this.version = this.graph.getModCount();
+	}
+
+	/**
+	 * Gets the record of a slot in the version being written
+	 */
+	private ReadView.Record<N, E> record(int slot) {
+		return this.chunks[slot >>> ReadView.CHUNK_SHIFT][slot & (ReadView.CHUNK_SIZE-1)];
+	}
+
+	/**
+	 * Gets the record of a slot for changing, first replacing it with a copy if it is from an earlier epoch
+	 */
+	private ReadView.Record<N, E> writable(int slot) {
+		ReadView.Record<N, E> record = record(slot);
+		if (record.epoch != this.epoch) {
+			record = new ReadView.Record<N, E>(record.node, this.epoch, Arrays.copyOf(record.targets, record.degree),
+					Arrays.copyOf(record.weights, record.degree), Arrays.copyOf(record.edges, record.degree), record.degree);
+			set(slot, record);
+		}
+		return record;
+	}
+
+	/**
+	 * Sets the record of a slot, first copying the spine and the slot's chunk if a published view holds them
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private void set(int slot, ReadView.Record<N, E> record) {
+		int c = slot >>> ReadView.CHUNK_SHIFT;
+		if (this.spineEpoch != this.epoch || c >= this.chunks.length) {
+			int length = c >= this.chunks.length ? Math.max(c+1, this.chunks.length*2) : this.chunks.length;
+			this.chunks = Arrays.copyOf(this.chunks, length);
+			this.chunkEpochs = Arrays.copyOf(this.chunkEpochs, length);
+			this.spineEpoch = this.epoch;
+		}
+		if (this.chunks[c] == null) {
+			this.chunks[c] = (ReadView.Record<N, E>[]) new ReadView.Record[ReadView.CHUNK_SIZE];
+			this.chunkEpochs[c] = this.epoch;
+		} else if (this.chunkEpochs[c] != this.epoch) {
+			this.chunks[c] = this.chunks[c].clone();
+			this.chunkEpochs[c] = this.epoch;
+		}
+		this.chunks[c][slot & (ReadView.CHUNK_SIZE-1)] = record;
+	}
+
+	/**
+	 * Adds an edge to a writable record, doubling its arrays when full
+	 * @return position The edge's position in the record
+	 */
+	private static <N, E> int append(ReadView.Record<N, E> record, int target, Graph<N, E>.Edge edge) {
+		if (record.degree == record.edges.length) {
+			int capacity = Math.max(4, record.degree*2);
+			record.targets = Arrays.copyOf(record.targets, capacity);
+			record.weights = Arrays.copyOf(record.weights, capacity);
+			record.edges = Arrays.copyOf(record.edges, capacity);
+		}
+		record.targets[record.degree] = target;
+		record.weights[record.degree] = edge.getWeight();
+		record.edges[record.degree] = edge;
+		return record.degree++;
+	}
+
+	/**
+	 * Removes the edge at a position of a writable record, moving the last edge into it and updating that edge's position
+	 */
+	private static <N, E> void removeAt(ReadView.Record<N, E> record, int i) {
+		int last = --record.degree;
+		if (i != last) {
+			Graph<N, E>.Edge moved = record.edges[last];
+			record.targets[i] = record.targets[last];
+			record.weights[i] = record.weights[last];
+			record.edges[i] = moved;
+			if (moved.getHead() == record.node && moved.headPosition == last) {
+				moved.headPosition = i;
+			} else {
+				moved.tailPosition = i;
+			}
+		}
+		record.edges[last] = null;
+	}
+}
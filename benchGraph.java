@@ -0,0 +1,615 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.*;
+import java.awt.*;
+import java.util.function.ToDoubleBiFunction;
+
+	/**
+	 * For timing the graph algorithms on large random graphs
+	 * Usage: java benchGraph [nodes] [edges] [maxThreads]
+	 * @author Jiamin Li
+	 * @version 10/17/26
+	 */
+
+public class benchGraph {
+	
+	public static void main(String[] args) {
+		int numNodes = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		int numEdges = args.length > 1 ? Integer.parseInt(args[1]) : 8000000;
+		int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		
+		benchBuilder(numNodes, numEdges);
+		benchImporter(numNodes/8, numEdges/8, maxThreads);
+		
+		long start = System.nanoTime();
+		Graph<Integer, Double> graph = randomGraph(numNodes, numEdges, 42);
+		System.out.println("Built graph of "+numNodes+" nodes and "+numEdges+" edges in "+millis(start)+" ms");
+		start = System.nanoTime();
+		GraphSnapshot<Integer, Double> snapshot = graph.snapshot();
+		System.out.println("Snapshot in "+millis(start)+" ms");
+		
+		benchMappedGraph(snapshot);
+		benchParallelBFS(graph, snapshot, maxThreads);
+		benchComponents(snapshot, maxThreads);
+		benchSpanningForest(snapshot, maxThreads);
+		benchDeltaStepping(snapshot, maxThreads);
+		benchDistanceMatrix(snapshot, 64, maxThreads);
+		benchBidirectional(graph, 100);
+		benchConnectivity(graph, 1000000);
+		benchReadView(100000, 800000, 1000000);
+		benchAStar(300, 100);
+		benchContractionHierarchy(300, 1000);
+		benchDynamicShortestPaths(300, 1000);
+	}
+	
+	/**
+	 * Builds a random graph with uniformly chosen endpoints and weights from 1 to 100
+	 * @param numNodes The number of nodes
+	 * @param numEdges The number of edges
+	 * @param seed The random seed
+	 * @return graph
+	 */
+	static Graph<Integer, Double> randomGraph(int numNodes, int numEdges, long seed) {
+		Random random = new Random(seed);
+		Graph<Integer, Double> graph = new Graph<Integer, Double>();
+		for (int i = 0; i < numNodes; i++) {
+			graph.addNode(i);
+		}
+		for (int i = 0; i < numEdges; i++) {
+			graph.addWeightedEdge(1+random.nextInt(100), graph.getNode(random.nextInt(numNodes)), graph.getNode(random.nextInt(numNodes)));
+		}
+		return graph;
+	}
+	
+	/**
+	 * Times loading random edges one addWeightedEdge at a time, then through GraphBuilder into a graph
+	 * and into a snapshot, in edges per second, checking that all three give the same adjacency
+	 */
+	static void benchBuilder(int numNodes, int numEdges) {
+		Random random = new Random(42);
+		int[] heads = new int[numEdges];
+		int[] tails = new int[numEdges];
+		double[] weights = new double[numEdges];
+		for (int i = 0; i < numEdges; i++) {
+			weights[i] = 1+random.nextInt(100);
+			heads[i] = random.nextInt(numNodes);
+			tails[i] = random.nextInt(numNodes);
+		}
+		long start = System.nanoTime();
+		Graph<Integer, Double> graph = new Graph<Integer, Double>();
+		for (int i = 0; i < numNodes; i++) {
+			graph.addNode(i);
+		}
+		for (int i = 0; i < numEdges; i++) {
+			graph.addWeightedEdge(weights[i], graph.getNode(heads[i]), graph.getNode(tails[i]));
+		}
+		long elapsed = System.nanoTime()-start;
+		System.out.println("Edge by edge: "+elapsed/1000000+" ms, "+perSecond(numEdges, elapsed)+" edges/s");
+		int[] expected = graph.snapshot().getTargets();
+		graph = null;
+		start = System.nanoTime();
+		GraphBuilder<Integer, Double> builder = new GraphBuilder<Integer, Double>(numNodes, numEdges);
+		builder.addEdges(heads, tails, weights, numEdges);
+		graph = builder.build(i -> i);
+		elapsed = System.nanoTime()-start;
+		boolean same = Arrays.equals(expected, graph.snapshot().getTargets());
+		System.out.println("GraphBuilder to graph: "+elapsed/1000000+" ms, "+perSecond(numEdges, elapsed)+" edges/s, same as edge by edge: "+same);
+		graph = null;
+		start = System.nanoTime();
+		GraphSnapshot<Integer, Double> snapshot = builder.buildSnapshot();
+		elapsed = System.nanoTime()-start;
+		same = Arrays.equals(expected, snapshot.getTargets());
+		System.out.println("GraphBuilder to snapshot: "+elapsed/1000000+" ms, "+perSecond(numEdges, elapsed)+" edges/s, same as edge by edge: "+same);
+	}
+	
+	/**
+	 * Times loading a random edge-list file with 1 up to maxThreads threads, in edges per second,
+	 * checking that every edge joins the nodes labelled on its line
+	 */
+	static void benchImporter(int numNodes, int numEdges, int maxThreads) {
+		try {
+			Path path = Files.createTempFile("benchGraph", ".txt");
+			try {
+				Random random = new Random(42);
+				int[] heads = new int[numEdges];
+				int[] tails = new int[numEdges];
+				try (BufferedWriter out = Files.newBufferedWriter(path)) {
+					out.write("src,dst,weight\n");
+					for (int i = 0; i < numEdges; i++) {
+						heads[i] = random.nextInt(numNodes);
+						tails[i] = random.nextInt(numNodes);
+						out.write(heads[i]+","+tails[i]+","+(1+random.nextInt(100))+"\n");
+					}
+				}
+				System.out.println("Edge list file of "+numEdges+" edges, "+Files.size(path)/(1 << 20)+" MB");
+				for (int threads = 1; threads <= maxThreads; threads *= 2) {
+					EdgeListImporter importer = new EdgeListImporter(threads);
+					long start = System.nanoTime();
+					Graph<String, Double> graph = importer.load(path);
+					long elapsed = System.nanoTime()-start;
+					importer.shutdown();
+					boolean same = graph.numEdges() == numEdges;
+					for (int i = 0; i < numEdges && same; i++) {
+						Graph<String, Double>.Edge edge = graph.getEdge(i);
+						same = Integer.parseInt(edge.getHead().getData()) == heads[i] && Integer.parseInt(edge.getTail().getData()) == tails[i];
+					}
+					System.out.println("Edge list import, "+threads+" threads: "+elapsed/1000000+" ms, "+perSecond(numEdges, elapsed)
+							+" edges/s, same edges as the file: "+same);
+					if (threads < maxThreads && threads*2 > maxThreads) {
+						threads = maxThreads/2;
+					}
+				}
+			} finally {
+				Files.delete(path);
+			}
+		} catch (IOException exc) {
+			throw new UncheckedIOException(exc);
+		}
+	}
+	
+	/**
+	 * Converts a count over an elapsed time into a rate
+	 * @param count The count
+	 * @param nanos The elapsed time in nanoseconds
+	 * @return rate The count per second
+	 */
+	static long perSecond(long count, long nanos) {
+		return (long) (count*1e9/Math.max(nanos, 1));
+	}
+	
+	/**
+	 * Times writing a snapshot with node and edge payloads to a mapped graph file, opening it and searching
+	 * the mapped arrays, against loading the file back into a snapshot and a graph
+	 */
+	static void benchMappedGraph(GraphSnapshot<Integer, Double> snapshot) {
+		try {
+			Path path = Files.createTempFile("benchGraph", ".graph");
+			try {
+				long start = System.nanoTime();
+				MappedGraph.write(snapshot, path, data -> ByteBuffer.allocate(4).putInt(data).array(),
+						data -> ByteBuffer.allocate(8).putDouble(data).array());
+				System.out.println("Mapped graph, wrote "+Files.size(path)/(1 << 20)+" MB in "+millis(start)+" ms");
+				start = System.nanoTime();
+				MappedGraph mapped = MappedGraph.open(path);
+				System.out.println("Mapped graph, opened in "+(System.nanoTime()-start)/1000+" us");
+				start = System.nanoTime();
+				int[] levels = mapped.bfs(0);
+				System.out.println("Mapped graph, first BFS: "+millis(start)+" ms");
+				start = System.nanoTime();
+				mapped.bfs(0);
+				System.out.println("Mapped graph, second BFS: "+millis(start)+" ms");
+				start = System.nanoTime();
+				boolean same = Arrays.equals(levels, snapshot.bfs(0));
+				System.out.println("Snapshot BFS: "+millis(start)+" ms, same levels as mapped: "+same);
+				start = System.nanoTime();
+				double[] distances = mapped.dijkstra(0, -1);
+				System.out.println("Mapped graph, Dijkstra: "+millis(start)+" ms, same distances as snapshot: "
+						+Arrays.equals(distances, snapshot.dijkstra(0)));
+				start = System.nanoTime();
+				mapped.toSnapshot();
+				System.out.println("Mapped graph, copied to a snapshot in "+millis(start)+" ms");
+				start = System.nanoTime();
+				Graph<Integer, Double> graph = mapped.toGraph(ByteBuffer::getInt, ByteBuffer::getDouble);
+				System.out.println("Mapped graph, loaded into a graph with data in "+millis(start)+" ms, same node data: "
+						+graph.getNode(snapshot.numNodes()-1).getData().equals(snapshot.getNode(snapshot.numNodes()-1).getData()));
+			} finally {
+				Files.delete(path);
+			}
+		} catch (IOException exc) {
+			throw new UncheckedIOException(exc);
+		}
+	}
+	
+	/**
+	 * Times breadth-first search with 1 up to maxThreads threads, checking each against the serial BFT
+	 */
+	static void benchParallelBFS(Graph<Integer, Double> graph, GraphSnapshot<Integer, Double> snapshot, int maxThreads) {
+		long start = System.nanoTime();
+		HashSet<Graph<Integer, Double>.Edge> serial = graph.BFT(graph.getNode(0), false);
+		System.out.println("BFT: "+millis(start)+" ms");
+		int[] serialParents = new ParallelBFS(1).run(snapshot, 0).getParents();
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			ParallelBFS search = new ParallelBFS(threads);
+			search.run(snapshot, 0); // Warm up
+			start = System.nanoTime();
+			BFSTree<Integer, Double> tree = search.run(snapshot, 0);
+			long elapsed = millis(start);
+			search.shutdown();
+			boolean same = Arrays.equals(serialParents, tree.getParents())
+					&& new HashSet<Graph<Integer, Double>.Edge>(tree.getTreeEdges()).equals(serial);
+			System.out.println("Parallel BFS, "+threads+" threads: "+elapsed+" ms, same tree as BFT: "+same);
+			if (threads < maxThreads && threads*2 > maxThreads) {
+				threads = maxThreads/2;
+			}
+		}
+	}
+	
+	/**
+	 * Times component labelling with 1 up to maxThreads threads, checking each against the serial labelling
+	 */
+	static void benchComponents(GraphSnapshot<Integer, Double> snapshot, int maxThreads) {
+		long start = System.nanoTime();
+		ComponentLabels<Integer, Double> serial = snapshot.components();
+		System.out.println("Serial components: "+millis(start)+" ms, "+serial.numComponents()+" components, sizes "
+				+serial.getSizeHistogram());
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			ParallelComponents labelling = new ParallelComponents(threads);
+			labelling.run(snapshot); // Warm up
+			start = System.nanoTime();
+			ComponentLabels<Integer, Double> labels = labelling.run(snapshot);
+			long elapsed = millis(start);
+			labelling.shutdown();
+			System.out.println("Parallel components, "+threads+" threads: "+elapsed+" ms, same labels as serial: "
+					+Arrays.equals(serial.getLabels(), labels.getLabels()));
+			if (threads < maxThreads && threads*2 > maxThreads) {
+				threads = maxThreads/2;
+			}
+		}
+	}
+	
+	/**
+	 * Times Kruskal's algorithm, then Boruvka's with 1 up to maxThreads threads, checking each chooses the same edges
+	 */
+	static void benchSpanningForest(GraphSnapshot<Integer, Double> snapshot, int maxThreads) {
+		MinimumSpanningForest.kruskal(snapshot); // Warm up
+		long start = System.nanoTime();
+		SpanningForest<Integer, Double> kruskal = MinimumSpanningForest.kruskal(snapshot);
+		System.out.println("Kruskal: "+millis(start)+" ms, "+kruskal);
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			MinimumSpanningForest engine = new MinimumSpanningForest(threads);
+			engine.boruvka(snapshot); // Warm up
+			start = System.nanoTime();
+			SpanningForest<Integer, Double> forest = engine.boruvka(snapshot);
+			long elapsed = millis(start);
+			engine.shutdown();
+			System.out.println("Boruvka, "+threads+" threads: "+elapsed+" ms, same edges as Kruskal: "
+					+Arrays.equals(kruskal.getEdgeIds(), forest.getEdgeIds()));
+			if (threads < maxThreads && threads*2 > maxThreads) {
+				threads = maxThreads/2;
+			}
+		}
+	}
+	
+	/**
+	 * Times delta-stepping with 1 up to maxThreads threads, checking each against Dijkstra's algorithm
+	 */
+	static void benchDeltaStepping(GraphSnapshot<Integer, Double> snapshot, int maxThreads) {
+		long start = System.nanoTime();
+		SearchStats stats = new SearchStats();
+		double[] serial = snapshot.dijkstra(0, -1, null, stats);
+		System.out.println("Dijkstra: "+millis(start)+" ms, "+stats);
+		double delta = DeltaStepping.defaultDelta(snapshot);
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			DeltaStepping search = new DeltaStepping(threads);
+			search.run(snapshot, 0, delta, null, null); // Warm up
+			stats.reset();
+			start = System.nanoTime();
+			double[] distances = search.run(snapshot, 0, delta, null, stats);
+			long elapsed = millis(start);
+			search.shutdown();
+			double error = 0;
+			for (int i = 0; i < serial.length; i++) {
+				if (serial[i] != distances[i]) {
+					error = Math.max(error, Math.abs(serial[i]-distances[i]));
+				}
+			}
+			System.out.println("Delta-stepping, delta "+delta+", "+threads+" threads: "+elapsed+" ms, "+stats
+					+", largest difference from Dijkstra: "+error);
+			if (threads < maxThreads && threads*2 > maxThreads) {
+				threads = maxThreads/2;
+			}
+		}
+	}
+	
+	/**
+	 * Times a many-to-many distance matrix between random nodes with 1 up to maxThreads threads
+	 */
+	static void benchDistanceMatrix(GraphSnapshot<Integer, Double> snapshot, int size, int maxThreads) {
+		Random random = new Random(3);
+		int[] sources = new int[size];
+		int[] targets = new int[size];
+		for (int i = 0; i < size; i++) {
+			sources[i] = random.nextInt(snapshot.numNodes());
+			targets[i] = random.nextInt(snapshot.numNodes());
+		}
+		double[] serial = null;
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			DistanceMatrix matrix = new DistanceMatrix(threads);
+			matrix.computeFlat(snapshot, sources, targets, null); // Warm up
+			SearchStats stats = new SearchStats();
+			long start = System.nanoTime();
+			double[] distances = matrix.computeFlat(snapshot, sources, targets, stats);
+			long elapsed = millis(start);
+			matrix.shutdown();
+			if (serial == null) {
+				serial = distances;
+			}
+			System.out.println("Distance matrix "+size+"x"+size+", "+threads+" threads: "+elapsed+" ms, "+stats
+					+", same as 1 thread: "+Arrays.equals(serial, distances));
+			if (threads < maxThreads && threads*2 > maxThreads) {
+				threads = maxThreads/2;
+			}
+		}
+	}
+	
+	/**
+	 * Times point-to-point queries between random pairs with one-way and bidirectional Dijkstra
+	 */
+	static void benchBidirectional(Graph<Integer, Double> graph, int queries) {
+		Random random = new Random(7);
+		SearchStats oneWay = new SearchStats();
+		SearchStats bidirectional = new SearchStats();
+		long oneWayTime = 0;
+		long bidirectionalTime = 0;
+		int mismatches = 0;
+		for (int q = 0; q < queries; q++) {
+			Graph<Integer, Double>.Node from = graph.getNode(random.nextInt(graph.numNodes()));
+			Graph<Integer, Double>.Node to = graph.getNode(random.nextInt(graph.numNodes()));
+			long start = System.nanoTime();
+			double expected = Graph.distances(graph, from, to, oneWay);
+			oneWayTime += System.nanoTime()-start;
+			start = System.nanoTime();
+			double distance = Graph.bidirectionalDistance(graph, from, to, bidirectional);
+			bidirectionalTime += System.nanoTime()-start;
+			if (distance != expected) {
+				mismatches++;
+			}
+		}
+		System.out.println("Dijkstra, "+queries+" queries: "+oneWayTime/1000000+" ms, "+oneWay);
+		System.out.println("Bidirectional Dijkstra, "+queries+" queries: "+bidirectionalTime/1000000+" ms, "+bidirectional
+				+", mismatches: "+mismatches);
+	}
+	
+	/**
+	 * Times building a connectivity index, answering queries with it, and one BFT for comparison
+	 */
+	static void benchConnectivity(Graph<Integer, Double> graph, int queries) {
+		long start = System.nanoTime();
+		ConnectivityIndex<Integer, Double> index = new ConnectivityIndex<Integer, Double>(graph);
+		System.out.println("Connectivity index: "+millis(start)+" ms, "+index.numComponents()+" components, largest "
+				+index.getComponentSizes()[0]);
+		Random random = new Random(9);
+		int connected = 0;
+		start = System.nanoTime();
+		for (int q = 0; q < queries; q++) {
+			if (index.connected(graph.getNode(random.nextInt(graph.numNodes())), graph.getNode(random.nextInt(graph.numNodes())))) {
+				connected++;
+			}
+		}
+		long elapsed = System.nanoTime()-start;
+		index.detach();
+		System.out.println("Connectivity index, "+queries+" queries: "+elapsed/queries+" ns per query, "+connected+" connected");
+		start = System.nanoTime();
+		graph.BFT(graph.getNode(0), false);
+		System.out.println("One BFT for comparison: "+millis(start)+" ms");
+	}
+	
+	/**
+	 * Times random edge changes with and without read views being published, then checks
+	 * that a view taken before the changes still answers as the graph did then
+	 */
+	static void benchReadView(int numNodes, int numEdges, int changes) {
+		Graph<Integer, Double> graph = randomGraph(numNodes, numEdges, 11);
+		randomChanges(graph, changes, 0, 12); // Warm up
+		long start = System.nanoTime();
+		randomChanges(graph, changes, 0, 13);
+		System.out.println("Read view, "+changes+" changes without views: "+millis(start)+" ms");
+		start = System.nanoTime();
+		ReadView<Integer, Double> before = graph.readView();
+		System.out.println("Read view, first view of "+numEdges+" edges: "+millis(start)+" ms");
+		int[] levels = before.bfs(0);
+		for (int every : new int[] {100000, 1000, 10}) {
+			start = System.nanoTime();
+			randomChanges(graph, changes, every, 14);
+			System.out.println("Read view, "+changes+" changes publishing a view every "+every+": "+millis(start)+" ms");
+		}
+		System.out.println("Read view, old view unchanged after "+(3*changes)+" more changes: "+Arrays.equals(levels, before.bfs(0))
+				+", version "+before.getVersion()+" against "+graph.readView().getVersion());
+	}
+	
+	/**
+	 * Makes random changes to a graph: replacing an edge, or changing an edge's weight
+	 * @param graph The graph
+	 * @param changes The number of changes
+	 * @param every Publishes a read view after this many changes, or never if 0
+	 * @param seed The random seed
+	 */
+	static void randomChanges(Graph<Integer, Double> graph, int changes, int every, long seed) {
+		Random random = new Random(seed);
+		for (int c = 1; c <= changes; c++) {
+			Graph<Integer, Double>.Edge edge = graph.getEdge(random.nextInt(graph.numEdges()));
+			if (random.nextBoolean()) {
+				graph.removeEdge(edge);
+				graph.addWeightedEdge(1+random.nextInt(100), graph.getNode(random.nextInt(graph.numNodes())),
+						graph.getNode(random.nextInt(graph.numNodes())));
+			} else {
+				edge.setWeight(1+random.nextInt(100));
+			}
+			if (every > 0 && c%every == 0) {
+				graph.readView();
+			}
+		}
+	}
+	
+	/**
+	 * Builds a side by side grid of jittered points, joined to their right and lower neighbors
+	 * by edges costing their length times a random factor from 1 to 1.2
+	 * @param side The number of points along each side
+	 * @param seed The random seed
+	 * @return graph
+	 */
+	static Graph<DisplayNodeData, DisplayEdgeData> spatialGraph(int side, long seed) {
+		Random random = new Random(seed);
+		Graph<DisplayNodeData, DisplayEdgeData> graph = new Graph<DisplayNodeData, DisplayEdgeData>(DisplayEdgeData::getCost);
+		for (int y = 0; y < side; y++) {
+			for (int x = 0; x < side; x++) {
+				Point point = new Point(x*20+random.nextInt(10), y*20+random.nextInt(10));
+				graph.addNode(new DisplayNodeData(point, x+","+y, Color.RED));
+			}
+		}
+		for (int y = 0; y < side; y++) {
+			for (int x = 0; x < side; x++) {
+				Graph<DisplayNodeData, DisplayEdgeData>.Node node = graph.getNode(y*side+x);
+				if (x+1 < side) {
+					addSpatialEdge(graph, node, graph.getNode(y*side+x+1), random);
+				}
+				if (y+1 < side) {
+					addSpatialEdge(graph, node, graph.getNode((y+1)*side+x), random);
+				}
+			}
+		}
+		return graph;
+	}
+	
+	/**
+	 * Joins two points by an edge costing their length times a random factor from 1 to 1.2
+	 */
+	static void addSpatialEdge(Graph<DisplayNodeData, DisplayEdgeData> graph, Graph<DisplayNodeData, DisplayEdgeData>.Node head,
+			Graph<DisplayNodeData, DisplayEdgeData>.Node tail, Random random) {
+		Point p1 = head.getData().getPoint();
+		Point p2 = tail.getData().getPoint();
+		graph.addEdge(new DisplayEdgeData(p1, p2, Color.BLACK, p1.distance(p2)*(1+random.nextDouble()/5)), head, tail);
+	}
+	
+	/**
+	 * Compares the nodes settled by Dijkstra and A* with the Euclidean heuristic on a spatial graph
+	 */
+	static void benchAStar(int side, int queries) {
+		Graph<DisplayNodeData, DisplayEdgeData> graph = spatialGraph(side, 11);
+		ToDoubleBiFunction<DisplayNodeData, DisplayNodeData> heuristic = DisplayNodeData.euclideanHeuristic(graph);
+		Random random = new Random(7);
+		SearchStats dijkstra = new SearchStats();
+		SearchStats aStar = new SearchStats();
+		long dijkstraTime = 0;
+		long aStarTime = 0;
+		int mismatches = 0;
+		for (int q = 0; q < queries; q++) {
+			Graph<DisplayNodeData, DisplayEdgeData>.Node from = graph.getNode(random.nextInt(graph.numNodes()));
+			Graph<DisplayNodeData, DisplayEdgeData>.Node to = graph.getNode(random.nextInt(graph.numNodes()));
+			long start = System.nanoTime();
+			double expected = Graph.distances(graph, from, to, dijkstra);
+			dijkstraTime += System.nanoTime()-start;
+			start = System.nanoTime();
+			GraphPath<DisplayNodeData, DisplayEdgeData> path = Graph.aStarPath(graph, from, to, heuristic, aStar);
+			aStarTime += System.nanoTime()-start;
+			if (Math.abs(path.getCost()-expected) > 1e-9*expected) {
+				mismatches++;
+			}
+		}
+		System.out.println("Dijkstra on a "+side+"x"+side+" grid, "+queries+" queries: "+dijkstraTime/1000000+" ms, "+dijkstra);
+		System.out.println("A*, "+queries+" queries: "+aStarTime/1000000+" ms, "+aStar+", mismatches: "+mismatches);
+	}
+	
+	/**
+	 * Builds a side by side grid of streets where every tenth row and column is a highway that
+	 * costs a fifth as much to travel, with each cost varied by a random factor from 1 to 1.2
+	 * @param side The number of nodes along each side
+	 * @param seed The random seed
+	 * @return graph
+	 */
+	static Graph<Integer, Double> roadGraph(int side, long seed) {
+		Random random = new Random(seed);
+		Graph<Integer, Double> graph = new Graph<Integer, Double>();
+		for (int i = 0; i < side*side; i++) {
+			graph.addNode(i);
+		}
+		for (int y = 0; y < side; y++) {
+			for (int x = 0; x < side; x++) {
+				if (x+1 < side) {
+					double cost = (y%10 == 0 ? 0.2 : 1)*(1+random.nextDouble()/5);
+					graph.addWeightedEdge(cost, graph.getNode(y*side+x), graph.getNode(y*side+x+1));
+				}
+				if (y+1 < side) {
+					double cost = (x%10 == 0 ? 0.2 : 1)*(1+random.nextDouble()/5);
+					graph.addWeightedEdge(cost, graph.getNode(y*side+x), graph.getNode((y+1)*side+x));
+				}
+			}
+		}
+		return graph;
+	}
+	
+	/**
+	 * Times building, saving, loading and querying a contraction hierarchy of a road-like graph
+	 */
+	static void benchContractionHierarchy(int side, int queries) {
+		Graph<Integer, Double> graph = roadGraph(side, 11);
+		GraphSnapshot<Integer, Double> snapshot = graph.snapshot();
+		long start = System.nanoTime();
+		ContractionHierarchy hierarchy = graph.contractionHierarchy();
+		System.out.println("Contraction hierarchy of a "+side+"x"+side+" road grid: "+millis(start)+" ms, "
+				+hierarchy.numShortcuts()+" shortcuts");
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			hierarchy.write(new DataOutputStream(bytes));
+			start = System.nanoTime();
+			hierarchy = ContractionHierarchy.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+			System.out.println("Loaded "+bytes.size()+" bytes in "+millis(start)+" ms");
+		} catch (IOException exc) {
+			throw new UncheckedIOException(exc);
+		}
+		Random random = new Random(7);
+		int[] from = new int[queries];
+		int[] to = new int[queries];
+		for (int q = 0; q < queries; q++) {
+			from[q] = random.nextInt(graph.numNodes());
+			to[q] = random.nextInt(graph.numNodes());
+		}
+		for (int q = 0; q < queries; q++) {
+			hierarchy.distance(from[q], to[q]); // Warm up
+		}
+		SearchStats stats = new SearchStats();
+		start = System.nanoTime();
+		double[] distances = new double[queries];
+		for (int q = 0; q < queries; q++) {
+			distances[q] = hierarchy.distance(from[q], to[q], stats);
+		}
+		long elapsed = System.nanoTime()-start;
+		int mismatches = 0;
+		for (int q = 0; q < Math.min(queries, 50); q++) {
+			if (Math.abs(snapshot.dijkstra(from[q], to[q], null, null)[to[q]]-distances[q]) > 1e-9*distances[q]) {
+				mismatches++;
+			}
+		}
+		System.out.println("Contraction hierarchy, "+queries+" queries: "+elapsed/1000/queries+" us per query, "+stats
+				+", mismatches in the first 50: "+mismatches);
+	}
+	
+	/**
+	 * Times keeping shortest paths up to date through random weight changes on a road-like graph,
+	 * against rerunning Dijkstra's algorithm after each change
+	 */
+	static void benchDynamicShortestPaths(int side, int changes) {
+		Graph<Integer, Double> graph = roadGraph(side, 11);
+		Graph<Integer, Double>.Node source = graph.getNode(graph.numNodes()/2);
+		DynamicShortestPaths<Integer, Double> paths = new DynamicShortestPaths<Integer, Double>(graph, source);
+		long initial = paths.getStats().getSettled();
+		paths.getStats().reset();
+		Random random = new Random(5);
+		long start = System.nanoTime();
+		for (int i = 0; i < changes; i++) {
+			Graph<Integer, Double>.Edge edge = graph.getEdge(random.nextInt(graph.numEdges()));
+			edge.setWeight(edge.getWeight()*(0.5+random.nextDouble()));
+		}
+		long elapsed = millis(start);
+		int mismatches = 0;
+		ShortestPathTree<Integer, Double> fresh = Graph.shortestPaths(graph, source);
+		for (int i = 0; i < graph.numNodes(); i++) {
+			if (fresh.distanceTo(graph.getNode(i)) != paths.distanceTo(graph.getNode(i))) {
+				mismatches++;
+			}
+		}
+		paths.detach();
+		System.out.println("Dynamic shortest paths, "+changes+" weight changes: "+elapsed+" ms, "+paths.getStats()
+				+", against "+initial*changes+" settled by rerunning, mismatches: "+mismatches);
+	}
+	
+	/**
+	 * Gets the milliseconds elapsed since a start time
+	 * @param start The start time from System.nanoTime
+	 * @return millis
+	 */
+	static long millis(long start) {
+		return (System.nanoTime()-start)/1000000;
+	}
+}
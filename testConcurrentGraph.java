@@ -0,0 +1,135 @@
+import java.util.*;
+	/**
+	 * Stress test for the concurrent graph: several threads add and remove nodes and edges while
+	 * another keeps validating the graph and taking snapshots
+	 * @author Jiamin Li
+	 * @version 10/17/26
+	 */
+
+public class testConcurrentGraph {
+
+	public static void main(String[] args) throws InterruptedException {
+		int numThreads = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(4, 2*Runtime.getRuntime().availableProcessors());
+		int opsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+		int sharedNodes = 1000;
+
+		ConcurrentGraph<Integer, Double> graph = new ConcurrentGraph<Integer, Double>();
+		// Listeners run one at a time, so plain counters are enough
+		long[] events = new long[4];
+		graph.addListener(new GraphListener<Integer, Double>() {
+			public void nodeAdded(Graph<Integer, Double>.Node node) {
+				events[0]++;
+			}
+			public void nodeRemoved(Graph<Integer, Double>.Node node, int index) {
+				events[1]++;
+			}
+			public void edgeAdded(Graph<Integer, Double>.Edge edge) {
+				events[2]++;
+			}
+			public void edgeRemoved(Graph<Integer, Double>.Edge edge, int index) {
+				events[3]++;
+			}
+		});
+		// Shared nodes are never removed, each thread removes only the nodes it added
+		ArrayList<Graph<Integer, Double>.Node> shared = new ArrayList<Graph<Integer, Double>.Node>();
+		for (int i = 0; i < sharedNodes; i++) {
+			shared.add(graph.addNode(i));
+		}
+
+		List<String> failures = Collections.synchronizedList(new ArrayList<String>());
+		long[] added = new long[numThreads];
+		Thread[] workers = new Thread[numThreads];
+		for (int t = 0; t < numThreads; t++) {
+			int id = t;
+			workers[t] = new Thread(() -> {
+				Random random = new Random(id);
+				ArrayList<Graph<Integer, Double>.Node> own = new ArrayList<Graph<Integer, Double>.Node>();
+				ArrayList<Graph<Integer, Double>.Edge> edges = new ArrayList<Graph<Integer, Double>.Edge>();
+				for (int op = 0; op < opsPerThread; op++) {
+					int choice = random.nextInt(100);
+					Graph<Integer, Double>.Node a = pick(shared, own, random);
+					Graph<Integer, Double>.Node b = pick(shared, own, random);
+					if (choice < 40) {
+						Graph<Integer, Double>.Edge edge = graph.addWeightedEdge(1+random.nextInt(100), a, b);
+						if (edge != null) {
+							edges.add(edge);
+							added[id]++;
+						} else if (graph.contains(a) && graph.contains(b)) {
+							failures.add("Edge between two live nodes was refused");
+						}
+					} else if (choice < 60 && !edges.isEmpty()) {
+						graph.removeEdge(edges.remove(random.nextInt(edges.size())));
+					} else if (choice < 65) {
+						own.add(graph.addNode(sharedNodes+op));
+					} else if (choice < 67 && !own.isEmpty()) {
+						graph.removeNode(own.remove(random.nextInt(own.size())));
+					} else if (choice < 80) {
+						for (Graph<Integer, Double>.Edge edge : graph.edgesOf(a)) {
+							if (edge.getHead() != a && edge.getTail() != a) {
+								failures.add("Edge listed at a node it does not touch");
+							}
+						}
+					} else {
+						Graph<Integer, Double>.Edge edge = graph.getEdgeRef(a, b);
+						if (edge != null && edge.oppositeTo(a) != b) {
+							failures.add("Edge found between the wrong nodes");
+						}
+					}
+				}
+			});
+		}
+
+		long start = System.nanoTime();
+		for (Thread worker : workers) {
+			worker.start();
+		}
+		Thread checker = new Thread(() -> {
+			int rounds = 0;
+			while (Arrays.stream(workers).anyMatch(Thread::isAlive)) {
+				List<String> problems = graph.validate();
+				if (!problems.isEmpty()) {
+					failures.add("Validation round "+rounds+" found "+problems);
+				}
+				GraphSnapshot<Integer, Double> snapshot = graph.snapshot();
+				if (snapshot.getTargets().length != 2*snapshot.numEdges()) {
+					failures.add("Snapshot "+rounds+" lists "+snapshot.getTargets().length+" entries for "+snapshot.numEdges()+" edges");
+				}
+				rounds++;
+			}
+			System.out.println("Checker ran "+rounds+" validations");
+		});
+		checker.start();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		checker.join();
+		long elapsed = (System.nanoTime()-start)/1000000;
+
+		long totalAdded = Arrays.stream(added).sum();
+		if (events[2] != totalAdded) {
+			failures.add(totalAdded+" edges were added but listeners saw "+events[2]);
+		}
+		if (graph.numEdges() != events[2]-events[3]) {
+			failures.add("Graph has "+graph.numEdges()+" edges but listeners saw "+events[2]+" added and "+events[3]+" removed");
+		}
+		if (graph.numNodes() != events[0]-events[1]) {
+			failures.add("Graph has "+graph.numNodes()+" nodes but listeners saw "+events[0]+" added and "+events[1]+" removed");
+		}
+		failures.addAll(graph.validate());
+		System.out.println(numThreads+" threads ran "+(long) numThreads*opsPerThread+" operations in "+elapsed+" ms, leaving "
+				+graph.numNodes()+" nodes and "+graph.numEdges()+" edges");
+		System.out.println(failures.isEmpty() ? "No failures." : failures.size()+" failures, first: "+failures.get(0));
+		graph.check();
+	}
+
+	/**
+	 * Picks a shared node, or one of the thread's own nodes a fifth of the time
+	 */
+	static Graph<Integer, Double>.Node pick(ArrayList<Graph<Integer, Double>.Node> shared,
+			ArrayList<Graph<Integer, Double>.Node> own, Random random) {
+		if (!own.isEmpty() && random.nextInt(5) == 0) {
+			return own.get(random.nextInt(own.size()));
+		}
+		return shared.get(random.nextInt(shared.size()));
+	}
+}
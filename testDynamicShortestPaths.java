@@ -0,0 +1,140 @@
+import java.util.*;
+	/**
+	 * Regression test for dynamic shortest paths: after every random edge insertion, deletion, reweighting,
+	 * node insertion and node removal, each repaired distance and path must match a fresh Dijkstra search
+	 * @author Jiamin Li
+	 * @version 10/17/26
+	 */
+
+public class testDynamicShortestPaths {
+
+	public static void main(String[] args) {
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+		List<String> failures = new ArrayList<String>();
+		Random random = new Random(17);
+
+		Graph<Integer, Double> graph = new Graph<Integer, Double>();
+		for (int i = 0; i < 60; i++) {
+			graph.addNode(i);
+		}
+		// Few edges, so removals often cut nodes off and later insertions reconnect them
+		for (int i = 0; i < 90; i++) {
+			graph.addWeightedEdge(weight(random), graph.getNode(random.nextInt(60)), graph.getNode(random.nextInt(60)));
+		}
+		Graph<Integer, Double>.Node source = graph.getNode(0);
+		DynamicShortestPaths<Integer, Double> paths = new DynamicShortestPaths<Integer, Double>(graph, source);
+		String problem = compare(graph, source, paths);
+		if (problem != null) {
+			failures.add("Before any change: "+problem);
+		}
+
+		int nextData = 60;
+		for (int round = 0; round < rounds && failures.size() < 10; round++) {
+			int op = random.nextInt(20);
+			String change;
+			if (op < 7) {
+				Graph<Integer, Double>.Node head = randomNode(graph, random);
+				// Parallel edges and self-loops take the paths where an edge cannot shorten anything
+				Graph<Integer, Double>.Node tail = random.nextInt(10) == 0 ? head : randomNode(graph, random);
+				graph.addWeightedEdge(weight(random), head, tail);
+				change = "adding an edge from "+head.getData()+" to "+tail.getData();
+			} else if (op < 11 && graph.numEdges() > 0) {
+				Graph<Integer, Double>.Edge edge = graph.getEdge(random.nextInt(graph.numEdges()));
+				graph.removeEdge(edge);
+				change = "removing the edge from "+edge.getHead().getData()+" to "+edge.getTail().getData();
+			} else if (op < 16 && graph.numEdges() > 0) {
+				Graph<Integer, Double>.Edge edge = graph.getEdge(random.nextInt(graph.numEdges()));
+				double oldWeight = edge.getWeight();
+				edge.setWeight(weight(random));
+				change = "reweighting the edge from "+edge.getHead().getData()+" to "+edge.getTail().getData()
+						+" from "+oldWeight+" to "+edge.getWeight();
+			} else if (op < 18) {
+				Graph<Integer, Double>.Node node = graph.addNode(nextData++);
+				if (random.nextBoolean()) {
+					graph.addWeightedEdge(weight(random), node, randomNode(graph, random));
+				}
+				change = "adding node "+node.getData();
+			} else if (graph.numNodes() > 20) {
+				// Removing a node moves the last node into its index, which the repair must follow
+				Graph<Integer, Double>.Node node = randomNode(graph, random);
+				if (node == source) {
+					continue;
+				}
+				change = "removing node "+node.getData()+" of degree "+node.degree();
+				graph.removeNode(node);
+			} else {
+				continue;
+			}
+			problem = compare(graph, source, paths);
+			if (problem != null) {
+				failures.add("Round "+round+", after "+change+": "+problem);
+			}
+		}
+		failures.addAll(graph.validate());
+
+		// Removing the source leaves every node unreachable
+		graph.removeNode(source);
+		for (int i = 0; i < graph.numNodes(); i++) {
+			Graph<Integer, Double>.Node node = graph.getNode(i);
+			if (paths.distanceTo(node) != Double.POSITIVE_INFINITY || paths.pathTo(node) != null) {
+				failures.add("Node "+node.getData()+" is still reachable after the source was removed");
+				break;
+			}
+		}
+		paths.detach();
+
+		System.out.println("Checked "+rounds+" changes on a graph of "+graph.numNodes()+" nodes and "+graph.numEdges()+" edges");
+		System.out.println(failures.isEmpty() ? "No failures." : failures.size()+" failures, first: "+failures.get(0));
+	}
+
+	/**
+	 * Checks every node's distance and path against a fresh search, and that each path is a real one
+	 * @return problem A description of the first difference, or null if there is none
+	 */
+	static String compare(Graph<Integer, Double> graph, Graph<Integer, Double>.Node source, DynamicShortestPaths<Integer, Double> paths) {
+		ShortestPathTree<Integer, Double> fresh = Graph.shortestPaths(graph, source);
+		for (int i = 0; i < graph.numNodes(); i++) {
+			Graph<Integer, Double>.Node node = graph.getNode(i);
+			double expected = fresh.distanceTo(node);
+			if (paths.distanceTo(node) != expected) {
+				return "Node "+node.getData()+" is at "+paths.distanceTo(node)+" against "+expected;
+			}
+			GraphPath<Integer, Double> path = paths.pathTo(node);
+			if (expected == Double.POSITIVE_INFINITY) {
+				if (path != null) {
+					return "Node "+node.getData()+" is unreachable but has the path "+path;
+				}
+				continue;
+			}
+			if (path == null || path.getCost() != expected || path.getStart() != source || path.getEnd() != node) {
+				return "Node "+node.getData()+" has the path "+path+" against a cost of "+expected;
+			}
+			// Walk the path, checking each edge is in the graph, joins its neighbors and adds up to the cost
+			double cost = 0;
+			ArrayList<Graph<Integer, Double>.Node> nodes = path.getNodes();
+			ArrayList<Graph<Integer, Double>.Edge> edges = path.getEdges();
+			for (int j = 0; j < edges.size(); j++) {
+				Graph<Integer, Double>.Edge edge = edges.get(j);
+				if (!graph.contains(edge) || edge.oppositeTo(nodes.get(j)) != nodes.get(j+1)) {
+					return "Node "+node.getData()+" has the path "+path+" through a missing edge";
+				}
+				cost += edge.getWeight();
+			}
+			if (cost != expected) {
+				return "Node "+node.getData()+" has a path whose edges add up to "+cost+" against "+expected;
+			}
+		}
+		return null;
+	}
+
+	static Graph<Integer, Double>.Node randomNode(Graph<Integer, Double> graph, Random random) {
+		return graph.getNode(random.nextInt(graph.numNodes()));
+	}
+
+	/**
+	 * Gives a weight in quarters, so sums along paths are exact and distances can be compared with ==
+	 */
+	static double weight(Random random) {
+		return (1+random.nextInt(40))/4.0;
+	}
+}
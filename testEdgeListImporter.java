@@ -0,0 +1,195 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+	/**
+	 * Regression test for the edge list importer: lines that straddle chunk boundaries, CRLF endings, headers,
+	 * comments and malformed lines must load exactly as a line-by-line reading would, with any worker count
+	 * @author Jiamin Li
+	 * @version 10/17/26
+	 */
+
+public class testEdgeListImporter {
+
+	public static void main(String[] args) throws IOException {
+		List<String> failures = new ArrayList<String>();
+		Path path = Files.createTempFile("testEdgeListImporter", ".txt");
+		try {
+			checkBoundaries(path, failures);
+			checkLines(path, failures);
+		} finally {
+			Files.deleteIfExists(path);
+		}
+		System.out.println(failures.isEmpty() ? "No failures." : failures.size()+" failures, first: "+failures.get(0));
+	}
+
+	/**
+	 * Writes a file spanning several chunks, with a line placed at each kind of boundary, and loads it
+	 * with one worker and with several
+	 */
+	static void checkBoundaries(Path path, List<String> failures) throws IOException {
+		int chunk = EdgeListImporter.CHUNK_SIZE;
+		ByteArrayOutputStream file = new ByteArrayOutputStream(4*chunk+chunk/2);
+		List<String> expected = new ArrayList<String>();
+		Random random = new Random(25);
+		edges(file, expected, random, 1000);
+		// A line that starts a few bytes before the first boundary and ends after it
+		padTo(file, chunk-5);
+		edge(file, expected, "straddle", "boundary", 2.5, "\n");
+		edges(file, expected, random, 1000);
+		// A line that starts exactly on the second boundary, after one ending just before it
+		padTo(file, 2*chunk);
+		edge(file, expected, "starts", "boundary", 3, "\n");
+		edges(file, expected, random, 1000);
+		// A CRLF line whose \r ends one chunk and whose \n starts the next
+		String split = "crlf,boundary,4";
+		padTo(file, 3*chunk-1-split.length());
+		edge(file, expected, "crlf", "boundary", 4, "\r\n");
+		edges(file, expected, random, 1000);
+		// A line longer than a whole chunk, which the chunk it starts in must read past its end to finish
+		char[] label = new char[chunk+chunk/4];
+		Arrays.fill(label, 'L');
+		edge(file, expected, new String(label), "long", 5, "\n");
+		edges(file, expected, random, 1000);
+		// The last line has no line break
+		edge(file, expected, "last", "line", 6, "");
+		Files.write(path, file.toByteArray());
+
+		for (int parallelism : new int[] {1, 4}) {
+			EdgeListImporter importer = new EdgeListImporter(parallelism);
+			try {
+				Graph<String, Double> graph = importer.load(path);
+				String problem = compare(graph, expected);
+				if (problem != null) {
+					failures.add("With "+parallelism+" workers: "+problem);
+				}
+				failures.addAll(graph.validate());
+			} finally {
+				importer.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Loads small files of headers, comments, CRLF lines and malformed lines
+	 */
+	static void checkLines(Path path, List<String> failures) throws IOException {
+		// A header with a weight column is skipped, as are comments, blank lines and a trailing \r
+		expectEdges(path, "src,dst,weight\r\n# comment\r\n\r\n% comment\r\na,b,2\r\n  c , d , 3.5 \r\n",
+				Arrays.asList("a b 2.0", "c d 3.5"), failures);
+		// A header without weights is recognised by its column names, in any case
+		expectEdges(path, "Source\tTarget\na\tb\nb c\n", Arrays.asList("a b 1.0", "b c 1.0"), failures);
+		// The header is the first line after any comments and blank lines, with or without a weight column
+		expectEdges(path, "% x\nsrc dst\na b\n", Arrays.asList("a b 1.0"), failures);
+		expectEdges(path, "# comment\n\n  \r\nsrc,dst,weight\na,b,2\n", Arrays.asList("a b 2.0"), failures);
+		// A first line of ordinary labels is an edge, and column names after the first line are labels
+		expectEdges(path, "x,y\nsrc,dst\n", Arrays.asList("x y 1.0", "src dst 1.0"), failures);
+		// Fields past the weight are ignored, and a self-loop is kept
+		expectEdges(path, "a a 7 extra fields\n", Arrays.asList("a a 7.0"), failures);
+
+		expectMalformed(path, "a,b,1\nlonely\n", "a line with one field", failures);
+		expectMalformed(path, "a,,1\n", "a line with an empty label", failures);
+		expectMalformed(path, "a,b,1\nc,d,heavy\n", "a weight that is not a number after the first line", failures);
+		expectMalformed(path, "# comment\na,b,x\n", "a first line whose weight is not a number", failures);
+		expectMalformed(path, "a,b,1\r\n,\r\n", "a line of only a comma", failures);
+	}
+
+	/**
+	 * Loads a file and checks that it gives exactly the expected edges in order
+	 */
+	static void expectEdges(Path path, String text, List<String> expected, List<String> failures) throws IOException {
+		Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+		EdgeListImporter importer = new EdgeListImporter(2);
+		try {
+			Graph<String, Double> graph = importer.load(path);
+			String problem = compare(graph, expected);
+			if (problem != null) {
+				failures.add("Loading "+text.replace("\r", "\\r").replace("\n", "\\n")+": "+problem);
+			}
+		} finally {
+			importer.shutdown();
+		}
+	}
+
+	/**
+	 * Loads a file and checks that it is refused with an IOException
+	 */
+	static void expectMalformed(Path path, String text, String damage, List<String> failures) throws IOException {
+		Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+		EdgeListImporter importer = new EdgeListImporter(2);
+		try {
+			importer.load(path);
+			failures.add("Loaded a file with "+damage);
+		} catch (IOException e) {
+			// Expected
+		} catch (RuntimeException e) {
+			failures.add("Loading a file with "+damage+" threw "+e);
+		} finally {
+			importer.shutdown();
+		}
+	}
+
+	/**
+	 * Checks that a graph's edges are the expected ones, in order of edge index
+	 * @return problem A description of the first difference, or null if there is none
+	 */
+	static String compare(Graph<String, Double> graph, List<String> expected) {
+		if (graph.numEdges() != expected.size()) {
+			return "Loaded "+graph.numEdges()+" edges against "+expected.size();
+		}
+		for (int e = 0; e < expected.size(); e++) {
+			Graph<String, Double>.Edge edge = graph.getEdge(e);
+			String actual = edge.getHead().getData()+" "+edge.getTail().getData()+" "+edge.getWeight();
+			if (!actual.equals(expected.get(e)) || edge.getData() != edge.getWeight()) {
+				return "Edge "+e+" is "+abbreviate(actual)+" against "+abbreviate(expected.get(e));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Writes random edges, some weighted and some not, some comma and some space separated
+	 */
+	static void edges(ByteArrayOutputStream file, List<String> expected, Random random, int count) {
+		for (int i = 0; i < count; i++) {
+			String head = "n"+random.nextInt(500);
+			String tail = "n"+random.nextInt(500);
+			if (random.nextBoolean()) {
+				edge(file, expected, head, tail, random.nextInt(100)/4.0, random.nextBoolean() ? "\n" : "\r\n");
+			} else {
+				write(file, head+" "+tail+"\n");
+				expected.add(head+" "+tail+" "+Graph.DEFAULT_WEIGHT);
+			}
+		}
+	}
+
+	/**
+	 * Writes one comma separated weighted edge
+	 */
+	static void edge(ByteArrayOutputStream file, List<String> expected, String head, String tail, double weight, String lineEnd) {
+		String text = weight == (int) weight ? Integer.toString((int) weight) : Double.toString(weight);
+		write(file, head+","+tail+","+text+lineEnd);
+		expected.add(head+" "+tail+" "+weight);
+	}
+
+	/**
+	 * Writes a comment line that brings the file to exactly a length
+	 */
+	static void padTo(ByteArrayOutputStream file, int length) {
+		char[] comment = new char[length-file.size()];
+		Arrays.fill(comment, 'x');
+		comment[0] = '#';
+		comment[comment.length-1] = '\n';
+		write(file, new String(comment));
+	}
+
+	static void write(ByteArrayOutputStream file, String text) {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		file.write(bytes, 0, bytes.length);
+	}
+
+	static String abbreviate(String text) {
+		return text.length() <= 40 ? text : text.substring(0, 40)+"...";
+	}
+}
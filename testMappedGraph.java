@@ -0,0 +1,155 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+	/**
+	 * Regression test for mapped graph files: a graph written with node and edge payloads must map and load
+	 * back with the same structure, weights and data, and a damaged header must be refused with an IOException
+	 * @author Jiamin Li
+	 * @version 10/17/26
+	 */
+
+public class testMappedGraph {
+
+	public static void main(String[] args) throws IOException {
+		List<String> failures = new ArrayList<String>();
+		Random random = new Random(24);
+
+		// Edges weigh their data's length, so their weights vary and the loaded graph must keep them
+		Graph<String, String> graph = new Graph<String, String>(data -> data.length());
+		for (int i = 0; i < 200; i++) {
+			// Every seventh node has no data, so it gets an empty payload
+			graph.addNode(i % 7 == 0 ? null : "node "+i);
+		}
+		for (int i = 0; i < 800; i++) {
+			Graph<String, String>.Node head = graph.getNode(random.nextInt(200));
+			Graph<String, String>.Node tail = random.nextInt(20) == 0 ? head : graph.getNode(random.nextInt(200));
+			graph.addEdge("edge "+i+" "+"x".repeat(random.nextInt(40)), head, tail);
+		}
+		// A payload larger than the write buffer is streamed on its own
+		graph.getNode(1).setData("y".repeat(100000));
+		graph.addEdge("z".repeat(70000), graph.getNode(2), graph.getNode(3));
+
+		Path path = Files.createTempFile("testMappedGraph", ".graph");
+		try {
+			GraphSnapshot<String, String> snapshot = graph.snapshot();
+			MappedGraph.write(snapshot, path, testMappedGraph::encode, testMappedGraph::encode);
+			MappedGraph mapped = MappedGraph.open(path);
+			if (mapped.numNodes() != graph.numNodes() || mapped.numEdges() != graph.numEdges()
+					|| !mapped.hasNodePayloads() || !mapped.hasEdgePayloads()) {
+				failures.add("Mapped "+mapped.numNodes()+" nodes and "+mapped.numEdges()+" edges from "+graph.numNodes()+" and "+graph.numEdges());
+			}
+			for (int i = 0; i < graph.numNodes(); i++) {
+				String data = mapped.nodeData(i, testMappedGraph::decode);
+				if (!Objects.equals(data, graph.getNode(i).getData())) {
+					failures.add("Node "+i+" read back as "+abbreviate(data));
+				}
+				if (mapped.degree(i) != snapshot.degree(i)) {
+					failures.add("Node "+i+" has degree "+mapped.degree(i)+" against "+snapshot.degree(i));
+				}
+			}
+			for (int e = 0; e < graph.numEdges(); e++) {
+				Graph<String, String>.Edge edge = graph.getEdge(e);
+				String data = mapped.edgeData(e, testMappedGraph::decode);
+				if (!edge.getData().equals(data) || mapped.headOf(e) != edge.getHead().getIndex() || mapped.tailOf(e) != edge.getTail().getIndex()) {
+					failures.add("Edge "+e+" read back as "+abbreviate(data)+" from "+mapped.headOf(e)+" to "+mapped.tailOf(e));
+				}
+			}
+			for (int entry = 0; entry < mapped.numEntries(); entry++) {
+				if (mapped.targetAt(entry) != snapshot.getTargets()[entry] || mapped.edgeIdAt(entry) != snapshot.getEdgeIds()[entry]
+						|| mapped.weightAt(entry) != snapshot.getWeights()[entry]) {
+					failures.add("Entry "+entry+" differs from the snapshot");
+					break;
+				}
+			}
+			if (!Arrays.equals(mapped.dijkstra(0, -1), snapshot.dijkstra(0)) || !Arrays.equals(mapped.bfs(0), snapshot.bfs(0))) {
+				failures.add("Searches on the mapped file differ from the snapshot");
+			}
+
+			// Loading the file rebuilds the graph with the same indexes and edge order at every node
+			Graph<String, String> loaded = mapped.toGraph(testMappedGraph::decode, testMappedGraph::decode, data -> data.length());
+			for (int i = 0; i < graph.numNodes(); i++) {
+				Graph<String, String>.Node expected = graph.getNode(i);
+				Graph<String, String>.Node actual = loaded.getNode(i);
+				if (!Objects.equals(expected.getData(), actual.getData()) || expected.degree() != actual.degree()) {
+					failures.add("Loaded node "+i+" has data "+abbreviate(actual.getData())+" and degree "+actual.degree());
+					continue;
+				}
+				for (int j = 0; j < expected.degree(); j++) {
+					Graph<String, String>.Edge edge = actual.edgeAt(j);
+					if (edge.getIndex() != expected.edgeAt(j).getIndex() || !edge.getData().equals(expected.edgeAt(j).getData())
+							|| edge.getWeight() != expected.edgeAt(j).getWeight()) {
+						failures.add("Loaded node "+i+" has edge "+edge.getIndex()+" at "+j);
+					}
+				}
+			}
+			failures.addAll(loaded.validate());
+			// The loaded graph weighs edges as the written one did, so its weights survive a refresh and new data
+			loaded.refreshWeights();
+			Graph<String, String>.Edge changed = loaded.getEdge(0);
+			changed.setData("abc");
+			for (int e = 0; e < loaded.numEdges(); e++) {
+				Graph<String, String>.Edge edge = loaded.getEdge(e);
+				if (edge.getWeight() != edge.getData().length()) {
+					failures.add("Loaded edge "+e+" weighs "+edge.getWeight()+" after a refresh, against "+edge.getData().length());
+				}
+			}
+
+			// Damage one header field at a time, each of which must be refused rather than mapped
+			byte[] original = Files.readAllBytes(path);
+			checkCorrupt(path, original, 0, 1, "bad magic", failures);
+			checkCorrupt(path, original, 4, 99, "unknown version", failures);
+			checkCorrupt(path, original, 8, -1, "negative node count", failures);
+			checkCorrupt(path, original, 16, graph.numEdges()*2+1, "wrong entry count", failures);
+			// The length of the first section, which must match the node count
+			checkCorrupt(path, original, 32, 12, "short offsets section", failures);
+			// The position of the targets section, moved past the end of the file
+			checkCorrupt(path, original, 40, original.length, "section past the end", failures);
+			Files.write(path, Arrays.copyOf(original, MappedGraph.HEADER_SIZE-1));
+			expectRefused(path, "truncated header", failures);
+			Files.write(path, Arrays.copyOf(original, original.length/2));
+			expectRefused(path, "truncated file", failures);
+		} finally {
+			Files.deleteIfExists(path);
+		}
+
+		System.out.println(failures.isEmpty() ? "No failures." : failures.size()+" failures, first: "+failures.get(0));
+	}
+
+	/**
+	 * Writes the file back with one int of the header replaced, and checks that open refuses it
+	 */
+	static void checkCorrupt(Path path, byte[] original, int position, int value, String damage, List<String> failures) throws IOException {
+		byte[] bytes = original.clone();
+		ByteBuffer.wrap(bytes).order(MappedGraph.ORDER).putInt(position, value);
+		Files.write(path, bytes);
+		expectRefused(path, damage, failures);
+	}
+
+	/**
+	 * Checks that opening a file throws an IOException, and nothing else
+	 */
+	static void expectRefused(Path path, String damage, List<String> failures) {
+		try {
+			MappedGraph.open(path);
+			failures.add("Opened a file with a "+damage);
+		} catch (IOException e) {
+			// Expected
+		} catch (RuntimeException e) {
+			failures.add("Opening a file with a "+damage+" threw "+e);
+		}
+	}
+
+	static byte[] encode(String data) {
+		return data.getBytes(StandardCharsets.UTF_8);
+	}
+
+	static String decode(ByteBuffer payload) {
+		return StandardCharsets.UTF_8.decode(payload).toString();
+	}
+
+	static String abbreviate(String data) {
+		return data == null || data.length() <= 20 ? data : data.substring(0, 20)+"...";
+	}
+}
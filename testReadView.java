@@ -0,0 +1,130 @@
+import java.util.*;
+	/**
+	 * Regression test for read views: a published view must never change while the graph does, even as
+	 * removed nodes' slots are reused, and every new view must match the graph edge for edge
+	 * @author Jiamin Li
+	 * @version 10/17/26
+	 */
+
+public class testReadView {
+
+	public static void main(String[] args) {
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		List<String> failures = new ArrayList<String>();
+		Random random = new Random(22);
+
+		Graph<Integer, Double> graph = new Graph<Integer, Double>();
+		for (int i = 0; i < 64; i++) {
+			graph.addNode(i);
+		}
+		for (int i = 0; i < 256; i++) {
+			graph.addWeightedEdge(random.nextInt(10), graph.getNode(random.nextInt(64)), graph.getNode(random.nextInt(64)));
+		}
+		// Parallel edges and self-loops take the paths where an edge is listed twice in one record
+		Graph<Integer, Double>.Node hub = graph.getNode(0);
+		for (int i = 0; i < 4; i++) {
+			graph.addWeightedEdge(i, hub, graph.getNode(1));
+			graph.addWeightedEdge(i, hub, hub);
+		}
+
+		ArrayList<ReadView<Integer, Double>> views = new ArrayList<ReadView<Integer, Double>>();
+		ArrayList<String> copies = new ArrayList<String>();
+		int nextData = 64;
+		for (int round = 0; round < rounds; round++) {
+			int op = random.nextInt(10);
+			if (op < 3 && graph.numEdges() > 0) {
+				graph.removeEdge(graph.getEdge(random.nextInt(graph.numEdges())));
+			} else if (op < 5 && graph.numNodes() > 8) {
+				// Freed slots are reused by the next nodes added
+				graph.removeNode(graph.getNode(random.nextInt(graph.numNodes())));
+			} else if (op < 6) {
+				graph.addNode(nextData++);
+			} else if (op < 8 && graph.numNodes() > 0) {
+				Graph<Integer, Double>.Node head = graph.getNode(random.nextInt(graph.numNodes()));
+				Graph<Integer, Double>.Node tail = random.nextInt(8) == 0 ? head : graph.getNode(random.nextInt(graph.numNodes()));
+				graph.addWeightedEdge(random.nextInt(10), head, tail);
+			} else if (graph.numEdges() > 0) {
+				graph.getEdge(random.nextInt(graph.numEdges())).setWeight(random.nextInt(10));
+			}
+			if (round % 50 == 0) {
+				ReadView<Integer, Double> view = graph.readView();
+				String problem = compare(graph, view);
+				if (problem != null) {
+					failures.add("Round "+round+": "+problem);
+				}
+				views.add(view);
+				copies.add(describe(view));
+			}
+		}
+		// Every earlier view must read exactly as it did when it was published
+		for (int v = 0; v < views.size(); v++) {
+			if (!describe(views.get(v)).equals(copies.get(v))) {
+				failures.add("View "+v+" changed after it was published");
+			}
+		}
+
+		// Empty slots answer as documented rather than throwing
+		ReadView<Integer, Double> view = graph.readView();
+		Graph<Integer, Double>.Node removed = graph.getNode(0);
+		graph.removeNode(removed);
+		ReadView<Integer, Double> after = graph.readView();
+		int empty = view.slotOf(removed);
+		if (after.slotOf(removed) != -1 || after.degree(empty) != -1 || after.getNode(empty) != null) {
+			failures.add("Removed node's slot "+empty+" still reads as occupied");
+		}
+		if (after.bfs(empty)[empty] != -1 || after.dijkstra(empty, -1)[empty] != Double.POSITIVE_INFINITY) {
+			failures.add("Search from the empty slot "+empty+" reached it");
+		}
+		failures.addAll(graph.validate());
+
+		System.out.println("Checked "+views.size()+" views over "+rounds+" changes");
+		System.out.println(failures.isEmpty() ? "No failures." : failures.size()+" failures, first: "+failures.get(0));
+	}
+
+	/**
+	 * Checks that a view holds exactly the graph's nodes, and for each the same edges, neighbors and weights
+	 * @return problem A description of the first difference, or null if there is none
+	 */
+	static String compare(Graph<Integer, Double> graph, ReadView<Integer, Double> view) {
+		if (view.numNodes() != graph.numNodes() || view.numEdges() != graph.numEdges()) {
+			return "View has "+view.numNodes()+" nodes and "+view.numEdges()+" edges, graph "+graph.numNodes()+" and "+graph.numEdges();
+		}
+		for (int i = 0; i < graph.numNodes(); i++) {
+			Graph<Integer, Double>.Node node = graph.getNode(i);
+			int slot = view.slotOf(node);
+			if (slot < 0 || view.degree(slot) != node.degree()) {
+				return "Node "+node.getData()+" has slot "+slot+" and degree "+(slot < 0 ? -1 : view.degree(slot))+" against "+node.degree();
+			}
+			// Compare as multisets, since removals reorder a record differently from the edge list
+			ArrayList<String> expected = new ArrayList<String>();
+			ArrayList<String> actual = new ArrayList<String>();
+			for (int j = 0; j < node.degree(); j++) {
+				Graph<Integer, Double>.Edge edge = node.edgeAt(j);
+				expected.add(System.identityHashCode(edge)+"/"+view.slotOf(edge.oppositeTo(node))+"/"+edge.getWeight());
+				actual.add(System.identityHashCode(view.edgeAt(slot, j))+"/"+view.neighborAt(slot, j)+"/"+view.weightAt(slot, j));
+			}
+			Collections.sort(expected);
+			Collections.sort(actual);
+			if (!expected.equals(actual)) {
+				return "Node "+node.getData()+" has edges "+actual+" against "+expected;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Writes out every slot of a view, for comparing it with itself later
+	 */
+	static String describe(ReadView<Integer, Double> view) {
+		StringBuilder text = new StringBuilder();
+		for (int slot = 0; slot < view.numSlots(); slot++) {
+			Graph<Integer, Double>.Node node = view.getNode(slot);
+			text.append(slot).append(node == null ? "-" : node.getData()).append(':');
+			for (int j = 0; j < Math.max(view.degree(slot), 0); j++) {
+				text.append(view.neighborAt(slot, j)).append('/').append(view.weightAt(slot, j)).append(' ');
+			}
+			text.append('\n');
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,73 @@
+import java.util.*;
+	/**
+	 * Regression test for removing high-degree nodes: a hub carrying parallel edges and a self-loop
+	 * must still be removed in time linear in its degree, leaving every neighbor index consistent
+	 * @author Jiamin Li
+	 * @version 10/17/26
+	 */
+
+public class testRemoval {
+
+	public static void main(String[] args) {
+		int degree = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		List<String> failures = new ArrayList<String>();
+
+		long plain = removeHub(degree, false, failures);
+		long parallel = removeHub(degree, true, failures);
+		System.out.println("Removed a hub of "+degree+" edges in "+plain+" ms, and with parallel edges in "+parallel+" ms");
+		// A rescan of the edge list per removal would take thousands of times as long
+		if (parallel > 20*Math.max(plain, 50)) {
+			failures.add("Removing a hub with parallel edges took "+parallel+" ms against "+plain+" ms without");
+		}
+
+		// Remove parallel edges one at a time, in every order, and check the index after each
+		Graph<Integer, Double> graph = new Graph<Integer, Double>();
+		Graph<Integer, Double>.Node a = graph.addNode(0);
+		Graph<Integer, Double>.Node b = graph.addNode(1);
+		for (int i = 0; i < 2*Graph.ADJACENCY_INDEX_THRESHOLD; i++) {
+			graph.addWeightedEdge(1, a, graph.addNode(i+2));
+		}
+		ArrayList<Graph<Integer, Double>.Edge> pair = new ArrayList<Graph<Integer, Double>.Edge>();
+		for (int i = 0; i < 4; i++) {
+			pair.add(graph.addWeightedEdge(i, a, b));
+		}
+		Random random = new Random(6);
+		while (!pair.isEmpty()) {
+			graph.removeEdge(pair.remove(random.nextInt(pair.size())));
+			Graph<Integer, Double>.Edge found = a.edgeTo(b);
+			if (pair.isEmpty() ? found != null : !pair.contains(found) || found.getIndex() < 0) {
+				failures.add("edgeTo gave "+found+" with "+pair.size()+" parallel edges left");
+			}
+		}
+		failures.addAll(graph.validate());
+
+		System.out.println(failures.isEmpty() ? "No failures." : failures.size()+" failures, first: "+failures.get(0));
+	}
+
+	/**
+	 * Builds a hub joined to degree other nodes, optionally with an early parallel pair and a self-loop,
+	 * then removes it and checks what is left
+	 * @return elapsed The time the removal took in milliseconds
+	 */
+	static long removeHub(int degree, boolean parallel, List<String> failures) {
+		Graph<Integer, Double> graph = new Graph<Integer, Double>();
+		Graph<Integer, Double>.Node hub = graph.addNode(-1);
+		Graph<Integer, Double>.Node first = graph.addNode(0);
+		graph.addWeightedEdge(1, hub, first);
+		if (parallel) {
+			graph.addWeightedEdge(2, hub, first);
+			graph.addWeightedEdge(3, hub, hub);
+		}
+		for (int i = 1; i < degree; i++) {
+			graph.addWeightedEdge(1, hub, graph.addNode(i));
+		}
+		long start = System.nanoTime();
+		graph.removeNode(hub);
+		long elapsed = (System.nanoTime()-start)/1000000;
+		if (graph.numEdges() != 0 || graph.numNodes() != degree || first.edgeTo(hub) != null) {
+			failures.add("Hub removal left "+graph.numEdges()+" edges and "+graph.numNodes()+" nodes");
+		}
+		failures.addAll(graph.validate());
+		return elapsed;
+	}
+}